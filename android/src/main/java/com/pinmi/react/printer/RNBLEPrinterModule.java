@@ -7,11 +7,23 @@ import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableArray;
 import com.pinmi.react.printer.adapter.BLEPrinterAdapter;
 import com.pinmi.react.printer.adapter.BLEPrinterDeviceId;
+import com.pinmi.react.printer.adapter.BarcodeOptions;
+import com.pinmi.react.printer.adapter.ImageFetcher;
+import com.pinmi.react.printer.adapter.ImagePrintOptions;
+import com.pinmi.react.printer.adapter.ImagePrinter;
 import com.pinmi.react.printer.adapter.PrinterAdapter;
 import com.pinmi.react.printer.adapter.PrinterDevice;
+import com.pinmi.react.printer.adapter.QrCodeOptions;
+import com.pinmi.react.printer.adapter.RasterCache;
+import com.pinmi.react.printer.adapter.RasterTextOptions;
+import com.pinmi.react.printer.adapter.TableOptions;
+import com.pinmi.react.printer.adapter.TablePrinter;
+import com.pinmi.react.printer.adapter.TextPrintOptions;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -68,16 +80,94 @@ public class RNBLEPrinterModule extends ReactContextBaseJavaModule implements RN
         adapter.printRawData(base64Data, errorCallback, successCallback);
     }
 
+    @ReactMethod
+    @Override
+    public void printFile(String source, Callback errorCallback, Callback successCallback) {
+        adapter.printFile(source, errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    @Override
+    public void printText(String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        adapter.printText(text, TextPrintOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    @Override
+    public void printBill(String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        adapter.printText(text, TextPrintOptions.fromReadableMap(options, TextPrintOptions.billDefaults()),
+                errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    @Override
+    public void printRasterText(String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        adapter.printRasterText(text, RasterTextOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    @Override
+    public void printTable(ReadableArray rows, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        adapter.printTable(TablePrinter.rowsFromReadableArray(rows), TableOptions.fromReadableMap(options),
+                errorCallback, successCallback);
+    }
+
+    @ReactMethod
     @Override
     public void printImageData(String imageUrl, Callback errorCallback) {
+        adapter.printImageData(imageUrl, errorCallback);
+    }
 
+    @ReactMethod
+    @Override
+    public void printImageDataWithOptions(String imageUrl, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        adapter.printImageData(imageUrl, ImagePrintOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    public void prefetchImage(String imageUrl, ReadableMap options, Callback successCallback, Callback errorCallback) {
+        try {
+            RasterCache.getInstance().init(reactContext);
+            ImageFetcher.getInstance().init(reactContext);
+            ImagePrinter.prefetch(imageUrl, ImagePrintOptions.fromReadableMap(options), successCallback, errorCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error prefetching image: " + e.getMessage());
+        }
     }
 
+    @ReactMethod
+    public void clearImageCache() {
+        RasterCache.getInstance().clear();
+    }
+
+    @ReactMethod
     @Override
     public void printQrCode(String qrCode, Callback errorCallback) {
+        adapter.printQrCode(qrCode, errorCallback);
+    }
 
+    @ReactMethod
+    @Override
+    public void printQrCodeWithOptions(String qrCode, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        adapter.printQrCode(qrCode, QrCodeOptions.fromReadableMap(options), errorCallback, successCallback);
     }
 
+    @ReactMethod
+    @Override
+    public void printBarcode(String data, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            adapter.printBarcode(data, BarcodeOptions.fromReadableMap(options), errorCallback, successCallback);
+        } catch (IllegalArgumentException e) {
+            errorCallback.invoke(e.getMessage());
+        }
+    }
+
+
+    @ReactMethod
+    @Override
+    public void getPrinterStatus(Callback successCallback, Callback errorCallback) {
+        adapter.getPrinterStatus(successCallback, errorCallback);
+    }
 
     @ReactMethod
     public void connectPrinter(String innerAddress, Callback successCallback, Callback errorCallback) {
@@ -6,10 +6,24 @@ import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
 import com.pinmi.react.printer.adapter.BLEPrinterDeviceId;
+import com.pinmi.react.printer.adapter.BarcodeOptions;
+import com.pinmi.react.printer.adapter.ImageFetcher;
+import com.pinmi.react.printer.adapter.ImagePrintOptions;
+import com.pinmi.react.printer.adapter.ImagePrinter;
+import com.pinmi.react.printer.adapter.KnownPrinterStore;
 import com.pinmi.react.printer.adapter.NetPrinterAdapter;
 import com.pinmi.react.printer.adapter.NetPrinterDeviceId;
+import com.pinmi.react.printer.adapter.NetScanOptions;
 import com.pinmi.react.printer.adapter.PrinterAdapter;
+import com.pinmi.react.printer.adapter.QrCodeOptions;
+import com.pinmi.react.printer.adapter.RasterCache;
+import com.pinmi.react.printer.adapter.RasterTextOptions;
+import com.pinmi.react.printer.adapter.TableOptions;
+import com.pinmi.react.printer.adapter.TablePrinter;
+import com.pinmi.react.printer.adapter.TextPrintOptions;
 
 /**
  * Created by xiesubin on 2017/9/22.
@@ -51,6 +65,26 @@ public class RNNetPrinterModule extends ReactContextBaseJavaModule implements RN
         // this.adapter.getDeviceList(errorCallback);
     }
 
+    @ReactMethod
+    public void getDeviceListWithOptions(ReadableMap options, Callback successCallback, Callback errorCallback) {
+        try {
+            NetPrinterAdapter.getInstance().scan(NetScanOptions.fromReadableMap(options));
+            successCallback.invoke();
+        } catch (Exception ex) {
+            errorCallback.invoke(ex.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void stopScan() {
+        NetPrinterAdapter.getInstance().stopScan();
+    }
+
+    @ReactMethod
+    public void clearKnownPrinters() {
+        KnownPrinterStore.getInstance().clear();
+    }
+
     @ReactMethod
     public void connectPrinter(String host, Integer port, Callback successCallback, Callback errorCallback) {
         adapter.selectDevice(NetPrinterDeviceId.valueOf(host, port), successCallback, errorCallback);
@@ -62,6 +96,38 @@ public class RNNetPrinterModule extends ReactContextBaseJavaModule implements RN
         adapter.printRawData(base64Data, errorCallback, successCallback);
     }
 
+    @ReactMethod
+    @Override
+    public void printFile(String source, Callback errorCallback, Callback successCallback) {
+        adapter.printFile(source, errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    @Override
+    public void printText(String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        adapter.printText(text, TextPrintOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    @Override
+    public void printBill(String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        adapter.printText(text, TextPrintOptions.fromReadableMap(options, TextPrintOptions.billDefaults()),
+                errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    @Override
+    public void printRasterText(String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        adapter.printRasterText(text, RasterTextOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    @Override
+    public void printTable(ReadableArray rows, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        adapter.printTable(TablePrinter.rowsFromReadableArray(rows), TableOptions.fromReadableMap(options),
+                errorCallback, successCallback);
+    }
+
     @ReactMethod
     @Override
     public void printImageData(String imageUrl, Callback errorCallback) {
@@ -69,6 +135,29 @@ public class RNNetPrinterModule extends ReactContextBaseJavaModule implements RN
         adapter.printImageData(imageUrl, errorCallback);
     }
 
+    @ReactMethod
+    @Override
+    public void printImageDataWithOptions(String imageUrl, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        Log.v("imageUrl", imageUrl);
+        adapter.printImageData(imageUrl, ImagePrintOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    public void prefetchImage(String imageUrl, ReadableMap options, Callback successCallback, Callback errorCallback) {
+        try {
+            RasterCache.getInstance().init(reactContext);
+            ImageFetcher.getInstance().init(reactContext);
+            ImagePrinter.prefetch(imageUrl, ImagePrintOptions.fromReadableMap(options), successCallback, errorCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error prefetching image: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void clearImageCache() {
+        RasterCache.getInstance().clear();
+    }
+
     @ReactMethod
     @Override
     public void printQrCode(String qrCode, Callback errorCallback) {
@@ -76,7 +165,104 @@ public class RNNetPrinterModule extends ReactContextBaseJavaModule implements RN
         adapter.printQrCode(qrCode, errorCallback);
     }
 
+    @ReactMethod
+    @Override
+    public void printQrCodeWithOptions(String qrCode, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        Log.v("qrCode", qrCode);
+        adapter.printQrCode(qrCode, QrCodeOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
 
+    @ReactMethod
+    @Override
+    public void printBarcode(String data, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            adapter.printBarcode(data, BarcodeOptions.fromReadableMap(options), errorCallback, successCallback);
+        } catch (IllegalArgumentException e) {
+            errorCallback.invoke(e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    @Override
+    public void getPrinterStatus(Callback successCallback, Callback errorCallback) {
+        adapter.getPrinterStatus(successCallback, errorCallback);
+    }
+
+    @ReactMethod
+    public void getPrinterStatusOf(String host, Integer port, Callback successCallback, Callback errorCallback) {
+        NetPrinterAdapter.getInstance().getPrinterStatus(NetPrinterDeviceId.valueOf(host, port), successCallback, errorCallback);
+    }
+
+    @ReactMethod
+    public void printRawDataToPrinter(String host, Integer port, String base64Data, Callback errorCallback, Callback successCallback) {
+        NetPrinterAdapter.getInstance().printRawData(NetPrinterDeviceId.valueOf(host, port), base64Data, errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    public void printFileToPrinter(String host, Integer port, String source, Callback errorCallback, Callback successCallback) {
+        NetPrinterAdapter.getInstance().printFile(NetPrinterDeviceId.valueOf(host, port), source, errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    public void printTextToPrinter(String host, Integer port, String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        NetPrinterAdapter.getInstance().printText(NetPrinterDeviceId.valueOf(host, port), text,
+                TextPrintOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    public void printBillToPrinter(String host, Integer port, String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        NetPrinterAdapter.getInstance().printText(NetPrinterDeviceId.valueOf(host, port), text,
+                TextPrintOptions.fromReadableMap(options, TextPrintOptions.billDefaults()), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    public void printRasterTextToPrinter(String host, Integer port, String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        NetPrinterAdapter.getInstance().printRasterText(NetPrinterDeviceId.valueOf(host, port), text,
+                RasterTextOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    public void printTableToPrinter(String host, Integer port, ReadableArray rows, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        NetPrinterAdapter.getInstance().printTable(NetPrinterDeviceId.valueOf(host, port), TablePrinter.rowsFromReadableArray(rows),
+                TableOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    public void printImageDataToPrinter(String host, Integer port, String imageUrl, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        NetPrinterAdapter.getInstance().printImageData(NetPrinterDeviceId.valueOf(host, port), imageUrl,
+                ImagePrintOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    public void printQrCodeToPrinter(String host, Integer port, String qrCode, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        NetPrinterAdapter.getInstance().printQrCode(NetPrinterDeviceId.valueOf(host, port), qrCode,
+                QrCodeOptions.fromReadableMap(options), errorCallback, successCallback);
+    }
+
+    @ReactMethod
+    public void printBarcodeToPrinter(String host, Integer port, String data, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            NetPrinterAdapter.getInstance().printBarcode(NetPrinterDeviceId.valueOf(host, port), data,
+                    BarcodeOptions.fromReadableMap(options), errorCallback, successCallback);
+        } catch (IllegalArgumentException e) {
+            errorCallback.invoke(e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void closePrinter(String host, Integer port) {
+        NetPrinterAdapter.getInstance().closeConnection(NetPrinterDeviceId.valueOf(host, port));
+    }
+
+    @ReactMethod
+    public void setPrinterIdleTimeout(String host, Integer port, Integer idleTimeoutMs) {
+        NetPrinterAdapter.getInstance().setIdleTimeout(NetPrinterDeviceId.valueOf(host, port), idleTimeoutMs);
+    }
+
+    @ReactMethod
+    public void setMaxConnections(Integer maxConnections) {
+        NetPrinterAdapter.getInstance().setMaxConnections(maxConnections);
+    }
 
     @Override
     public String getName() {
@@ -9,6 +9,8 @@ import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.pinmi.react.printer.adapter.PrinterAdapter;
@@ -34,11 +36,38 @@ public interface RNPrinterModule {
     @ReactMethod
     public void printRawData(String base64Data, Callback errorCallback, Callback successCallback) ;
 
+    @ReactMethod
+    public void printFile(String source, Callback errorCallback, Callback successCallback) ;
+
+    @ReactMethod
+    public void printText(String text, ReadableMap options, Callback errorCallback, Callback successCallback) ;
+
+    @ReactMethod
+    public void printBill(String text, ReadableMap options, Callback errorCallback, Callback successCallback) ;
+
+    @ReactMethod
+    public void printRasterText(String text, ReadableMap options, Callback errorCallback, Callback successCallback) ;
+
+    @ReactMethod
+    public void printTable(ReadableArray rows, ReadableMap options, Callback errorCallback, Callback successCallback) ;
+
     @ReactMethod
     public void printImageData(String imageUrl, Callback errorCallback) ;
 
+    @ReactMethod
+    public void printImageDataWithOptions(String imageUrl, ReadableMap options, Callback errorCallback, Callback successCallback) ;
+
     @ReactMethod
     public void printQrCode(String qrCode, Callback errorCallback) ;
 
+    @ReactMethod
+    public void printQrCodeWithOptions(String qrCode, ReadableMap options, Callback errorCallback, Callback successCallback) ;
+
+    @ReactMethod
+    public void printBarcode(String data, ReadableMap options, Callback errorCallback, Callback successCallback) ;
+
+    @ReactMethod
+    public void getPrinterStatus(Callback successCallback, Callback errorCallback) ;
+
 }
 
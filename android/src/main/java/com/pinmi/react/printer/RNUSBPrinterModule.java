@@ -5,9 +5,21 @@ import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableArray;
+import com.pinmi.react.printer.adapter.BarcodeOptions;
+import com.pinmi.react.printer.adapter.ImageFetcher;
+import com.pinmi.react.printer.adapter.ImagePrintOptions;
+import com.pinmi.react.printer.adapter.ImagePrinter;
 import com.pinmi.react.printer.adapter.PrinterAdapter;
+import com.pinmi.react.printer.adapter.RasterCache;
 import com.pinmi.react.printer.adapter.PrinterDevice;
+import com.pinmi.react.printer.adapter.QrCodeOptions;
+import com.pinmi.react.printer.adapter.RasterTextOptions;
+import com.pinmi.react.printer.adapter.TableOptions;
+import com.pinmi.react.printer.adapter.TablePrinter;
+import com.pinmi.react.printer.adapter.TextPrintOptions;
 import com.pinmi.react.printer.adapter.USBPrinterAdapter;
 import com.pinmi.react.printer.adapter.USBPrinterDeviceId;
 
@@ -83,6 +95,58 @@ public class RNUSBPrinterModule extends ReactContextBaseJavaModule implements RN
         }
     }
 
+    @ReactMethod
+    @Override
+    public void printFile(String source, Callback errorCallback, Callback successCallback) {
+        try {
+            adapter.printFile(source, errorCallback, successCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error printing file: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    @Override
+    public void printText(String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            adapter.printText(text, TextPrintOptions.fromReadableMap(options), errorCallback, successCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error printing text: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    @Override
+    public void printBill(String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            adapter.printText(text, TextPrintOptions.fromReadableMap(options, TextPrintOptions.billDefaults()),
+                    errorCallback, successCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error printing text: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    @Override
+    public void printRasterText(String text, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            adapter.printRasterText(text, RasterTextOptions.fromReadableMap(options), errorCallback, successCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error printing text: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    @Override
+    public void printTable(ReadableArray rows, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            adapter.printTable(TablePrinter.rowsFromReadableArray(rows), TableOptions.fromReadableMap(options),
+                    errorCallback, successCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error printing table: " + e.getMessage());
+        }
+    }
+
     @ReactMethod
     @Override
     public void printImageData(String imageUrl, Callback errorCallback) {
@@ -93,6 +157,32 @@ public class RNUSBPrinterModule extends ReactContextBaseJavaModule implements RN
         }
     }
 
+    @ReactMethod
+    @Override
+    public void printImageDataWithOptions(String imageUrl, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            adapter.printImageData(imageUrl, ImagePrintOptions.fromReadableMap(options), errorCallback, successCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error printing image data: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void prefetchImage(String imageUrl, ReadableMap options, Callback successCallback, Callback errorCallback) {
+        try {
+            RasterCache.getInstance().init(reactContext);
+            ImageFetcher.getInstance().init(reactContext);
+            ImagePrinter.prefetch(imageUrl, ImagePrintOptions.fromReadableMap(options), successCallback, errorCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error prefetching image: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    public void clearImageCache() {
+        RasterCache.getInstance().clear();
+    }
+
     @ReactMethod
     @Override
     public void printQrCode(String qrCode, Callback errorCallback) {
@@ -103,6 +193,36 @@ public class RNUSBPrinterModule extends ReactContextBaseJavaModule implements RN
         }
     }
 
+    @ReactMethod
+    @Override
+    public void printQrCodeWithOptions(String qrCode, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            adapter.printQrCode(qrCode, QrCodeOptions.fromReadableMap(options), errorCallback, successCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error printing QR code: " + e.getMessage());
+        }
+    }
+
+    @ReactMethod
+    @Override
+    public void printBarcode(String data, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            adapter.printBarcode(data, BarcodeOptions.fromReadableMap(options), errorCallback, successCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error printing barcode: " + e.getMessage());
+        }
+    }
+
+
+    @ReactMethod
+    @Override
+    public void getPrinterStatus(Callback successCallback, Callback errorCallback) {
+        try {
+            adapter.getPrinterStatus(successCallback, errorCallback);
+        } catch (Exception e) {
+            errorCallback.invoke("Error reading printer status: " + e.getMessage());
+        }
+    }
 
     @ReactMethod
     public void connectPrinter(Integer vendorId, Integer productId, Callback successCallback, Callback errorCallback) {
@@ -0,0 +1,74 @@
+package com.pinmi.react.printer.adapter;
+
+/**
+ * Picks the write chunk size for a transport by measuring throughput.
+ *
+ * Sizes are powers of two between a floor and a ceiling. After every sample of
+ * a few chunks the sizer keeps moving in the same direction while throughput
+ * improves and turns around when it drops, so it settles on the fastest size
+ * the link and the printer's buffer sustain and follows it if that changes.
+ */
+
+public class AdaptiveChunkSizer {
+
+    private final static int CHUNKS_PER_SAMPLE = 4;
+
+    private final int mMinSize;
+    private final int mMaxSize;
+    private int mSize;
+    private boolean mGrowing = true;
+    private double mLastThroughput = 0;
+    private long mSampleBytes = 0;
+    private long mSampleNanos = 0;
+    private int mSampleChunks = 0;
+
+    public AdaptiveChunkSizer(int minSize, int initialSize, int maxSize) {
+        this.mMinSize = minSize;
+        this.mMaxSize = maxSize;
+        this.mSize = Math.max(minSize, Math.min(maxSize, initialSize));
+    }
+
+    public static AdaptiveChunkSizer forUsb() {
+        // older Android versions fail bulk transfers above 16 KB
+        return new AdaptiveChunkSizer(512, 4096, 16384);
+    }
+
+    public static AdaptiveChunkSizer forBluetooth() {
+        return new AdaptiveChunkSizer(128, 512, 4096);
+    }
+
+    public synchronized int getChunkSize() {
+        return mSize;
+    }
+
+    /**
+     * Records how long a chunk of the current size took to be accepted.
+     */
+    public synchronized void record(int bytes, long nanos) {
+        if (bytes < mSize) {
+            // the tail of a write says nothing about this size
+            return;
+        }
+        mSampleBytes += bytes;
+        mSampleNanos += Math.max(1, nanos);
+        if (++mSampleChunks < CHUNKS_PER_SAMPLE) {
+            return;
+        }
+
+        double throughput = (double) mSampleBytes / mSampleNanos;
+        if (throughput < mLastThroughput) {
+            mGrowing = !mGrowing;
+        }
+        mLastThroughput = throughput;
+        mSampleBytes = 0;
+        mSampleNanos = 0;
+        mSampleChunks = 0;
+
+        int next = mGrowing ? mSize * 2 : mSize / 2;
+        if (next > mMaxSize || next < mMinSize) {
+            mGrowing = !mGrowing;
+            next = mGrowing ? mSize * 2 : mSize / 2;
+        }
+        mSize = Math.max(mMinSize, Math.min(mMaxSize, next));
+    }
+}
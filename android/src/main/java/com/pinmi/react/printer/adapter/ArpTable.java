@@ -0,0 +1,122 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The kernel's IPv4 neighbour table, used to find the hosts that are actually
+ * alive on the LAN before sweeping every address of the subnet.
+ *
+ * Android 10 and later deny apps access to /proc/net/arp; read() then returns
+ * an empty set and the caller falls back to the full sweep.
+ */
+
+public class ArpTable {
+
+    public final static File PROC_NET_ARP = new File("/proc/net/arp");
+    public final static int DEFAULT_WARM_UP_WINDOW = 300;
+
+    // ATF_COM: the hardware address is resolved
+    private final static int FLAG_COMPLETE = 0x2;
+    private final static String EMPTY_MAC = "00:00:00:00:00:00";
+    private final static int DISCARD_PORT = 9;
+
+    public static boolean isAvailable() {
+        return PROC_NET_ARP.canRead();
+    }
+
+    public static Set<InetAddress> read() {
+        return read(PROC_NET_ARP);
+    }
+
+    /**
+     * Parses the table; columns are IP address, HW type, flags, HW address, mask, device.
+     */
+    public static Set<InetAddress> read(File table) {
+        Set<InetAddress> hosts = new HashSet<>();
+        if (!table.canRead()) {
+            return hosts;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new FileReader(table));
+            // header line
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.trim().split("\\s+");
+                if (columns.length < 4 || EMPTY_MAC.equals(columns[3])) {
+                    continue;
+                }
+                try {
+                    if ((Integer.decode(columns[2]) & FLAG_COMPLETE) == 0) {
+                        continue;
+                    }
+                    hosts.add(InetAddress.getByName(columns[0]));
+                } catch (NumberFormatException | IOException e) {
+                    // malformed row
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        return hosts;
+    }
+
+    /**
+     * Sends one tiny datagram to every host so the kernel resolves their
+     * hardware addresses, then waits for the replies to land in the table.
+     */
+    public static void warmUp(List<InetAddress> hosts, int window) {
+        byte[] ping = new byte[1];
+        DatagramSocket socket = null;
+        try {
+            socket = new DatagramSocket();
+            for (InetAddress host : hosts) {
+                try {
+                    socket.send(new DatagramPacket(ping, ping.length, host, DISCARD_PORT));
+                } catch (IOException e) {
+                    // unreachable host, nothing to resolve
+                }
+            }
+            Thread.sleep(window);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (socket != null) {
+                socket.close();
+            }
+        }
+    }
+
+    /**
+     * The hosts from the list that have a resolved neighbour entry.
+     */
+    public static List<InetAddress> alive(List<InetAddress> hosts, Set<InetAddress> neighbours) {
+        List<InetAddress> alive = new ArrayList<>();
+        for (InetAddress host : hosts) {
+            if (neighbours.contains(host)) {
+                alive.add(host);
+            }
+        }
+        return alive;
+    }
+}
@@ -37,6 +37,9 @@ public class BLEPrinterAdapter implements PrinterAdapter{
 
     private BluetoothDevice mBluetoothDevice;
     private BluetoothSocket mBluetoothSocket;
+    private PrinterStatusChannel mStatusChannel;
+    private AdaptiveChunkSizer mChunkSizer = AdaptiveChunkSizer.forBluetooth();
+    private final PrinterJobQueue mJobQueue = new PrinterJobQueue("bluetooth");
 
 
     private ReactApplicationContext mContext;
@@ -55,6 +58,8 @@ public class BLEPrinterAdapter implements PrinterAdapter{
     @Override
     public void init(ReactApplicationContext reactContext, Callback successCallback, Callback errorCallback) {
         this.mContext = reactContext;
+        RasterCache.getInstance().init(reactContext);
+        ImageFetcher.getInstance().init(reactContext);
         BluetoothAdapter bluetoothAdapter = getBTAdapter();
         if(bluetoothAdapter == null) {
             errorCallback.invoke("No bluetooth adapter available");
@@ -139,19 +144,37 @@ public class BLEPrinterAdapter implements PrinterAdapter{
         UUID uuid = UUID.fromString("00001101-0000-1000-8000-00805f9b34fb");
         this.mBluetoothSocket = device.createRfcommSocketToServiceRecord(uuid);
         this.mBluetoothSocket.connect();
+        this.mChunkSizer = AdaptiveChunkSizer.forBluetooth();
+        this.mStatusChannel = new PrinterStatusChannel(new StreamPrinterOutput(this.mBluetoothSocket.getOutputStream()),
+                new StreamPrinterInput(this.mBluetoothSocket.getInputStream()));
         this.mBluetoothDevice = device;//最后一步执行
 
     }
 
+    /**
+     * Closes the socket behind the jobs already queued, so they still print
+     * instead of failing on a closed socket. New jobs need a new connection.
+     */
     @Override
     public void closeConnectionIfExists() {
-        try{
-            if(this.mBluetoothSocket != null){
-                this.mBluetoothSocket.close();
-                this.mBluetoothSocket = null;
+        if(this.mBluetoothSocket != null){
+            final BluetoothSocket socket = this.mBluetoothSocket;
+            this.mBluetoothSocket = null;
+            this.mStatusChannel = null;
+            Runnable close = new Runnable() {
+                @Override
+                public void run() {
+                    try{
+                        socket.close();
+                    }catch(IOException e){
+                        e.printStackTrace();
+                    }
+                }
+            };
+            if (!mJobQueue.submit(close)) {
+                // queue full, the jobs left in it fail on the closed socket and report it
+                close.run();
             }
-        }catch(IOException e){
-            e.printStackTrace();
         }
 
         if(this.mBluetoothDevice != null) {
@@ -167,17 +190,150 @@ public class BLEPrinterAdapter implements PrinterAdapter{
         }
         final String rawData = rawBase64Data;
         final BluetoothSocket socket = this.mBluetoothSocket;
-        Log.v(LOG_TAG, "start to print raw data " + rawBase64Data);
-        new Thread(new BLEThreadWrite(socket, rawData, successCallback, errorCallback)).start();
+        Log.v(LOG_TAG, "start to print raw data");
+        mJobQueue.submit(new BLEThreadWrite(socket, this.mStatusChannel, this.mChunkSizer, rawData, successCallback, errorCallback), errorCallback);
+    }
+
+    @Override
+    public void printFile(final String source, final Callback errorCallback, final Callback successCallback) {
+        Log.v(LOG_TAG, "start to print file " + source);
+        submitRawJob("failed to print file", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                FilePrinter.print(mContext, source, output);
+            }
+        }, errorCallback, successCallback);
+    }
+
+    @Override
+    public void printText(final String text, final TextPrintOptions options, final Callback errorCallback, final Callback successCallback) {
+        submitJob("failed to print text", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                TextPrinter.print(text, options, output);
+            }
+        }, errorCallback, successCallback);
+    }
+
+    @Override
+    public void printRasterText(final String text, final RasterTextOptions options, final Callback errorCallback, final Callback successCallback) {
+        submitJob("failed to print text", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                RasterTextPrinter.print(text, options, output);
+            }
+        }, errorCallback, successCallback);
+    }
+
+    @Override
+    public void printTable(final List<List<String>> rows, final TableOptions options, final Callback errorCallback, final Callback successCallback) {
+        submitJob("failed to print table", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                TablePrinter.print(rows, options, output);
+            }
+        }, errorCallback, successCallback);
     }
 
     @Override
     public void printImageData(String imageUrl, Callback errorCallback) {
+        printImageData(imageUrl, ImagePrintOptions.defaults(), errorCallback, null);
+    }
 
+    @Override
+    public void printImageData(final String imageUrl, final ImagePrintOptions options, Callback errorCallback, Callback successCallback) {
+        submitJob("failed to print image", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                ImagePrinter.print(imageUrl, options, output);
+            }
+        }, errorCallback, successCallback);
     }
 
     @Override
     public void printQrCode(String qrCode, Callback errorCallback) {
+        printQrCode(qrCode, QrCodeOptions.legacy(), errorCallback, null);
+    }
 
+    @Override
+    public void printQrCode(final String qrCode, final QrCodeOptions options, Callback errorCallback, Callback successCallback) {
+        submitJob("failed to print qr code", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                QrCodePrinter.print(qrCode, options, output);
+            }
+        }, errorCallback, successCallback);
+    }
+
+    @Override
+    public void printBarcode(final String data, final BarcodeOptions options, final Callback errorCallback, final Callback successCallback) {
+        submitJob("failed to print barcode", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                BarcodePrinter.print(data, options, output);
+            }
+        }, errorCallback, successCallback);
+    }
+
+    private void submitJob(String failure, PrintJob job, Callback errorCallback, Callback successCallback) {
+        submitJob(failure, false, job, errorCallback, successCallback);
+    }
+
+    private void submitRawJob(String failure, PrintJob job, Callback errorCallback, Callback successCallback) {
+        submitJob(failure, true, job, errorCallback, successCallback);
+    }
+
+    /**
+     * Queues the job on the connected socket. When it runs it prints through
+     * a chunked, flow-controlled output, waits for the printer to confirm and
+     * reports the result; successCallback may be null.
+     */
+    private void submitJob(final String failure, final boolean rawData, final PrintJob job,
+                           final Callback errorCallback, final Callback successCallback) {
+        if(this.mBluetoothSocket == null){
+            errorCallback.invoke("bluetooth connection is not built, may be you forgot to connectPrinter");
+            return;
+        }
+        final BluetoothSocket socket = this.mBluetoothSocket;
+        final PrinterStatusChannel statusChannel = this.mStatusChannel;
+        final AdaptiveChunkSizer chunkSizer = this.mChunkSizer;
+        mJobQueue.submit(new Runnable() {
+            @Override
+            public void run() {
+                try{
+                    PrinterOutput output = new ChunkedPrinterOutput(new StreamPrinterOutput(socket.getOutputStream()), chunkSizer);
+                    job.print(rawData ? FlowControlledPrinterOutput.forRawData(output, statusChannel)
+                            : new FlowControlledPrinterOutput(output, statusChannel));
+                    statusChannel.awaitPrinted();
+                    if (successCallback != null) {
+                        successCallback.invoke();
+                    }
+                }catch (IOException e){
+                    Log.e(LOG_TAG, failure);
+                    e.printStackTrace();
+                    errorCallback.invoke(e.getMessage());
+                }
+            }
+        }, errorCallback);
+    }
+
+    @Override
+    public void getPrinterStatus(final Callback successCallback, final Callback errorCallback) {
+        final PrinterStatusChannel statusChannel = this.mStatusChannel;
+        if(statusChannel == null){
+            errorCallback.invoke("bluetooth connection is not built, may be you forgot to connectPrinter");
+            return;
+        }
+        // queued so the replies are not mixed up with a running job's
+        mJobQueue.submit(new Runnable() {
+            @Override
+            public void run() {
+                try{
+                    successCallback.invoke(statusChannel.query().toRNWritableMap());
+                }catch (IOException e){
+                    errorCallback.invoke(e.getMessage());
+                }
+            }
+        }, errorCallback);
     }
 }
@@ -7,7 +7,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import android.bluetooth.BluetoothSocket;
-import android.util.Base64;
 import android.util.Log;
 import androidx.annotation.RequiresApi;
 import java.util.Hashtable;
@@ -19,25 +18,47 @@ public class BLEThreadWrite implements Runnable {
 
     private String rawData;
     private BluetoothSocket socket;
+    private PrinterStatusChannel statusChannel;
+    private AdaptiveChunkSizer chunkSizer;
     private String LOG_TAG = "RNBLEPrinter";
 
     public BLEThreadWrite(BluetoothSocket socket, String rawData, Callback callSuccess, Callback callError) {
+        this(socket, null, null, rawData, callSuccess, callError);
+    }
+
+    /**
+     * With a status channel the data is flow controlled and success is only
+     * reported once the printer confirms it has printed the job. With a chunk
+     * sizer the data goes out in throughput-tuned chunks.
+     */
+    public BLEThreadWrite(BluetoothSocket socket, PrinterStatusChannel statusChannel, AdaptiveChunkSizer chunkSizer,
+                          String rawData, Callback callSuccess, Callback callError) {
+        this.chunkSizer = chunkSizer;
         this.callSuccess = callSuccess;
         this.callError = callError;
         this.rawData = rawData;
         this.socket = socket;
+        this.statusChannel = statusChannel;
     }
    
    @Override
     public void run() {
-        byte [] bytes = Base64.decode(rawData, Base64.DEFAULT);
         try{
-            OutputStream printerOutputStream = socket.getOutputStream();
-            printerOutputStream.write(bytes, 0, bytes.length);
-            printerOutputStream.flush();
+            PrinterOutput output = new StreamPrinterOutput(socket.getOutputStream());
+            if (chunkSizer != null) {
+                output = new ChunkedPrinterOutput(output, chunkSizer);
+            }
+            if (statusChannel != null) {
+                output = FlowControlledPrinterOutput.forRawData(output, statusChannel);
+            }
+            Base64PrinterDecoder.decode(rawData, output);
+            output.flush();
+            if (statusChannel != null) {
+                statusChannel.awaitPrinted();
+            }
             this.callSuccess.invoke();
         }catch (IOException e){
-            Log.e(LOG_TAG, "failed to print data" + rawData);
+            Log.e(LOG_TAG, "failed to print data");
             e.printStackTrace();
             this.callError.invoke(e.toString());
         }
@@ -0,0 +1,179 @@
+package com.pinmi.react.printer.adapter;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.Locale;
+
+/**
+ * Per-print settings for 1D barcodes, parsed from the options map sent by JS.
+ */
+
+public class BarcodeOptions {
+
+    public enum Symbology {
+        UPC_A(65),
+        UPC_E(66),
+        EAN13(67),
+        EAN8(68),
+        CODE39(69),
+        ITF(70),
+        CODABAR(71),
+        CODE93(72),
+        CODE128(73);
+
+        /** m of GS k function B */
+        final int escPosType;
+
+        Symbology(int escPosType) {
+            this.escPosType = escPosType;
+        }
+    }
+
+    public enum BarcodeMode {
+        /** Printer draws the barcode from GS k, as an image when it would not fit. */
+        NATIVE,
+        /** Barcode is rendered with zxing and sent as a bit image. */
+        RASTER
+    }
+
+    public enum HriPosition {
+        NONE, ABOVE, BELOW, BOTH
+    }
+
+    private Symbology symbology = Symbology.CODE128;
+    private BarcodeMode mode = BarcodeMode.NATIVE;
+    private int height = 80;
+    private int width = 3;
+    private HriPosition hriPosition = HriPosition.BELOW;
+    private boolean hriSmallFont = false;
+    private int paperWidth = RasterTextOptions.PAPER_WIDTH_80MM;
+
+    public static BarcodeOptions defaults() {
+        return new BarcodeOptions();
+    }
+
+    public static BarcodeOptions fromReadableMap(ReadableMap map) {
+        BarcodeOptions options = new BarcodeOptions();
+        if (map == null) {
+            return options;
+        }
+        if (map.hasKey("type") && !map.isNull("type")) {
+            options.symbology = parseSymbology(map.getString("type"));
+        }
+        if (map.hasKey("mode") && !map.isNull("mode")) {
+            options.mode = "raster".equalsIgnoreCase(map.getString("mode")) ? BarcodeMode.RASTER : BarcodeMode.NATIVE;
+        }
+        if (map.hasKey("height") && !map.isNull("height")) {
+            options.height = Math.max(1, Math.min(255, map.getInt("height")));
+        }
+        if (map.hasKey("width") && !map.isNull("width")) {
+            options.width = Math.max(2, Math.min(6, map.getInt("width")));
+        }
+        if (map.hasKey("hri") && !map.isNull("hri")) {
+            options.hriPosition = parseHriPosition(map.getString("hri"));
+        }
+        if (map.hasKey("hriSmallFont") && !map.isNull("hriSmallFont")) {
+            options.hriSmallFont = map.getBoolean("hriSmallFont");
+        }
+        if (map.hasKey("printerWidthType") && !map.isNull("printerWidthType")) {
+            options.paperWidth = map.getInt("printerWidthType") == 58
+                    ? RasterTextOptions.PAPER_WIDTH_58MM : RasterTextOptions.PAPER_WIDTH_80MM;
+        }
+        if (map.hasKey("paperWidth") && !map.isNull("paperWidth")) {
+            options.paperWidth = Math.max(8, Math.min(2048, map.getInt("paperWidth")));
+        }
+        return options;
+    }
+
+    private static Symbology parseSymbology(String value) {
+        String normalized = value.replace("-", "").replace("_", "").toUpperCase(Locale.US);
+        for (Symbology symbology : Symbology.values()) {
+            if (symbology.name().replace("_", "").equals(normalized)) {
+                return symbology;
+            }
+        }
+        throw new IllegalArgumentException("unsupported barcode type: " + value);
+    }
+
+    private static HriPosition parseHriPosition(String value) {
+        for (HriPosition position : HriPosition.values()) {
+            if (position.name().equalsIgnoreCase(value)) {
+                return position;
+            }
+        }
+        return HriPosition.BELOW;
+    }
+
+    public Symbology getSymbology() {
+        return symbology;
+    }
+
+    public BarcodeOptions setSymbology(Symbology symbology) {
+        this.symbology = symbology;
+        return this;
+    }
+
+    public BarcodeMode getMode() {
+        return mode;
+    }
+
+    public BarcodeOptions setMode(BarcodeMode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    /**
+     * Bar height in dots, 1 to 255.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    public BarcodeOptions setHeight(int height) {
+        this.height = height;
+        return this;
+    }
+
+    /**
+     * Narrow bar width in dots, 2 to 6.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    public BarcodeOptions setWidth(int width) {
+        this.width = width;
+        return this;
+    }
+
+    public HriPosition getHriPosition() {
+        return hriPosition;
+    }
+
+    public BarcodeOptions setHriPosition(HriPosition hriPosition) {
+        this.hriPosition = hriPosition;
+        return this;
+    }
+
+    /**
+     * Printable width in dots, 384 for 58 mm and 576 for 80 mm paper. Wider
+     * barcodes get narrower bars or are printed as an image.
+     */
+    public int getPaperWidth() {
+        return paperWidth;
+    }
+
+    public BarcodeOptions setPaperWidth(int paperWidth) {
+        this.paperWidth = paperWidth;
+        return this;
+    }
+
+    public boolean isHriSmallFont() {
+        return hriSmallFont;
+    }
+
+    public BarcodeOptions setHriSmallFont(boolean hriSmallFont) {
+        this.hriSmallFont = hriSmallFont;
+        return this;
+    }
+}
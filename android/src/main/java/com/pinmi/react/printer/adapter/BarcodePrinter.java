@@ -0,0 +1,212 @@
+package com.pinmi.react.printer.adapter;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.common.BitMatrix;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Barcode job shared by the adapters: the printer's own GS k symbologies,
+ * tens of bytes per barcode, or a zxing-rendered packed bit image for
+ * printers that lack the symbology.
+ *
+ * A barcode that would be wider than the paper at the requested bar width
+ * gets narrower bars, down to the 2 dots GS w allows, and is rendered as an
+ * image at down to 1 dot per module after that. One that does not fit even
+ * then is rejected instead of being clipped by the printer.
+ */
+
+public class BarcodePrinter {
+
+    private final static byte GS = 0x1D;
+    private final static byte[] CENTER_ALIGN = { 0x1B, 0x61, 0x31 };
+    private final static byte LINE_FEED = 0x0A;
+    private final static int QUIET_ZONE_MODULES = 10;
+    private final static int MIN_NATIVE_WIDTH = 2;
+    private final static int CODE128_SYMBOL_MODULES = 11;
+    private final static int CODE128_STOP_MODULES = 13;
+
+    public static void print(String data, BarcodeOptions options, PrinterOutput output) throws IOException {
+        if (data == null || data.isEmpty()) {
+            throw new IOException("barcode data is empty");
+        }
+        if (options.getMode() == BarcodeOptions.BarcodeMode.NATIVE) {
+            int modules = nativeModules(data, options.getSymbology());
+            int width = Math.min(options.getWidth(), options.getPaperWidth() / modules);
+            if (width >= MIN_NATIVE_WIDTH) {
+                byte[] command = nativeBarcode(data, options, width);
+                output.write(command, 0, command.length);
+                output.flush();
+                return;
+            }
+        }
+        printRaster(data, options, output);
+    }
+
+    /**
+     * Builds GS h / GS w / GS H / GS f settings followed by GS k function B.
+     */
+    public static byte[] nativeBarcode(String data, BarcodeOptions options) throws IOException {
+        return nativeBarcode(data, options, options.getWidth());
+    }
+
+    private static byte[] nativeBarcode(String data, BarcodeOptions options, int width) throws IOException {
+        byte[] payload = nativePayload(data, options.getSymbology());
+        if (payload.length > 255) {
+            throw new IOException("barcode data is too long");
+        }
+        ByteArrayOutputStream command = new ByteArrayOutputStream(payload.length + 24);
+        command.write(CENTER_ALIGN, 0, CENTER_ALIGN.length);
+        write(command, GS, 0x68, options.getHeight());
+        write(command, GS, 0x77, width);
+        write(command, GS, 0x48, options.getHriPosition().ordinal());
+        write(command, GS, 0x66, options.isHriSmallFont() ? 1 : 0);
+        write(command, GS, 0x6B, options.getSymbology().escPosType, payload.length);
+        command.write(payload, 0, payload.length);
+        command.write(LINE_FEED);
+        return command.toByteArray();
+    }
+
+    private static byte[] nativePayload(String data, BarcodeOptions.Symbology symbology) {
+        if (symbology == BarcodeOptions.Symbology.CODE128 && !data.startsWith("{")) {
+            // CODE128 needs an explicit code set; use set B and escape literal braces
+            data = "{B" + data.replace("{", "{{");
+        }
+        return data.getBytes(Charset.forName("US-ASCII"));
+    }
+
+    /**
+     * Width in modules of the symbol the printer draws for GS k. CODE128 is
+     * counted from the code sets of the payload, since the printer does not
+     * pick them the way zxing does.
+     */
+    static int nativeModules(String data, BarcodeOptions.Symbology symbology) throws IOException {
+        if (symbology != BarcodeOptions.Symbology.CODE128) {
+            return encode(data, symbology).getWidth();
+        }
+        String payload = new String(nativePayload(data, symbology), Charset.forName("US-ASCII"));
+        int symbols = 0;
+        boolean codeSetC = false;
+        for (int i = 0; i < payload.length(); i++) {
+            char c = payload.charAt(i);
+            if (c == '{' && i + 1 < payload.length()) {
+                char next = payload.charAt(++i);
+                if (next != '{' && next >= 'A' && next <= 'C') {
+                    codeSetC = next == 'C';
+                }
+                symbols++;
+            } else if (codeSetC) {
+                // two digits per symbol
+                symbols++;
+                i++;
+            } else {
+                symbols++;
+            }
+        }
+        // the check symbol, then the stop pattern
+        return (symbols + 1) * CODE128_SYMBOL_MODULES + CODE128_STOP_MODULES;
+    }
+
+    private static BitMatrix encode(String data, BarcodeOptions.Symbology symbology) throws IOException {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.MARGIN, 0);
+        try {
+            // width 0 and height 1 give one pixel per module and a single row
+            return new MultiFormatWriter().encode(data, zxingFormat(symbology), 0, 1, hints);
+        } catch (Exception e) {
+            throw new IOException("failed to encode barcode: " + e.getMessage());
+        }
+    }
+
+    private static void printRaster(String data, BarcodeOptions options, PrinterOutput output) throws IOException {
+        BitMatrix matrix = encode(data, options.getSymbology());
+        int modules = matrix.getWidth();
+        int paperWidth = options.getPaperWidth();
+        if (modules > paperWidth) {
+            throw new IOException("barcode is " + modules + " modules wide, more than the " + paperWidth
+                    + " dots of the paper");
+        }
+        int scale = Math.max(1, Math.min(options.getWidth(), paperWidth / (modules + 2 * QUIET_ZONE_MODULES)));
+        // the quiet zone shrinks before the bars do
+        int quietZone = Math.min(QUIET_ZONE_MODULES * scale, (paperWidth - modules * scale) / 2);
+
+        final int width = modules * scale + 2 * quietZone;
+        final int height = options.getHeight();
+        final int bytesPerRow = (width + 7) / 8;
+        final byte[] row = new byte[bytesPerRow];
+        for (int mx = 0; mx < modules; mx++) {
+            if (!matrix.get(mx, 0)) {
+                continue;
+            }
+            for (int x = quietZone + mx * scale, end = x + scale; x < end; x++) {
+                row[x >> 3] |= (byte) (0x80 >> (x & 7));
+            }
+        }
+
+        BarcodeOptions.HriPosition hri = options.getHriPosition();
+        if (hri == BarcodeOptions.HriPosition.ABOVE || hri == BarcodeOptions.HriPosition.BOTH) {
+            writeHriText(data, output);
+        }
+        new EscPosImageEncoder().encode(new RasterSource() {
+            @Override
+            public int getWidth() {
+                return width;
+            }
+
+            @Override
+            public int getHeight() {
+                return height;
+            }
+
+            @Override
+            public void readRow(byte[] buffer, int offset) {
+                System.arraycopy(row, 0, buffer, offset, bytesPerRow);
+            }
+        }, ImagePrintOptions.ImageMode.RASTER, output);
+        if (hri == BarcodeOptions.HriPosition.BELOW || hri == BarcodeOptions.HriPosition.BOTH) {
+            writeHriText(data, output);
+        }
+    }
+
+    private static void writeHriText(String data, PrinterOutput output) throws IOException {
+        byte[] text = (data + "\n").getBytes(Charset.forName("US-ASCII"));
+        output.write(CENTER_ALIGN, 0, CENTER_ALIGN.length);
+        output.write(text, 0, text.length);
+        output.flush();
+    }
+
+    private static BarcodeFormat zxingFormat(BarcodeOptions.Symbology symbology) {
+        switch (symbology) {
+            case UPC_A:
+                return BarcodeFormat.UPC_A;
+            case UPC_E:
+                return BarcodeFormat.UPC_E;
+            case EAN13:
+                return BarcodeFormat.EAN_13;
+            case EAN8:
+                return BarcodeFormat.EAN_8;
+            case CODE39:
+                return BarcodeFormat.CODE_39;
+            case ITF:
+                return BarcodeFormat.ITF;
+            case CODABAR:
+                return BarcodeFormat.CODABAR;
+            case CODE93:
+                return BarcodeFormat.CODE_93;
+            default:
+                return BarcodeFormat.CODE_128;
+        }
+    }
+
+    private static void write(ByteArrayOutputStream out, int... values) {
+        for (int value : values) {
+            out.write(value);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+
+/**
+ * Decodes a base64 job straight into a PrinterOutput a buffer at a time, so
+ * a receipt never exists as one decoded byte[] next to its base64 string.
+ *
+ * Accepts what android.util.Base64.DEFAULT accepts: characters outside the
+ * alphabet such as line breaks are skipped and padding is optional. The whole
+ * string is checked before the first byte goes out, so malformed input never
+ * leaves a half-printed receipt.
+ */
+
+public class Base64PrinterDecoder {
+
+    public final static int BUFFER_SIZE = 16384;
+
+    private final static int SKIP = -1;
+    private final static int PAD = -2;
+    private final static int[] DECODE = new int[128];
+
+    static {
+        for (int i = 0; i < DECODE.length; i++) {
+            DECODE[i] = SKIP;
+        }
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE[alphabet.charAt(i)] = i;
+        }
+        DECODE['='] = PAD;
+    }
+
+    // one per writer thread, reused by every job that runs on it
+    private final static ThreadLocal<byte[]> BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[BUFFER_SIZE];
+        }
+    };
+
+    /**
+     * Writes the decoded bytes to the output and returns how many there were.
+     * The output is not flushed.
+     */
+    public static int decode(String base64, PrinterOutput output) throws IOException {
+        if (base64 == null) {
+            return 0;
+        }
+        validate(base64);
+        byte[] buffer = BUFFER.get();
+        int fill = 0;
+        int total = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = 0, length = base64.length(); i < length; i++) {
+            char c = base64.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : SKIP;
+            if (value < 0) {
+                continue;
+            }
+            bits = (bits << 6) | value;
+            if (++count == 4) {
+                if (fill > buffer.length - 3) {
+                    output.write(buffer, 0, fill);
+                    total += fill;
+                    fill = 0;
+                }
+                buffer[fill++] = (byte) (bits >> 16);
+                buffer[fill++] = (byte) (bits >> 8);
+                buffer[fill++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (fill > buffer.length - 2) {
+            output.write(buffer, 0, fill);
+            total += fill;
+            fill = 0;
+        }
+        if (count == 2) {
+            buffer[fill++] = (byte) (bits >> 4);
+        } else if (count == 3) {
+            buffer[fill++] = (byte) (bits >> 10);
+            buffer[fill++] = (byte) (bits >> 2);
+        }
+        if (fill > 0) {
+            output.write(buffer, 0, fill);
+            total += fill;
+        }
+        return total;
+    }
+
+    /**
+     * Rejects data after padding and a lone trailing character, without
+     * allocating anything.
+     */
+    private static void validate(String base64) throws IOException {
+        int count = 0;
+        boolean padded = false;
+        for (int i = 0, length = base64.length(); i < length; i++) {
+            char c = base64.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : SKIP;
+            if (value == SKIP) {
+                continue;
+            }
+            if (value == PAD) {
+                padded = true;
+                continue;
+            }
+            if (padded) {
+                throw new IOException("bad base-64: data after padding");
+            }
+            count++;
+        }
+        if (count % 4 == 1) {
+            throw new IOException("bad base-64: truncated input");
+        }
+    }
+}
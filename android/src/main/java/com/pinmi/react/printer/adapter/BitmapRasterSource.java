@@ -0,0 +1,64 @@
+package com.pinmi.react.printer.adapter;
+
+import android.graphics.Bitmap;
+
+/**
+ * Converts a Bitmap into packed 1bpp rows, one bulk getPixels call per row
+ * into a single reused int[], then thresholds or dithers the row.
+ */
+
+public class BitmapRasterSource implements RasterSource {
+
+    public final static int DEFAULT_THRESHOLD = 127;
+
+    private final Bitmap bitmap;
+    private final int width;
+    private final int height;
+    private final int[] pixelRow;
+    private final RowDitherer ditherer;
+    private int nextRow = 0;
+
+    public BitmapRasterSource(Bitmap bitmap) {
+        this(bitmap, RowDitherer.DitherMode.THRESHOLD, DEFAULT_THRESHOLD);
+    }
+
+    public BitmapRasterSource(Bitmap bitmap, RowDitherer.DitherMode ditherMode, int threshold) {
+        this.bitmap = bitmap;
+        this.width = bitmap.getWidth();
+        this.height = bitmap.getHeight();
+        this.pixelRow = new int[width];
+        this.ditherer = new RowDitherer(ditherMode, width, threshold);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public void readRow(byte[] buffer, int offset) {
+        bitmap.getPixels(pixelRow, 0, width, 0, nextRow++, width, 1);
+        for (int x = 0; x < width; x++) {
+            pixelRow[x] = luminance(pixelRow[x]);
+        }
+        ditherer.ditherRow(pixelRow, buffer, offset);
+    }
+
+    /**
+     * Rec. 601 luma in 8.8 fixed point; mostly transparent pixels count as white.
+     */
+    static int luminance(int argb) {
+        if ((argb >>> 24) < 0x80) {
+            return 0xff;
+        }
+        int r = (argb >> 16) & 0xff;
+        int g = (argb >> 8) & 0xff;
+        int b = argb & 0xff;
+        return (r * 77 + g * 150 + b * 29) >> 8;
+    }
+}
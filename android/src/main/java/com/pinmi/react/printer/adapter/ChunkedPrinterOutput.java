@@ -0,0 +1,46 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+
+/**
+ * Splits writes into chunks sized by an AdaptiveChunkSizer, timing each one
+ * so the sizer can tune the chunk size to the transport.
+ *
+ * A blocking transport returns once it has taken the chunk, so the write
+ * itself is timed. A transport that queues transfers, such as
+ * USBAsyncPrinterOutput, reports its own completions to the sizer instead;
+ * chunks are never flushed one by one, which would leave a single transfer
+ * in flight.
+ */
+
+public class ChunkedPrinterOutput implements PrinterOutput {
+
+    private final PrinterOutput mOutput;
+    private final AdaptiveChunkSizer mSizer;
+    private final boolean mTimeWrites;
+
+    public ChunkedPrinterOutput(PrinterOutput output, AdaptiveChunkSizer sizer) {
+        this.mOutput = output;
+        this.mSizer = sizer;
+        this.mTimeWrites = !(output instanceof USBAsyncPrinterOutput);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        while (length > 0) {
+            int chunk = Math.min(length, mSizer.getChunkSize());
+            long start = System.nanoTime();
+            mOutput.write(data, offset, chunk);
+            if (mTimeWrites) {
+                mSizer.record(chunk, System.nanoTime() - start);
+            }
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        mOutput.flush();
+    }
+}
@@ -0,0 +1,140 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+
+/**
+ * Encodes a packed 1bpp image either as ESC * 24-dot double density stripes
+ * or as a single GS v 0 raster bit image.
+ *
+ * Each stripe (header, nL/nH, column bytes and line feed) or band of raster
+ * rows (its own GS v 0) is assembled in a single reusable buffer and handed
+ * to the output with one write, instead of one write per column, so every
+ * write is a complete command.
+ */
+
+public class EscPosImageEncoder {
+
+    private final static byte ESC_CHAR = 0x1B;
+    private final static byte[] SELECT_BIT_IMAGE_MODE = { ESC_CHAR, 0x2A, 33 };
+    private final static byte[] SET_LINE_SPACE_24 = { ESC_CHAR, 0x33, 24 };
+    private final static byte[] SET_LINE_SPACE_32 = { ESC_CHAR, 0x33, 32 };
+    private final static byte[] CENTER_ALIGN = { ESC_CHAR, 0x61, 0x31 };
+    private final static byte[] PRINT_RASTER_BIT_IMAGE = { 0x1D, 0x76, 0x30, 0 };
+    private final static byte LINE_FEED = 0x0A;
+
+    private final static int STRIPE_HEIGHT = 24;
+    private final static int STRIPE_HEADER_LENGTH = SELECT_BIT_IMAGE_MODE.length + 2;
+    private final static int RASTER_HEADER_LENGTH = PRINT_RASTER_BIT_IMAGE.length + 4;
+    private final static int RASTER_BAND_HEIGHT = 24;
+
+    private byte[] mBuffer = new byte[0];
+    private byte[] mBand = new byte[0];
+
+    /**
+     * Sends the image to the printer, centered, in the given mode.
+     */
+    public void encode(RasterSource source, ImagePrintOptions.ImageMode mode, PrinterOutput output) throws IOException {
+        if (mode == ImagePrintOptions.ImageMode.RASTER) {
+            encodeRaster(source, output);
+        } else {
+            encodeBitImage(source, output);
+        }
+    }
+
+    private void encodeBitImage(RasterSource source, PrinterOutput output) throws IOException {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int bytesPerRow = (width + 7) / 8;
+
+        byte[] buffer = obtainBuffer(STRIPE_HEADER_LENGTH + width * 3 + 1);
+        byte[] band = obtainBand(bytesPerRow * STRIPE_HEIGHT);
+
+        int length = append(buffer, 0, SET_LINE_SPACE_24);
+        length = append(buffer, length, CENTER_ALIGN);
+        output.write(buffer, 0, length);
+
+        for (int y = 0; y < height; y += STRIPE_HEIGHT) {
+            int rows = Math.min(STRIPE_HEIGHT, height - y);
+            for (int r = 0; r < rows; r++) {
+                source.readRow(band, r * bytesPerRow);
+            }
+            output.write(buffer, 0, encodeStripe(band, rows, width, bytesPerRow, buffer));
+        }
+
+        length = append(buffer, 0, SET_LINE_SPACE_32);
+        buffer[length++] = LINE_FEED;
+        output.write(buffer, 0, length);
+        output.flush();
+    }
+
+    private void encodeRaster(RasterSource source, PrinterOutput output) throws IOException {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int bytesPerRow = (width + 7) / 8;
+
+        byte[] buffer = obtainBuffer(RASTER_HEADER_LENGTH + bytesPerRow * RASTER_BAND_HEIGHT);
+
+        output.write(CENTER_ALIGN, 0, CENTER_ALIGN.length);
+        for (int y = 0; y < height; y += RASTER_BAND_HEIGHT) {
+            int rows = Math.min(RASTER_BAND_HEIGHT, height - y);
+            // each band is a whole GS v 0, printed flush against the previous one
+            int length = append(buffer, 0, PRINT_RASTER_BIT_IMAGE);
+            // xL xH: bytes per row, yL yH: number of rows
+            buffer[length++] = (byte) (bytesPerRow & 0xff);
+            buffer[length++] = (byte) ((bytesPerRow >> 8) & 0xff);
+            buffer[length++] = (byte) (rows & 0xff);
+            buffer[length++] = (byte) ((rows >> 8) & 0xff);
+            for (int r = 0; r < rows; r++) {
+                source.readRow(buffer, length);
+                length += bytesPerRow;
+            }
+            output.write(buffer, 0, length);
+        }
+        output.flush();
+    }
+
+    private int encodeStripe(byte[] band, int rows, int width, int bytesPerRow, byte[] buffer) {
+        int offset = append(buffer, 0, SELECT_BIT_IMAGE_MODE);
+        // Set nL and nH based on the width of the image
+        buffer[offset++] = (byte) (width & 0xff);
+        buffer[offset++] = (byte) ((width >> 8) & 0xff);
+
+        for (int x = 0; x < width; x++) {
+            // for each column, collect 3 bytes (3 bytes = 24 vertical dots)
+            int byteIndex = x >> 3;
+            int mask = 0x80 >> (x & 7);
+            int column = 0;
+            for (int b = 0, i = byteIndex; b < rows; b++, i += bytesPerRow) {
+                if ((band[i] & mask) != 0) {
+                    column |= 1 << (23 - b);
+                }
+            }
+            buffer[offset++] = (byte) (column >> 16);
+            buffer[offset++] = (byte) (column >> 8);
+            buffer[offset++] = (byte) column;
+        }
+
+        // Do a line feed, if not the printing will resume on the same line
+        buffer[offset++] = LINE_FEED;
+        return offset;
+    }
+
+    private byte[] obtainBuffer(int size) {
+        if (mBuffer.length < size) {
+            mBuffer = new byte[size];
+        }
+        return mBuffer;
+    }
+
+    private byte[] obtainBand(int size) {
+        if (mBand.length < size) {
+            mBand = new byte[size];
+        }
+        return mBand;
+    }
+
+    private static int append(byte[] buffer, int offset, byte[] command) {
+        System.arraycopy(command, 0, buffer, offset, command.length);
+        return offset + command.length;
+    }
+}
@@ -0,0 +1,96 @@
+package com.pinmi.react.printer.adapter;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Sends a pre-rendered job (raw ESC/POS bytes) from a local file or a content
+ * URI straight to the printer, so large jobs never cross the bridge as a
+ * base64 string or sit in the heap as a whole.
+ *
+ * Regular files are memory-mapped a window at a time; content that cannot be
+ * mapped, e.g. a pipe behind a content URI, is streamed instead. Either way
+ * the bytes go out through one fixed-size buffer.
+ */
+
+public class FilePrinter {
+
+    public final static int CHUNK_SIZE = 16 * 1024;
+    private final static long MAP_WINDOW = 1024 * 1024;
+
+    /**
+     * @param source an absolute path, a file:// URI or a content:// URI
+     */
+    public static void print(Context context, String source, PrinterOutput output) throws IOException {
+        if (source == null || source.isEmpty()) {
+            throw new FileNotFoundException("no file to print");
+        }
+        byte[] chunk = new byte[CHUNK_SIZE];
+        if (source.startsWith(ContentResolver.SCHEME_CONTENT + ":")) {
+            if (context == null) {
+                throw new IOException("printer is not initialized, cannot open " + source);
+            }
+            ParcelFileDescriptor descriptor = context.getContentResolver().openFileDescriptor(Uri.parse(source), "r");
+            if (descriptor == null) {
+                throw new FileNotFoundException(source);
+            }
+            FileInputStream stream = new ParcelFileDescriptor.AutoCloseInputStream(descriptor);
+            try {
+                if (descriptor.getStatSize() > 0) {
+                    sendMapped(stream.getChannel(), descriptor.getStatSize(), chunk, output);
+                } else {
+                    // size unknown, not a regular file
+                    sendStream(stream, chunk, output);
+                }
+            } finally {
+                stream.close();
+            }
+        } else {
+            String path = source.startsWith(ContentResolver.SCHEME_FILE + ":") ? Uri.parse(source).getPath() : source;
+            FileInputStream stream = new FileInputStream(new File(path));
+            try {
+                FileChannel channel = stream.getChannel();
+                sendMapped(channel, channel.size(), chunk, output);
+            } finally {
+                stream.close();
+            }
+        }
+        output.flush();
+    }
+
+    private static void sendMapped(FileChannel channel, long size, byte[] chunk, PrinterOutput output) throws IOException {
+        long position = channel.position();
+        while (position < size) {
+            long window = Math.min(MAP_WINDOW, size - position);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+            send(mapped, chunk, output);
+            position += window;
+        }
+    }
+
+    private static void send(ByteBuffer buffer, byte[] chunk, PrinterOutput output) throws IOException {
+        while (buffer.hasRemaining()) {
+            int length = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, length);
+            output.write(chunk, 0, length);
+        }
+    }
+
+    private static void sendStream(InputStream stream, byte[] chunk, PrinterOutput output) throws IOException {
+        int read;
+        while ((read = stream.read(chunk)) != -1) {
+            output.write(chunk, 0, read);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+
+/**
+ * Checks the printer between writes, pausing while it is offline, out of
+ * paper or has its cover open, so small printer buffers are not overrun and
+ * nothing is lost while the printer cannot take data.
+ *
+ * A status query is never put inside a write: the encoders hand over whole
+ * commands or runs of text per write, and a DLE EOT in the middle of GS v 0,
+ * ESC * or GS ( k data would be printed as part of it. Once a window's worth
+ * has been sent, the printer is checked before the next write.
+ */
+
+public class FlowControlledPrinterOutput implements PrinterOutput {
+
+    public final static int DEFAULT_WINDOW = 4096;
+
+    private final PrinterOutput mOutput;
+    private final PrinterStatusChannel mStatusChannel;
+    private final long mWindow;
+    private boolean mChecked = false;
+    private long mSinceCheck = 0;
+
+    public FlowControlledPrinterOutput(PrinterOutput output, PrinterStatusChannel statusChannel) {
+        this(output, statusChannel, DEFAULT_WINDOW);
+    }
+
+    public FlowControlledPrinterOutput(PrinterOutput output, PrinterStatusChannel statusChannel, long window) {
+        this.mOutput = output;
+        this.mStatusChannel = statusChannel;
+        this.mWindow = window;
+    }
+
+    /**
+     * For raw data and files, where write boundaries are not command
+     * boundaries: the printer is only checked before the first byte.
+     */
+    public static FlowControlledPrinterOutput forRawData(PrinterOutput output, PrinterStatusChannel statusChannel) {
+        return new FlowControlledPrinterOutput(output, statusChannel, Long.MAX_VALUE);
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        if (!mChecked || mSinceCheck >= mWindow) {
+            if (mChecked) {
+                mOutput.flush();
+            }
+            // the reply also tells us the printer has received what came before
+            mStatusChannel.awaitReady();
+            mChecked = true;
+            mSinceCheck = 0;
+        }
+        mOutput.write(data, offset, length);
+        mSinceCheck += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        mOutput.flush();
+    }
+}
@@ -0,0 +1,155 @@
+package com.pinmi.react.printer.adapter;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextDirectionHeuristics;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+/**
+ * Cache of text runs shaped by Android's text layout and packed to 1bpp, for
+ * scripts such as Arabic, Persian or Urdu that the printer's code pages
+ * cannot shape. A repeated item name or header is laid out and thresholded
+ * once; later prints only copy its packed rows.
+ *
+ * Runs that fit the line are cached at their own width and placed by the
+ * caller; longer ones are wrapped at the line width with their alignment.
+ */
+
+public class GlyphAtlas {
+    private static GlyphAtlas mInstance;
+
+    private final static int CACHE_BYTES = 2 * 1024 * 1024;
+
+    private final LruCache<String, GlyphRun> mRuns;
+
+    /**
+     * A packed 1bpp rendering of one run of text, most significant bit first.
+     */
+    public static class GlyphRun {
+        final int width;
+        final int height;
+        final int bytesPerRow;
+        final byte[] bits;
+
+        GlyphRun(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.bytesPerRow = (width + 7) / 8;
+            this.bits = new byte[bytesPerRow * height];
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * ORs row y of the run into a packed row, starting at pixel x.
+         */
+        void blitRow(int y, byte[] buffer, int offset, int rowBytes, int x) {
+            int src = y * bytesPerRow;
+            int dst = offset + (x >> 3);
+            int shift = x & 7;
+            int end = offset + rowBytes;
+            for (int i = 0; i < bytesPerRow && dst + i < end; i++) {
+                int b = bits[src + i] & 0xff;
+                if (b == 0) {
+                    continue;
+                }
+                buffer[dst + i] |= (byte) (b >> shift);
+                if (shift != 0 && dst + i + 1 < end) {
+                    buffer[dst + i + 1] |= (byte) (b << (8 - shift));
+                }
+            }
+        }
+    }
+
+    private GlyphAtlas() {
+        mRuns = new LruCache<String, GlyphRun>(CACHE_BYTES) {
+            @Override
+            protected int sizeOf(String key, GlyphRun value) {
+                return value.bits.length;
+            }
+        };
+    }
+
+    public static synchronized GlyphAtlas getInstance() {
+        if (mInstance == null) {
+            mInstance = new GlyphAtlas();
+        }
+        return mInstance;
+    }
+
+    public void clear() {
+        mRuns.evictAll();
+    }
+
+    /**
+     * Returns the cached run for the text in this style, rendering it on a miss.
+     */
+    public GlyphRun get(String text, Typeface typeface, String fontKey, float textSize, float textScaleX,
+                        int maxWidth, Layout.Alignment alignment, int threshold) {
+        // keyed on everything that shapes the run, so a hit needs no measuring
+        String key = fontKey + "|" + textSize + "|" + textScaleX + "|" + threshold + "|"
+                + maxWidth + "|" + alignment + "|" + text;
+        GlyphRun run = mRuns.get(key);
+        if (run == null) {
+            TextPaint paint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+            paint.setTypeface(typeface);
+            paint.setTextSize(textSize);
+            paint.setTextScaleX(textScaleX);
+            paint.setColor(Color.BLACK);
+
+            int width = (int) Math.ceil(Layout.getDesiredWidth(text, paint));
+            if (width > maxWidth) {
+                run = render(text, paint, maxWidth, alignment, threshold);
+            } else {
+                run = render(text, paint, Math.max(1, width), Layout.Alignment.ALIGN_NORMAL, threshold);
+            }
+            mRuns.put(key, run);
+        }
+        return run;
+    }
+
+    private static GlyphRun render(String text, TextPaint paint, int width, Layout.Alignment alignment, int threshold) {
+        StaticLayout layout;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            // the first strong character decides, so Arabic lines run right to left
+            layout = StaticLayout.Builder.obtain(text, 0, text.length(), paint, width)
+                    .setAlignment(alignment)
+                    .setTextDirection(TextDirectionHeuristics.FIRSTSTRONG_LTR)
+                    .setIncludePad(false)
+                    .build();
+        } else {
+            layout = new StaticLayout(text, paint, width, alignment, 1.0f, 0.0f, false);
+        }
+        int height = Math.max(1, layout.getHeight());
+
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.WHITE);
+        layout.draw(new Canvas(bitmap));
+
+        GlyphRun run = new GlyphRun(width, height);
+        int[] pixels = new int[width];
+        for (int y = 0; y < height; y++) {
+            bitmap.getPixels(pixels, 0, width, 0, y, width, 1);
+            int offset = y * run.bytesPerRow;
+            for (int x = 0; x < width; x++) {
+                if (BitmapRasterSource.luminance(pixels[x]) < threshold) {
+                    run.bits[offset + (x >> 3)] |= (byte) (0x80 >> (x & 7));
+                }
+            }
+        }
+        bitmap.recycle();
+        return run;
+    }
+}
@@ -0,0 +1,372 @@
+package com.pinmi.react.printer.adapter;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads images into a bounded on-disk response cache.
+ *
+ * Cached responses are reused without a request while their Cache-Control
+ * max-age holds, and revalidated with If-None-Match / If-Modified-Since after
+ * that, so an unchanged logo costs at most one 304 round trip. Each stored
+ * body is also recorded with its SHA-1, which keys derived caches such as
+ * the RasterCache to the exact bytes last validated. Response
+ * bodies are always read to the end and closed (never disconnect()ed) so
+ * HttpURLConnection can keep the connection alive for the next fetch.
+ *
+ * Fetches of one URL are serialized, so concurrent jobs printing the same
+ * image never interleave its body and metadata files.
+ */
+
+public class ImageFetcher {
+    private static ImageFetcher mInstance;
+
+    private final static String LOG_TAG = "RNPrinterImageFetcher";
+    private final static String CACHE_DIR = "rn-printer-http";
+    private final static long DISK_CACHE_BYTES = 16L * 1024 * 1024;
+    private final static Pattern MAX_AGE = Pattern.compile("max-age\\s*=\\s*(\\d+)");
+
+    public final static int DEFAULT_CONNECT_TIMEOUT = 5000;
+    public final static int DEFAULT_READ_TIMEOUT = 15000;
+
+    private final static String META_ETAG = "etag";
+    private final static String META_LAST_MODIFIED = "lastModified";
+    private final static String META_EXPIRES_AT = "expiresAt";
+    private final static String META_DIGEST = "digest";
+    private final static String TEMP_SUFFIX = ".tmp";
+    private final static long STALE_TEMP_MS = 60 * 60 * 1000;
+    private final static int LOCK_STRIPES = 16;
+
+    private final Object[] mLocks = new Object[LOCK_STRIPES];
+    private File mDiskDir;
+
+    private ImageFetcher() {
+        for (int i = 0; i < mLocks.length; i++) {
+            mLocks[i] = new Object();
+        }
+    }
+
+    public static synchronized ImageFetcher getInstance() {
+        if (mInstance == null) {
+            mInstance = new ImageFetcher();
+        }
+        return mInstance;
+    }
+
+    public synchronized void init(Context context) {
+        if (mDiskDir != null || context == null) {
+            return;
+        }
+        File dir = new File(context.getCacheDir(), CACHE_DIR);
+        if (dir.isDirectory() || dir.mkdirs()) {
+            mDiskDir = dir;
+        }
+    }
+
+    /**
+     * Returns a local file holding the image bytes for src (http, https or file URL).
+     */
+    public File fetch(String src, int connectTimeout, int readTimeout) throws IOException {
+        URL url = new URL(src);
+        String protocol = url.getProtocol().toLowerCase(Locale.US);
+        if ("file".equals(protocol)) {
+            return new File(url.getPath());
+        }
+        if (!"http".equals(protocol) && !"https".equals(protocol)) {
+            throw new IOException("unsupported image url: " + src);
+        }
+
+        File dir = diskDir();
+        String name = RasterCache.sha1(src);
+        synchronized (lockFor(name)) {
+            return fetch(url, src, dir, name, connectTimeout, readTimeout);
+        }
+    }
+
+    private File fetch(URL url, String src, File dir, String name, int connectTimeout, int readTimeout)
+            throws IOException {
+        File body = new File(dir, name);
+        File metaFile = new File(dir, name + ".meta");
+        Properties meta = body.isFile() ? readMeta(metaFile) : new Properties();
+
+        long now = System.currentTimeMillis();
+        if (body.isFile() && parseLong(meta.getProperty(META_EXPIRES_AT)) > now) {
+            body.setLastModified(now);
+            return body;
+        }
+
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setUseCaches(false);
+        connection.setDoInput(true);
+        if (body.isFile()) {
+            String etag = meta.getProperty(META_ETAG);
+            if (etag != null) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            String lastModified = meta.getProperty(META_LAST_MODIFIED);
+            if (lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", lastModified);
+            }
+        }
+
+        int code = connection.getResponseCode();
+        if (code == HttpURLConnection.HTTP_NOT_MODIFIED && body.isFile()) {
+            drain(connection, false);
+            updateMeta(meta, connection, now);
+            writeMeta(metaFile, meta);
+            body.setLastModified(now);
+            return body;
+        }
+        if (code != HttpURLConnection.HTTP_OK) {
+            drain(connection, true);
+            throw new IOException("image request failed with HTTP " + code + ": " + src);
+        }
+
+        File temp = File.createTempFile(name, TEMP_SUFFIX, dir);
+        String digest;
+        try {
+            digest = copy(connection.getInputStream(), temp);
+            if (!temp.renameTo(body)) {
+                throw new IOException("failed to store image " + body);
+            }
+        } finally {
+            temp.delete();
+        }
+        Properties fresh = new Properties();
+        updateMeta(fresh, connection, now);
+        fresh.setProperty(META_DIGEST, digest);
+        writeMeta(metaFile, fresh);
+        trimDisk(dir);
+        return body;
+    }
+
+    /**
+     * A string that changes whenever the bytes of a file returned by
+     * {@link #fetch} do: the SHA-1 of a downloaded body, or the size and
+     * modification time of a local file.
+     */
+    public String versionOf(File file) throws IOException {
+        File metaFile = new File(file.getPath() + ".meta");
+        if (!diskDir().equals(file.getParentFile()) || !metaFile.isFile()) {
+            return file.length() + "-" + file.lastModified();
+        }
+        synchronized (lockFor(file.getName())) {
+            Properties meta = readMeta(metaFile);
+            String digest = meta.getProperty(META_DIGEST);
+            if (digest == null) {
+                // stored before digests were recorded
+                digest = copy(new FileInputStream(file), null);
+                meta.setProperty(META_DIGEST, digest);
+                writeMeta(metaFile, meta);
+            }
+            return digest;
+        }
+    }
+
+    private Object lockFor(String name) {
+        return mLocks[(name.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    private synchronized File diskDir() throws IOException {
+        if (mDiskDir == null) {
+            // not initialised with a context yet, fall back to the JVM temp dir
+            File dir = new File(System.getProperty("java.io.tmpdir"), CACHE_DIR);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("no cache directory available for images");
+            }
+            mDiskDir = dir;
+        }
+        return mDiskDir;
+    }
+
+    private static void updateMeta(Properties meta, URLConnection connection, long now) {
+        String etag = connection.getHeaderField("ETag");
+        if (etag != null) {
+            meta.setProperty(META_ETAG, etag);
+        }
+        String lastModified = connection.getHeaderField("Last-Modified");
+        if (lastModified != null) {
+            meta.setProperty(META_LAST_MODIFIED, lastModified);
+        }
+        long maxAge = 0;
+        String cacheControl = connection.getHeaderField("Cache-Control");
+        if (cacheControl != null && !cacheControl.contains("no-cache") && !cacheControl.contains("no-store")) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                maxAge = parseLong(matcher.group(1));
+            }
+        }
+        meta.setProperty(META_EXPIRES_AT, Long.toString(now + maxAge * 1000));
+    }
+
+    private static Properties readMeta(File file) {
+        Properties meta = new Properties();
+        if (!file.isFile()) {
+            return meta;
+        }
+        try {
+            InputStream in = new FileInputStream(file);
+            try {
+                meta.load(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            Log.w(LOG_TAG, "failed to read " + file, e);
+        }
+        return meta;
+    }
+
+    // renamed into place, so readers never see a half-written file
+    private static void writeMeta(File file, Properties meta) {
+        File temp = null;
+        try {
+            temp = File.createTempFile(file.getName(), TEMP_SUFFIX, file.getParentFile());
+            OutputStream out = new FileOutputStream(temp);
+            try {
+                meta.store(out, null);
+            } finally {
+                out.close();
+            }
+            if (!temp.renameTo(file)) {
+                throw new IOException("rename failed");
+            }
+        } catch (IOException e) {
+            Log.w(LOG_TAG, "failed to write " + file, e);
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    /**
+     * Copies the stream into the file, or just reads it when file is null,
+     * and returns the SHA-1 of the bytes.
+     */
+    private static String copy(InputStream in, File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-1 is not available");
+        }
+        OutputStream out = file != null ? new FileOutputStream(file) : null;
+        try {
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, count);
+                if (out != null) {
+                    out.write(buffer, 0, count);
+                }
+            }
+        } finally {
+            if (out != null) {
+                out.close();
+            }
+            in.close();
+        }
+        return RasterCache.toHex(digest.digest());
+    }
+
+    // reading to the end lets HttpURLConnection return the connection to its keep-alive pool
+    private static void drain(HttpURLConnection connection, boolean error) {
+        InputStream in = null;
+        try {
+            in = error ? connection.getErrorStream() : connection.getInputStream();
+            if (in == null) {
+                return;
+            }
+            byte[] buffer = new byte[1024];
+            while (in.read(buffer) != -1) {
+            }
+        } catch (IOException ignored) {
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static synchronized void trimDisk(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long total = 0;
+        int entries = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                // still being written, unless a crash left it behind
+                if (now - file.lastModified() > STALE_TEMP_MS) {
+                    file.delete();
+                }
+                continue;
+            }
+            files[entries++] = file;
+            total += file.length();
+        }
+        if (total <= DISK_CACHE_BYTES) {
+            return;
+        }
+        files = Arrays.copyOf(files, entries);
+        // least recently used first
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        for (File file : files) {
+            if (total <= DISK_CACHE_BYTES) {
+                break;
+            }
+            if (file.getName().endsWith(".meta")) {
+                continue;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+                File meta = new File(dir, file.getName() + ".meta");
+                total -= meta.length();
+                meta.delete();
+            }
+        }
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.pinmi.react.printer.adapter;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * Per-print settings for image jobs, parsed from the options map sent by JS.
+ */
+
+public class ImagePrintOptions {
+
+    public enum ImageMode {
+        /** ESC * column format, 24-dot stripes. */
+        BIT_IMAGE,
+        /** GS v 0 row-major raster, whole image in one command. */
+        RASTER
+    }
+
+    private ImageMode imageMode = ImageMode.BIT_IMAGE;
+    private RowDitherer.DitherMode ditherMode = RowDitherer.DitherMode.THRESHOLD;
+    private int threshold = BitmapRasterSource.DEFAULT_THRESHOLD;
+    private boolean cacheEnabled = true;
+    private int connectTimeout = ImageFetcher.DEFAULT_CONNECT_TIMEOUT;
+    private int readTimeout = ImageFetcher.DEFAULT_READ_TIMEOUT;
+    private int imageWidth = 0;
+    private boolean lowMemoryDecode = false;
+
+    public static ImagePrintOptions defaults() {
+        return new ImagePrintOptions();
+    }
+
+    public static ImagePrintOptions fromReadableMap(ReadableMap map) {
+        ImagePrintOptions options = new ImagePrintOptions();
+        if (map == null) {
+            return options;
+        }
+        if (map.hasKey("imageMode") && !map.isNull("imageMode")) {
+            options.imageMode = parseImageMode(map.getString("imageMode"));
+        }
+        if (map.hasKey("dither") && !map.isNull("dither")) {
+            options.ditherMode = parseDitherMode(map.getString("dither"));
+        }
+        if (map.hasKey("threshold") && !map.isNull("threshold")) {
+            options.threshold = Math.max(1, Math.min(255, map.getInt("threshold")));
+        }
+        if (map.hasKey("cache") && !map.isNull("cache")) {
+            options.cacheEnabled = map.getBoolean("cache");
+        }
+        if (map.hasKey("connectTimeout") && !map.isNull("connectTimeout")) {
+            options.connectTimeout = Math.max(0, map.getInt("connectTimeout"));
+        }
+        if (map.hasKey("readTimeout") && !map.isNull("readTimeout")) {
+            options.readTimeout = Math.max(0, map.getInt("readTimeout"));
+        }
+        if (map.hasKey("imageWidth") && !map.isNull("imageWidth")) {
+            options.imageWidth = Math.max(0, map.getInt("imageWidth"));
+        }
+        if (map.hasKey("lowMemoryDecode") && !map.isNull("lowMemoryDecode")) {
+            options.lowMemoryDecode = map.getBoolean("lowMemoryDecode");
+        }
+        return options;
+    }
+
+    private static ImageMode parseImageMode(String value) {
+        if ("raster".equalsIgnoreCase(value)) {
+            return ImageMode.RASTER;
+        }
+        return ImageMode.BIT_IMAGE;
+    }
+
+    private static RowDitherer.DitherMode parseDitherMode(String value) {
+        if ("floyd-steinberg".equalsIgnoreCase(value) || "floydSteinberg".equalsIgnoreCase(value)) {
+            return RowDitherer.DitherMode.FLOYD_STEINBERG;
+        }
+        if ("atkinson".equalsIgnoreCase(value)) {
+            return RowDitherer.DitherMode.ATKINSON;
+        }
+        if ("bayer".equalsIgnoreCase(value) || "ordered".equalsIgnoreCase(value)) {
+            return RowDitherer.DitherMode.BAYER;
+        }
+        return RowDitherer.DitherMode.THRESHOLD;
+    }
+
+    public ImageMode getImageMode() {
+        return imageMode;
+    }
+
+    public ImagePrintOptions setImageMode(ImageMode imageMode) {
+        this.imageMode = imageMode;
+        return this;
+    }
+
+    public RowDitherer.DitherMode getDitherMode() {
+        return ditherMode;
+    }
+
+    public ImagePrintOptions setDitherMode(RowDitherer.DitherMode ditherMode) {
+        this.ditherMode = ditherMode;
+        return this;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public ImagePrintOptions setThreshold(int threshold) {
+        this.threshold = threshold;
+        return this;
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public ImagePrintOptions setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+        return this;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public ImagePrintOptions setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public ImagePrintOptions setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    /**
+     * Printed width in dots; 0 keeps the default of fitting the image in 200x200.
+     */
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    public ImagePrintOptions setImageWidth(int imageWidth) {
+        this.imageWidth = imageWidth;
+        return this;
+    }
+
+    /**
+     * Decode as RGB_565 instead of ARGB_8888, halving the decoded bitmap.
+     */
+    public boolean isLowMemoryDecode() {
+        return lowMemoryDecode;
+    }
+
+    public ImagePrintOptions setLowMemoryDecode(boolean lowMemoryDecode) {
+        this.lowMemoryDecode = lowMemoryDecode;
+        return this;
+    }
+}
@@ -0,0 +1,194 @@
+package com.pinmi.react.printer.adapter;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+
+import com.facebook.react.bridge.Callback;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Image job shared by the adapters: download or revalidation, cache lookup,
+ * conversion and pipelined encoding to a PrinterOutput.
+ */
+
+public class ImagePrinter {
+
+    private final static String LOG_TAG = "RNPrinterImage";
+    private final static int MAX_IMAGE_SIZE = 200;
+
+    private static ExecutorService mPrefetcher;
+
+    /**
+     * Prints the image, sending cached encoded bytes straight to the output
+     * on a hit. The source is revalidated first, so a changed image is never
+     * printed from a stale raster.
+     */
+    public static void print(String imageUrl, ImagePrintOptions options, PrinterOutput output) throws IOException {
+        RasterCache cache = RasterCache.getInstance();
+        File file = fetch(imageUrl, options);
+        String key = RasterCache.keyFor(imageUrl, ImageFetcher.getInstance().versionOf(file), options);
+        if (options.isCacheEnabled()) {
+            byte[] encoded = cache.get(key);
+            if (encoded != null) {
+                Log.v(LOG_TAG, "raster cache hit for " + imageUrl);
+                output.write(encoded, 0, encoded.length);
+                output.flush();
+                return;
+            }
+        }
+
+        RasterSource raster = loadRaster(file, options);
+        // encode the next stripe while the previous one is on the wire
+        PipelinedPrinterOutput pipeline = PipelinedPrinterOutput.obtain(output);
+        try {
+            if (options.isCacheEnabled()) {
+                TeePrinterOutput tee = new TeePrinterOutput(pipeline);
+                new EscPosImageEncoder().encode(raster, options.getImageMode(), tee);
+                cache.put(key, tee.toByteArray());
+            } else {
+                new EscPosImageEncoder().encode(raster, options.getImageMode(), pipeline);
+            }
+        } finally {
+            pipeline.close();
+        }
+    }
+
+    /**
+     * Encodes the image into the raster cache without printing it.
+     */
+    public static void prefetch(String imageUrl, ImagePrintOptions options) throws IOException {
+        RasterCache cache = RasterCache.getInstance();
+        File file = fetch(imageUrl, options);
+        String key = RasterCache.keyFor(imageUrl, ImageFetcher.getInstance().versionOf(file), options);
+        if (cache.get(key) != null) {
+            return;
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        new EscPosImageEncoder().encode(loadRaster(file, options), options.getImageMode(),
+                new StreamPrinterOutput(encoded));
+        cache.put(key, encoded.toByteArray());
+    }
+
+    /**
+     * Runs {@link #prefetch} on a background thread and reports the result
+     * from there, so a download never blocks the native modules thread.
+     */
+    public static void prefetch(final String imageUrl, final ImagePrintOptions options,
+                                final Callback successCallback, final Callback errorCallback) {
+        prefetcher().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    prefetch(imageUrl, options);
+                    successCallback.invoke();
+                } catch (Exception e) {
+                    errorCallback.invoke("Error prefetching image: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static synchronized ExecutorService prefetcher() {
+        if (mPrefetcher == null) {
+            mPrefetcher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "RNPrinterPrefetch");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return mPrefetcher;
+    }
+
+    private static File fetch(String imageUrl, ImagePrintOptions options) throws IOException {
+        return ImageFetcher.getInstance().fetch(imageUrl, options.getConnectTimeout(), options.getReadTimeout());
+    }
+
+    private static RasterSource loadRaster(File file, ImagePrintOptions options) throws IOException {
+        Bitmap bitmapImage = decodeForPrinting(file, options);
+        if (bitmapImage == null) {
+            throw new IOException("image not found");
+        }
+        return new BitmapRasterSource(bitmapImage, options.getDitherMode(), options.getThreshold());
+    }
+
+    public static Bitmap getBitmapFromURL(String src) {
+        try {
+            File file = ImageFetcher.getInstance().fetch(src, ImageFetcher.DEFAULT_CONNECT_TIMEOUT,
+                    ImageFetcher.DEFAULT_READ_TIMEOUT);
+            return BitmapFactory.decodeFile(file.getPath(), null);
+        } catch (Exception e) {
+            Log.e(LOG_TAG, "Error getting bitmap from URL: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the image directly at (or just above) the printed size: the
+     * bounds are read first, then inSampleSize and density scaling shrink the
+     * image while decoding, so a large photo never exists at full resolution.
+     */
+    public static Bitmap decodeForPrinting(File file, ImagePrintOptions options) {
+        String path = file.getPath();
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(path, bounds);
+        int sourceWidth = bounds.outWidth;
+        int sourceHeight = bounds.outHeight;
+        if (sourceWidth <= 0 || sourceHeight <= 0) {
+            return null;
+        }
+
+        int targetWidth = targetWidth(sourceWidth, sourceHeight, options.getImageWidth());
+        int targetHeight = Math.max(1, Math.round(sourceHeight * (targetWidth / (float) sourceWidth)));
+
+        BitmapFactory.Options decode = new BitmapFactory.Options();
+        decode.inSampleSize = 1;
+        // largest power of two that keeps the decoded image at least as wide as the target
+        while (sourceWidth / (decode.inSampleSize * 2) >= targetWidth) {
+            decode.inSampleSize *= 2;
+        }
+        int sampledWidth = sourceWidth / decode.inSampleSize;
+        if (sampledWidth > targetWidth) {
+            decode.inScaled = true;
+            decode.inDensity = sampledWidth;
+            decode.inTargetDensity = targetWidth;
+        }
+        decode.inPreferredConfig = options.isLowMemoryDecode() ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+
+        Bitmap bitmap = BitmapFactory.decodeFile(path, decode);
+        if (bitmap == null) {
+            return null;
+        }
+        if (bitmap.getWidth() != targetWidth || bitmap.getHeight() != targetHeight) {
+            // rounding in the decoder, or an upscale to a requested width
+            Bitmap scaled = Bitmap.createScaledBitmap(bitmap, targetWidth, targetHeight, true);
+            if (scaled != bitmap) {
+                bitmap.recycle();
+            }
+            bitmap = scaled;
+        }
+        return bitmap;
+    }
+
+    private static int targetWidth(int sourceWidth, int sourceHeight, int requestedWidth) {
+        if (requestedWidth > 0) {
+            return requestedWidth;
+        }
+        // making logo size 200 or less pixels
+        if (sourceWidth > MAX_IMAGE_SIZE || sourceHeight > MAX_IMAGE_SIZE) {
+            float decreaseSizeBy = MAX_IMAGE_SIZE / (float) Math.max(sourceWidth, sourceHeight);
+            return Math.max(1, (int) (sourceWidth * decreaseSizeBy));
+        }
+        return sourceWidth;
+    }
+}
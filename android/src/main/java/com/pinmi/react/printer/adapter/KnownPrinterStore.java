@@ -0,0 +1,100 @@
+package com.pinmi.react.printer.adapter;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Network printers found by earlier scans, with the time each was last seen,
+ * so a rescan can probe them first. Entries not seen for 30 days are dropped.
+ */
+
+public class KnownPrinterStore {
+    private static KnownPrinterStore mInstance;
+
+    private final static String PREFERENCES_NAME = "rn-printer-known";
+    private final static long MAX_AGE_MS = 30L * 24 * 60 * 60 * 1000;
+
+    private SharedPreferences mPreferences;
+
+    private KnownPrinterStore() {
+    }
+
+    KnownPrinterStore(SharedPreferences preferences) {
+        this.mPreferences = preferences;
+    }
+
+    public static synchronized KnownPrinterStore getInstance() {
+        if (mInstance == null) {
+            mInstance = new KnownPrinterStore();
+        }
+        return mInstance;
+    }
+
+    public synchronized void init(Context context) {
+        if (mPreferences != null || context == null) {
+            return;
+        }
+        mPreferences = context.getApplicationContext().getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Known printers, most recently seen first.
+     */
+    public synchronized List<NetPrinterDeviceId> getRecent() {
+        List<NetPrinterDeviceId> printers = new ArrayList<>();
+        if (mPreferences == null) {
+            return printers;
+        }
+        final Map<String, ?> entries = mPreferences.getAll();
+        List<String> keys = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        SharedPreferences.Editor expired = null;
+        for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            if (!(entry.getValue() instanceof Long) || now - (Long) entry.getValue() > MAX_AGE_MS) {
+                if (expired == null) {
+                    expired = mPreferences.edit();
+                }
+                expired.remove(entry.getKey());
+            } else {
+                keys.add(entry.getKey());
+            }
+        }
+        if (expired != null) {
+            expired.apply();
+        }
+        Collections.sort(keys, new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                return Long.compare((Long) entries.get(b), (Long) entries.get(a));
+            }
+        });
+        for (String key : keys) {
+            int separator = key.lastIndexOf(':');
+            try {
+                printers.add(NetPrinterDeviceId.valueOf(key.substring(0, separator),
+                        Integer.parseInt(key.substring(separator + 1))));
+            } catch (RuntimeException e) {
+                // not written by us, ignore
+            }
+        }
+        return printers;
+    }
+
+    public synchronized void markSeen(String host, int port) {
+        if (mPreferences != null) {
+            mPreferences.edit().putLong(host + ":" + port, System.currentTimeMillis()).apply();
+        }
+    }
+
+    public synchronized void clear() {
+        if (mPreferences != null) {
+            mPreferences.edit().clear().apply();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live sockets to network printers, keyed by NetPrinterDeviceId, so several
+ * printers can stay connected at once instead of every ticket paying a TCP
+ * connect. Sockets idle for longer than their host's timeout are closed by a
+ * background sweep, and the least recently used idle one is closed when the
+ * pool is full.
+ *
+ * A socket handed out by acquire() is in use until release(). In-use sockets
+ * are never evicted or swept, and closing one is deferred to its release.
+ */
+
+public class NetConnectionPool {
+
+    private final static int CONNECT_TIMEOUT = 5000;
+    private final static long SWEEP_INTERVAL_MS = 10000;
+
+    public final static long DEFAULT_IDLE_TIMEOUT_MS = 5 * 60 * 1000;
+    public final static int DEFAULT_MAX_CONNECTIONS = 8;
+
+    private static class Connection {
+        final Socket socket;
+        long lastUsed;
+        int users = 0;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    // access ordered, so iteration starts at the least recently used printer
+    private final LinkedHashMap<NetPrinterDeviceId, Connection> mConnections = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<NetPrinterDeviceId, Long> mIdleTimeouts = new HashMap<>();
+    private long mDefaultIdleTimeout = DEFAULT_IDLE_TIMEOUT_MS;
+    private int mMaxConnections = DEFAULT_MAX_CONNECTIONS;
+    private ScheduledExecutorService mSweeper;
+
+    /**
+     * Returns the pooled socket for the printer, connecting first if there
+     * is none, and marks it in use until {@link #release}.
+     */
+    public Socket acquire(NetPrinterDeviceId id) throws IOException {
+        synchronized (this) {
+            Connection connection = mConnections.get(id);
+            if (connection != null) {
+                if (isUsable(connection.socket)) {
+                    return checkOut(connection);
+                }
+                mConnections.remove(id);
+                if (connection.users == 0) {
+                    closeQuietly(connection.socket);
+                }
+            }
+        }
+
+        // connect outside the lock so one unreachable printer does not stall the others
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.connect(new InetSocketAddress(id.getHost(), id.getPort()), CONNECT_TIMEOUT);
+        } catch (IOException e) {
+            closeQuietly(socket);
+            throw e;
+        }
+
+        synchronized (this) {
+            Connection existing = mConnections.get(id);
+            if (existing != null && isUsable(existing.socket)) {
+                // another caller connected meanwhile
+                closeQuietly(socket);
+                return checkOut(existing);
+            }
+            Connection connection = new Connection(socket);
+            mConnections.put(id, connection);
+            checkOut(connection);
+            evictOverflow();
+            startSweeper();
+            return socket;
+        }
+    }
+
+    private static Socket checkOut(Connection connection) {
+        connection.users++;
+        connection.lastUsed = System.currentTimeMillis();
+        return connection.socket;
+    }
+
+    /**
+     * Hands back a socket from {@link #acquire}. It is closed now if it was
+     * dropped from the pool while in use.
+     */
+    public synchronized void release(NetPrinterDeviceId id, Socket socket) {
+        Connection connection = mConnections.get(id);
+        if (connection == null || connection.socket != socket) {
+            closeQuietly(socket);
+            return;
+        }
+        connection.users = Math.max(0, connection.users - 1);
+        connection.lastUsed = System.currentTimeMillis();
+        evictOverflow();
+    }
+
+    /**
+     * Returns the pooled socket without connecting, or null.
+     */
+    public synchronized Socket peek(NetPrinterDeviceId id) {
+        Connection connection = mConnections.get(id);
+        if (connection == null || !isUsable(connection.socket)) {
+            return null;
+        }
+        connection.lastUsed = System.currentTimeMillis();
+        return connection.socket;
+    }
+
+    /**
+     * Drops the printer's socket, e.g. after a write failed on it. The next
+     * acquire connects again; the socket itself is closed once released.
+     */
+    public synchronized void close(NetPrinterDeviceId id) {
+        Connection connection = mConnections.remove(id);
+        if (connection != null && connection.users == 0) {
+            closeQuietly(connection.socket);
+        }
+    }
+
+    public synchronized void closeAll() {
+        for (Connection connection : mConnections.values()) {
+            if (connection.users == 0) {
+                closeQuietly(connection.socket);
+            }
+        }
+        mConnections.clear();
+        if (mSweeper != null) {
+            mSweeper.shutdownNow();
+            mSweeper = null;
+        }
+    }
+
+    public synchronized void setIdleTimeout(NetPrinterDeviceId id, long idleTimeoutMs) {
+        mIdleTimeouts.put(id, idleTimeoutMs);
+    }
+
+    public synchronized void setDefaultIdleTimeout(long idleTimeoutMs) {
+        mDefaultIdleTimeout = idleTimeoutMs;
+    }
+
+    public synchronized void setMaxConnections(int maxConnections) {
+        mMaxConnections = Math.max(1, maxConnections);
+        evictOverflow();
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<NetPrinterDeviceId, Connection>> it = mConnections.entrySet().iterator();
+        while (mConnections.size() > mMaxConnections && it.hasNext()) {
+            Map.Entry<NetPrinterDeviceId, Connection> eldest = it.next();
+            if (eldest.getValue().users > 0) {
+                // a job is printing on it, the pool stays over its limit until release
+                continue;
+            }
+            closeQuietly(eldest.getValue().socket);
+            it.remove();
+        }
+    }
+
+    private synchronized void sweepIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<NetPrinterDeviceId, Connection>> it = mConnections.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<NetPrinterDeviceId, Connection> entry = it.next();
+            Long timeout = mIdleTimeouts.get(entry.getKey());
+            long idleTimeout = timeout != null ? timeout : mDefaultIdleTimeout;
+            Connection connection = entry.getValue();
+            if (connection.users > 0) {
+                continue;
+            }
+            if (!isUsable(connection.socket) || now - connection.lastUsed > idleTimeout) {
+                closeQuietly(connection.socket);
+                it.remove();
+            }
+        }
+        if (mConnections.isEmpty() && mSweeper != null) {
+            mSweeper.shutdown();
+            mSweeper = null;
+        }
+    }
+
+    private void startSweeper() {
+        if (mSweeper != null) {
+            return;
+        }
+        mSweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "RNNetPrinterPool");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        mSweeper.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                sweepIdle();
+            }
+        }, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static boolean isUsable(Socket socket) {
+        return socket.isConnected() && !socket.isClosed() && !socket.isOutputShutdown();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
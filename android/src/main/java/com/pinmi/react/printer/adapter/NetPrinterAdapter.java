@@ -1,19 +1,10 @@
 package com.pinmi.react.printer.adapter;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.Color;
 import android.net.wifi.WifiManager;
-import android.os.Build;
 import android.util.Base64;
 import android.util.Log;
 
-import com.facebook.common.internal.ImmutableMap;
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.EncodeHintType;
-import com.google.zxing.MultiFormatWriter;
-import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
 
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
@@ -21,25 +12,21 @@ import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
-import com.google.zxing.qrcode.QRCodeWriter;
-import com.google.zxing.qrcode.encoder.ByteMatrix;
 import com.pinmi.react.printer.R;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.LinkedHashSet;
 import java.util.List;
-
-import android.graphics.BitmapFactory;
-
-import androidx.annotation.RequiresApi;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
 
 /**
  * Created by xiesubin on 2017/9/22.
@@ -51,23 +38,19 @@ public class NetPrinterAdapter implements PrinterAdapter {
     private String LOG_TAG = "RNNetPrinter";
     private NetPrinterDevice mNetDevice;
 
-    // {TODO- support other ports later}
-    // private int[] PRINTER_ON_PORTS = {515, 3396, 9100, 9303};
-
-    private int[] PRINTER_ON_PORTS = { 9100 };
     private static final String EVENT_SCANNER_RESOLVED = "scannerResolved";
     private static final String EVENT_SCANNER_RUNNING = "scannerRunning";
+    private static final String EVENT_SCANNER_PRINTER_FOUND = "scannerPrinterFound";
+    private static final String EVENT_SCANNER_ERROR = "registerError";
 
-    private final static char ESC_CHAR = 0x1B;
-    private static byte[] SELECT_BIT_IMAGE_MODE = { 0x1B, 0x2A, 33 };
-    private final static byte[] SET_LINE_SPACE_24 = new byte[] { ESC_CHAR, 0x33, 24 };
-    private final static byte[] SET_LINE_SPACE_32 = new byte[] { ESC_CHAR, 0x33, 32 };
-    private final static byte[] LINE_FEED = new byte[] { 0x0A };
-    private static byte[] CENTER_ALIGN = { 0x1B, 0X61, 0X31 };
+    private final NetConnectionPool mConnectionPool = new NetConnectionPool();
+    private final Map<NetPrinterDeviceId, PrinterJobQueue> mJobQueues = new HashMap<>();
+    // per socket, so a reconnect starts with a fresh channel
+    private final Map<Socket, PrinterStatusChannel> mStatusChannels = new WeakHashMap<>();
 
-    private Socket mSocket;
-
-    private boolean isRunning = false;
+    private volatile boolean isRunning = false;
+    private volatile NetPrinterScanner mScanner;
+    private volatile UdpPrinterDiscovery mDiscovery;
 
     private NetPrinterAdapter() {
 
@@ -84,6 +67,9 @@ public class NetPrinterAdapter implements PrinterAdapter {
     @Override
     public void init(ReactApplicationContext reactContext, Callback successCallback, Callback errorCallback) {
         this.mContext = reactContext;
+        RasterCache.getInstance().init(reactContext);
+        ImageFetcher.getInstance().init(reactContext);
+        KnownPrinterStore.getInstance().init(reactContext);
         successCallback.invoke();
     }
 
@@ -92,86 +78,189 @@ public class NetPrinterAdapter implements PrinterAdapter {
         // errorCallback.invoke("do not need to invoke get device list for net
         // printer");
         // Use emitter instancee get devicelist to non block main thread
-        this.scan();
+        this.scan(NetScanOptions.defaults());
         List<PrinterDevice> printerDevices = new ArrayList<>();
         return printerDevices;
     }
 
-    private void scan() {
+    /**
+     * Scans the local subnets in the background. Printers from earlier scans
+     * are probed first, then UDP discovery listens for announcements while the
+     * TCP sweep runs. Every printer is emitted with
+     * {@link #EVENT_SCANNER_PRINTER_FOUND} as soon as it answers; the merged
+     * list follows with {@link #EVENT_SCANNER_RESOLVED} at the end. Hosts that
+     * could not be probed are reported with {@link #EVENT_SCANNER_ERROR} first.
+     */
+    public void scan(final NetScanOptions options) {
         if (isRunning)
             return;
+        isRunning = true;
+        final NetPrinterScanner scanner = new NetPrinterScanner(options);
+        mScanner = scanner;
         new Thread(new Runnable() {
-            @RequiresApi(api = Build.VERSION_CODES.KITKAT)
             @Override
             public void run() {
+                final Map<String, List<Integer>> found = new TreeMap<>();
                 try {
-                    isRunning = true;
                     emitEvent(EVENT_SCANNER_RUNNING, isRunning);
 
-                    WifiManager wifiManager = (WifiManager) mContext.getApplicationContext()
-                            .getSystemService(Context.WIFI_SERVICE);
-                    String ipAddress = ipToString(wifiManager.getConnectionInfo().getIpAddress());
-                    WritableArray array = Arguments.createArray();
-
-                    String prefix = ipAddress.substring(0, ipAddress.lastIndexOf('.') + 1);
-                    int suffix = Integer
-                            .parseInt(ipAddress.substring(ipAddress.lastIndexOf('.') + 1, ipAddress.length()));
-
-                    for (int i = 0; i <= 255; i++) {
-                        if (i == suffix)
-                            continue;
-                        ArrayList<Integer> ports = getAvailablePorts(prefix + i);
-                        if (!ports.isEmpty()) {
-                            WritableMap payload = Arguments.createMap();
+                    // called from both the sweep and the UDP discovery thread
+                    final NetPrinterScanner.Listener listener = new NetPrinterScanner.Listener() {
+                        @Override
+                        public void onPrinterFound(String host, int port) {
+                            KnownPrinterStore.getInstance().markSeen(host, port);
+                            synchronized (found) {
+                                List<Integer> ports = found.get(host);
+                                if (ports != null) {
+                                    if (!ports.contains(port)) {
+                                        ports.add(port);
+                                    }
+                                    return;
+                                }
+                                ports = new ArrayList<>();
+                                ports.add(port);
+                                found.put(host, ports);
+                                emitEvent(EVENT_SCANNER_PRINTER_FOUND, toPayload(host, ports, options.getPorts()));
+                            }
+                        }
+                    };
 
-                            payload.putString("host", prefix + i);
-                            payload.putInt("port", 9100);
+                    // a warm rescan reports the known printers within one round trip
+                    List<InetSocketAddress> known = new ArrayList<>();
+                    for (NetPrinterDeviceId printer : KnownPrinterStore.getInstance().getRecent()) {
+                        known.add(new InetSocketAddress(printer.getHost(), printer.getPort()));
+                    }
+                    scanner.probeTargets(known, listener);
+
+                    Thread discoveryThread = null;
+                    if (!scanner.isCancelled() && options.isBroadcastDiscovery()) {
+                        final UdpPrinterDiscovery discovery = new UdpPrinterDiscovery(
+                                UdpPrinterDiscovery.defaultQueries(), options.getListenWindow());
+                        mDiscovery = discovery;
+                        discoveryThread = new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    discovery.discover(listener);
+                                } catch (IOException e) {
+                                    Log.i(LOG_TAG, "udp discovery failed: " + e.getMessage());
+                                } catch (RuntimeException e) {
+                                    // the sweep and the join below must still finish
+                                    Log.w(LOG_TAG, "udp discovery stopped: " + e.getMessage());
+                                }
+                            }
+                        }, "RNNetPrinterDiscovery");
+                        discoveryThread.start();
+                    }
 
-                            array.pushMap(payload);
+                    if (!scanner.isCancelled() && options.isSweep()) {
+                        List<InetAddress> hosts = NetPrinterScanner.localSubnetHosts();
+                        if (hosts.isEmpty()) {
+                            hosts = wifiSubnetHosts();
+                        }
+                        List<InetAddress> remaining = new ArrayList<>(hosts.size());
+                        synchronized (found) {
+                            for (InetAddress host : hosts) {
+                                if (!found.containsKey(host.getHostAddress())) {
+                                    remaining.add(host);
+                                }
+                            }
                         }
+                        if (options.isArpPrepass() && ArpTable.isAvailable() && !scanner.isCancelled()) {
+                            // only knock on hosts the kernel has a neighbour entry for
+                            ArpTable.warmUp(remaining, ArpTable.DEFAULT_WARM_UP_WINDOW);
+                            List<InetAddress> alive = ArpTable.alive(remaining, ArpTable.read());
+                            if (!alive.isEmpty()) {
+                                remaining = alive;
+                            }
+                        }
+                        scanner.probe(remaining, listener);
                     }
 
-                    emitEvent(EVENT_SCANNER_RESOLVED, array);
+                    if (discoveryThread != null) {
+                        try {
+                            discoveryThread.join();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
 
-                } catch (NullPointerException ex) {
+                } catch (IOException | NullPointerException ex) {
                     Log.i(LOG_TAG, "No connection");
                 } finally {
+                    int failed = scanner.getFailedProbes();
+                    if (failed > 0) {
+                        IOException cause = scanner.getLastFailure();
+                        emitEvent(EVENT_SCANNER_ERROR, failed + " probes could not be started"
+                                + (cause != null ? ": " + cause.getMessage() : ""));
+                    }
+                    WritableArray array = Arguments.createArray();
+                    synchronized (found) {
+                        for (Map.Entry<String, List<Integer>> entry : found.entrySet()) {
+                            array.pushMap(toPayload(entry.getKey(), entry.getValue(), options.getPorts()));
+                        }
+                    }
+                    emitEvent(EVENT_SCANNER_RESOLVED, array);
+
+                    mScanner = null;
+                    mDiscovery = null;
                     isRunning = false;
                     emitEvent(EVENT_SCANNER_RUNNING, isRunning);
                 }
             }
-        }).start();
+        }, "RNNetPrinterScan").start();
     }
 
-    private void emitEvent(String eventName, Object data) {
-        if (mContext != null) {
-            mContext.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class).emit(eventName, data);
+    /**
+     * Cancels a running scan; the printers found so far are still resolved.
+     */
+    public void stopScan() {
+        NetPrinterScanner scanner = mScanner;
+        if (scanner != null) {
+            scanner.cancel();
+        }
+        UdpPrinterDiscovery discovery = mDiscovery;
+        if (discovery != null) {
+            discovery.cancel();
         }
     }
 
-    @RequiresApi(api = Build.VERSION_CODES.KITKAT)
-    private ArrayList<Integer> getAvailablePorts(String address) {
-        ArrayList<Integer> ports = new ArrayList<>();
-        for (int port : PRINTER_ON_PORTS) {
-            if (crunchifyAddressReachable(address, port))
-                ports.add(port);
+    private static WritableMap toPayload(String host, List<Integer> ports, int[] preferredPorts) {
+        WritableMap payload = Arguments.createMap();
+        payload.putString("host", host);
+        // report the most preferred open port, keeping the full list alongside
+        int port = ports.get(0);
+        for (int preferred : preferredPorts) {
+            if (ports.contains(preferred)) {
+                port = preferred;
+                break;
+            }
         }
-        return ports;
+        payload.putInt("port", port);
+        WritableArray openPorts = Arguments.createArray();
+        for (int open : ports) {
+            openPorts.pushInt(open);
+        }
+        payload.putArray("ports", openPorts);
+        return payload;
     }
 
-    @RequiresApi(api = Build.VERSION_CODES.KITKAT)
-    private static boolean crunchifyAddressReachable(String address, int port) {
-        try {
+    /**
+     * The Wi-Fi /24, for devices where the interface list is not readable.
+     */
+    private List<InetAddress> wifiSubnetHosts() throws IOException {
+        WifiManager wifiManager = (WifiManager) mContext.getApplicationContext()
+                .getSystemService(Context.WIFI_SERVICE);
+        InetAddress own = InetAddress.getByName(ipToString(wifiManager.getConnectionInfo().getIpAddress()));
+        Set<InetAddress> hosts = new LinkedHashSet<>();
+        NetPrinterScanner.addSubnetHosts(hosts, own, 24);
+        hosts.remove(own);
+        return new ArrayList<>(hosts);
+    }
 
-            try (Socket crunchifySocket = new Socket()) {
-                // Connects this socket to the server with a specified timeout value.
-                crunchifySocket.connect(new InetSocketAddress(address, port), 100);
-            }
-            // Return true if connection successful
-            return true;
-        } catch (IOException exception) {
-            exception.printStackTrace();
-            return false;
+    private void emitEvent(String eventName, Object data) {
+        if (mContext != null) {
+            mContext.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class).emit(eventName, data);
         }
     }
 
@@ -183,25 +272,18 @@ public class NetPrinterAdapter implements PrinterAdapter {
     public void selectDevice(PrinterDeviceId printerDeviceId, Callback sucessCallback, Callback errorCallback) {
         NetPrinterDeviceId netPrinterDeviceId = (NetPrinterDeviceId) printerDeviceId;
 
-        if (this.mSocket != null && !this.mSocket.isClosed()
-                && mNetDevice.getPrinterDeviceId().equals(netPrinterDeviceId)) {
+        if (mNetDevice != null && mNetDevice.getPrinterDeviceId().equals(netPrinterDeviceId)
+                && mConnectionPool.peek(netPrinterDeviceId) != null) {
             Log.i(LOG_TAG, "already selected device, do not need repeat to connect");
             sucessCallback.invoke(this.mNetDevice.toRNWritableMap());
             return;
         }
 
         try {
-            Socket socket = new Socket(netPrinterDeviceId.getHost(), netPrinterDeviceId.getPort());
-            if (socket.isConnected()) {
-                closeConnectionIfExists();
-                this.mSocket = socket;
-                this.mNetDevice = new NetPrinterDevice(netPrinterDeviceId.getHost(), netPrinterDeviceId.getPort());
-                sucessCallback.invoke(this.mNetDevice.toRNWritableMap());
-            } else {
-                errorCallback.invoke("unable to build connection with host: " + netPrinterDeviceId.getHost()
-                        + ", port: " + netPrinterDeviceId.getPort());
-                return;
-            }
+            // other printers keep their pooled connections, only the default target changes
+            mConnectionPool.release(netPrinterDeviceId, mConnectionPool.acquire(netPrinterDeviceId));
+            this.mNetDevice = new NetPrinterDevice(netPrinterDeviceId.getHost(), netPrinterDeviceId.getPort());
+            sucessCallback.invoke(this.mNetDevice.toRNWritableMap());
         } catch (IOException e) {
             e.printStackTrace();
             errorCallback.invoke("failed to connect printer: " + e.getMessage());
@@ -210,255 +292,347 @@ public class NetPrinterAdapter implements PrinterAdapter {
 
     @Override
     public void closeConnectionIfExists() {
-        if (this.mSocket != null) {
-            if (!this.mSocket.isClosed()) {
-                try {
-                    this.mSocket.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+        synchronized (mJobQueues) {
+            for (PrinterJobQueue queue : mJobQueues.values()) {
+                queue.shutdown();
             }
+            mJobQueues.clear();
+        }
+        mConnectionPool.closeAll();
+        this.mNetDevice = null;
+    }
 
-            this.mSocket = null;
-
+    /**
+     * Closes the pooled connection to one printer, leaving the others open.
+     */
+    public void closeConnection(NetPrinterDeviceId target) {
+        synchronized (mJobQueues) {
+            PrinterJobQueue queue = mJobQueues.remove(target);
+            if (queue != null) {
+                queue.shutdown();
+            }
+        }
+        mConnectionPool.close(target);
+        if (mNetDevice != null && mNetDevice.getPrinterDeviceId().equals(target)) {
+            this.mNetDevice = null;
         }
     }
 
-    @Override
-    public void printRawData(String rawBase64Data, Callback errorCallback, Callback successCallback){
-        if (this.mSocket == null) {
+    public void setIdleTimeout(NetPrinterDeviceId target, long idleTimeoutMs) {
+        mConnectionPool.setIdleTimeout(target, idleTimeoutMs);
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        mConnectionPool.setMaxConnections(maxConnections);
+    }
+
+    private NetPrinterDeviceId selectedTarget(Callback errorCallback) {
+        if (this.mNetDevice == null) {
             errorCallback.invoke("bluetooth connection is not built, may be you forgot to connectPrinter");
-            return;
+            return null;
         }
-        final String rawData = rawBase64Data;
-        final Socket socket = this.mSocket;
-        Log.v(LOG_TAG, "start to print raw data " + rawBase64Data);
-        new Thread(new NetThreadWrite(socket, rawData, successCallback, errorCallback)).start();
+        return (NetPrinterDeviceId) this.mNetDevice.getPrinterDeviceId();
+    }
 
+    private PrinterJobQueue jobQueueFor(NetPrinterDeviceId target) {
+        synchronized (mJobQueues) {
+            PrinterJobQueue queue = mJobQueues.get(target);
+            if (queue == null) {
+                queue = new PrinterJobQueue(target.getHost() + ":" + target.getPort());
+                mJobQueues.put(target, queue);
+            }
+            return queue;
+        }
     }
 
-    public static Bitmap getBitmapFromURL(String src) {
+    private Socket socketFor(NetPrinterDeviceId target, Callback errorCallback) {
         try {
-            URL url = new URL(src);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setDoInput(true);
-            connection.connect();
-            InputStream input = connection.getInputStream();
-            Bitmap myBitmap = BitmapFactory.decodeStream(input);
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            myBitmap.compress(Bitmap.CompressFormat.PNG, 100, baos);
-
-            return myBitmap;
+            return mConnectionPool.acquire(target);
         } catch (IOException e) {
-            // Log exception
+            e.printStackTrace();
+            errorCallback.invoke("failed to connect printer: " + e.getMessage());
             return null;
         }
     }
 
-    @Override
-    public void printImageData(final String imageUrl, Callback errorCallback) {
-        final Bitmap bitmapImage = getBitmapFromURL(imageUrl);
-
-        if (bitmapImage == null) {
-            errorCallback.invoke("image not found");
-            return;
+    private PrinterStatusChannel statusChannelFor(Socket socket) throws IOException {
+        synchronized (mStatusChannels) {
+            PrinterStatusChannel channel = mStatusChannels.get(socket);
+            if (channel == null) {
+                channel = new PrinterStatusChannel(new StreamPrinterOutput(socket.getOutputStream()),
+                        new StreamPrinterInput(socket.getInputStream()));
+                mStatusChannels.put(socket, channel);
+            }
+            return channel;
         }
+    }
 
-        if (this.mSocket == null) {
-            errorCallback.invoke("bluetooth connection is not built, may be you forgot to connectPrinter");
-            return;
-        }
+    /**
+     * Flow-controlled output to the socket's printer.
+     */
+    private PrinterOutput outputFor(Socket socket) throws IOException {
+        return new FlowControlledPrinterOutput(new StreamPrinterOutput(socket.getOutputStream()), statusChannelFor(socket));
+    }
 
-        final Socket socket = this.mSocket;
+    /**
+     * Output for raw bytes, checked only before they start.
+     */
+    private PrinterOutput rawOutputFor(Socket socket) throws IOException {
+        return FlowControlledPrinterOutput.forRawData(new StreamPrinterOutput(socket.getOutputStream()), statusChannelFor(socket));
+    }
 
-        try {
-            int[][] pixels = getPixelsSlow(bitmapImage);
-
-            OutputStream printerOutputStream = socket.getOutputStream();
-
-            printerOutputStream.write(SET_LINE_SPACE_24);
-            printerOutputStream.write(CENTER_ALIGN);
-
-            for (int y = 0; y < pixels.length; y += 24) {
-                // Like I said before, when done sending data,
-                // the printer will resume to normal text printing
-                printerOutputStream.write(SELECT_BIT_IMAGE_MODE);
-                // Set nL and nH based on the width of the image
-                printerOutputStream.write(
-                        new byte[] { (byte) (0x00ff & pixels[y].length), (byte) ((0xff00 & pixels[y].length) >> 8) });
-                for (int x = 0; x < pixels[y].length; x++) {
-                    // for each stripe, recollect 3 bytes (3 bytes = 24 bits)
-                    printerOutputStream.write(recollectSlice(y, x, pixels));
-                }
+    @Override
+    public void getPrinterStatus(Callback successCallback, Callback errorCallback) {
+        NetPrinterDeviceId target = selectedTarget(errorCallback);
+        if (target != null) {
+            getPrinterStatus(target, successCallback, errorCallback);
+        }
+    }
 
-                // Do a line feed, if not the printing will resume on the same line
-                printerOutputStream.write(LINE_FEED);
+    /**
+     * Queries the printer's state, queued behind its pending jobs so the
+     * replies are not mixed up with theirs.
+     */
+    public void getPrinterStatus(final NetPrinterDeviceId target, final Callback successCallback, final Callback errorCallback) {
+        jobQueueFor(target).submit(new Runnable() {
+            @Override
+            public void run() {
+                Socket socket = socketFor(target, errorCallback);
+                if (socket == null) {
+                    return;
+                }
+                try {
+                    successCallback.invoke(statusChannelFor(socket).query().toRNWritableMap());
+                } catch (IOException e) {
+                    errorCallback.invoke(e.getMessage());
+                } finally {
+                    mConnectionPool.release(target, socket);
+                }
             }
-            printerOutputStream.write(SET_LINE_SPACE_32);
-            printerOutputStream.write(LINE_FEED);
+        }, errorCallback);
+    }
 
-            printerOutputStream.flush();
-        } catch (IOException e) {
-            Log.e(LOG_TAG, "failed to print data");
-            e.printStackTrace();
-        }
+    private void submitJob(NetPrinterDeviceId target, PrintJob job, Callback errorCallback, Callback successCallback) {
+        submitJob(target, false, job, errorCallback, successCallback);
     }
 
-    @Override
-    public void printQrCode(String qrCode, Callback errorCallback) {
-        final Bitmap bitmapImage = TextToQrImageEncode(qrCode);
+    private void submitRawJob(NetPrinterDeviceId target, PrintJob job, Callback errorCallback, Callback successCallback) {
+        submitJob(target, true, job, errorCallback, successCallback);
+    }
 
-        if (bitmapImage == null) {
-            errorCallback.invoke("image not found");
-            return;
-        }
+    /**
+     * Queues the job for the printer. When it runs it gets the pooled socket,
+     * prints, waits for the printer to confirm and reports the result;
+     * successCallback may be null.
+     */
+    private void submitJob(final NetPrinterDeviceId target, final boolean rawData, final PrintJob job,
+                           final Callback errorCallback, final Callback successCallback) {
+        jobQueueFor(target).submit(new Runnable() {
+            @Override
+            public void run() {
+                // looked up when the job runs, so the job after a failed one reconnects
+                Socket socket = socketFor(target, errorCallback);
+                if (socket == null) {
+                    return;
+                }
+                try {
+                    job.print(rawData ? rawOutputFor(socket) : outputFor(socket));
+                    statusChannelFor(socket).awaitPrinted();
+                    if (successCallback != null) {
+                        successCallback.invoke();
+                    }
+                } catch (IOException e) {
+                    reportPrintFailure(target, e, errorCallback);
+                } finally {
+                    mConnectionPool.release(target, socket);
+                }
+            }
+        }, errorCallback);
+    }
 
-        if (this.mSocket == null) {
-            errorCallback.invoke("bluetooth connection is not built, may be you forgot to connectPrinter");
-            return;
-        }
+    private void reportPrintFailure(NetPrinterDeviceId target, IOException e, Callback errorCallback) {
+        Log.e(LOG_TAG, "failed to print data");
+        e.printStackTrace();
+        // the socket is in an unknown state, the next job reconnects
+        mConnectionPool.close(target);
+        errorCallback.invoke(e.getMessage());
+    }
 
-        final Socket socket = this.mSocket;
+    @Override
+    public void printRawData(String rawBase64Data, Callback errorCallback, Callback successCallback){
+        NetPrinterDeviceId target = selectedTarget(errorCallback);
+        if (target != null) {
+            printRawData(target, rawBase64Data, errorCallback, successCallback);
+        }
+    }
 
-        try {
-            int[][] pixels = getPixelsSlow(bitmapImage);
-
-            OutputStream printerOutputStream = socket.getOutputStream();
-
-            printerOutputStream.write(SET_LINE_SPACE_24);
-            printerOutputStream.write(CENTER_ALIGN);
-
-            for (int y = 0; y < pixels.length; y += 24) {
-                // Like I said before, when done sending data,
-                // the printer will resume to normal text printing
-                printerOutputStream.write(SELECT_BIT_IMAGE_MODE);
-                // Set nL and nH based on the width of the image
-                printerOutputStream.write(
-                        new byte[] { (byte) (0x00ff & pixels[y].length), (byte) ((0xff00 & pixels[y].length) >> 8) });
-                for (int x = 0; x < pixels[y].length; x++) {
-                    // for each stripe, recollect 3 bytes (3 bytes = 24 bits)
-                    printerOutputStream.write(recollectSlice(y, x, pixels));
+    public void printRawData(final NetPrinterDeviceId target, final String rawBase64Data,
+                             final Callback errorCallback, final Callback successCallback) {
+        Log.v(LOG_TAG, "start to print raw data");
+        jobQueueFor(target).submit(new Runnable() {
+            @Override
+            public void run() {
+                // looked up when the job runs, so the job after a failed one reconnects
+                Socket socket = socketFor(target, errorCallback);
+                if (socket == null) {
+                    return;
+                }
+                try {
+                    PrinterStatusChannel statusChannel;
+                    try {
+                        statusChannel = statusChannelFor(socket);
+                    } catch (IOException e) {
+                        reportPrintFailure(target, e, errorCallback);
+                        return;
+                    }
+                    new NetThreadWrite(socket, statusChannel, rawBase64Data, successCallback, new Callback() {
+                        @Override
+                        public void invoke(Object... args) {
+                            mConnectionPool.close(target);
+                            errorCallback.invoke(args);
+                        }
+                    }).run();
+                } finally {
+                    mConnectionPool.release(target, socket);
                 }
-
-                // Do a line feed, if not the printing will resume on the same line
-                printerOutputStream.write(LINE_FEED);
             }
-            printerOutputStream.write(SET_LINE_SPACE_32);
-            printerOutputStream.write(LINE_FEED);
+        }, errorCallback);
+    }
 
-            printerOutputStream.flush();
-        } catch (IOException e) {
-            Log.e(LOG_TAG, "failed to print data");
-            e.printStackTrace();
+    @Override
+    public void printFile(String source, Callback errorCallback, Callback successCallback) {
+        NetPrinterDeviceId target = selectedTarget(errorCallback);
+        if (target != null) {
+            printFile(target, source, errorCallback, successCallback);
         }
     }
 
-    private Bitmap TextToQrImageEncode(String Value) {
+    public void printFile(final NetPrinterDeviceId target, final String source,
+                          final Callback errorCallback, final Callback successCallback) {
+        submitRawJob(target, new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                FilePrinter.print(mContext, source, output);
+            }
+        }, errorCallback, successCallback);
+    }
 
-        com.google.zxing.Writer writer = new QRCodeWriter();
+    @Override
+    public void printText(String text, TextPrintOptions options, Callback errorCallback, Callback successCallback) {
+        NetPrinterDeviceId target = selectedTarget(errorCallback);
+        if (target != null) {
+            printText(target, text, options, errorCallback, successCallback);
+        }
+    }
 
-        BitMatrix bitMatrix = null;
-        try {
-            bitMatrix = writer.encode(Value, com.google.zxing.BarcodeFormat.QR_CODE, 250, 250,
-                    ImmutableMap.of(EncodeHintType.MARGIN, 1));
-            int width = 250;
-            int height = 250;
-            Bitmap bmp = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-
-            for (int i = 0; i < width; i++) {
-                for (int j = 0; j < height; j++) {
-                    bmp.setPixel(i, j, bitMatrix.get(i, j) ? Color.BLACK : Color.WHITE);
-                }
+    public void printText(final NetPrinterDeviceId target, final String text, final TextPrintOptions options,
+                          final Callback errorCallback, final Callback successCallback) {
+        submitJob(target, new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                TextPrinter.print(text, options, output);
             }
-            return bmp;
-        } catch (WriterException e) {
-            // Log.e("QR ERROR", ""+e);
+        }, errorCallback, successCallback);
+    }
 
+    @Override
+    public void printRasterText(String text, RasterTextOptions options, Callback errorCallback, Callback successCallback) {
+        NetPrinterDeviceId target = selectedTarget(errorCallback);
+        if (target != null) {
+            printRasterText(target, text, options, errorCallback, successCallback);
         }
-
-        return null;
     }
 
-    public static int[][] getPixelsSlow(Bitmap image2) {
+    public void printRasterText(final NetPrinterDeviceId target, final String text, final RasterTextOptions options,
+                                final Callback errorCallback, final Callback successCallback) {
+        submitJob(target, new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                RasterTextPrinter.print(text, options, output);
+            }
+        }, errorCallback, successCallback);
+    }
 
-        Bitmap image = resizeTheImageForPrinting(image2);
+    @Override
+    public void printTable(List<List<String>> rows, TableOptions options, Callback errorCallback, Callback successCallback) {
+        NetPrinterDeviceId target = selectedTarget(errorCallback);
+        if (target != null) {
+            printTable(target, rows, options, errorCallback, successCallback);
+        }
+    }
 
-        int width = image.getWidth();
-        int height = image.getHeight();
-        int[][] result = new int[height][width];
-        for (int row = 0; row < height; row++) {
-            for (int col = 0; col < width; col++) {
-                result[row][col] = getRGB(image, col, row);
+    public void printTable(final NetPrinterDeviceId target, final List<List<String>> rows, final TableOptions options,
+                           final Callback errorCallback, final Callback successCallback) {
+        submitJob(target, new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                TablePrinter.print(rows, options, output);
             }
+        }, errorCallback, successCallback);
+    }
+
+    @Override
+    public void printImageData(final String imageUrl, Callback errorCallback) {
+        printImageData(imageUrl, ImagePrintOptions.defaults(), errorCallback, null);
+    }
+
+    @Override
+    public void printImageData(final String imageUrl, ImagePrintOptions options, Callback errorCallback, Callback successCallback) {
+        NetPrinterDeviceId target = selectedTarget(errorCallback);
+        if (target != null) {
+            printImageData(target, imageUrl, options, errorCallback, successCallback);
         }
-        return result;
     }
 
-    private byte[] recollectSlice(int y, int x, int[][] img) {
-        byte[] slices = new byte[] { 0, 0, 0 };
-        for (int yy = y, i = 0; yy < y + 24 && i < 3; yy += 8, i++) {
-            byte slice = 0;
-            for (int b = 0; b < 8; b++) {
-                int yyy = yy + b;
-                if (yyy >= img.length) {
-                    continue;
-                }
-                int col = img[yyy][x];
-                boolean v = shouldPrintColor(col);
-                slice |= (byte) ((v ? 1 : 0) << (7 - b));
+    public void printImageData(final NetPrinterDeviceId target, final String imageUrl, final ImagePrintOptions options,
+                            final Callback errorCallback, final Callback successCallback) {
+        submitJob(target, new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                ImagePrinter.print(imageUrl, options, output);
             }
-            slices[i] = slice;
-        }
-        return slices;
+        }, errorCallback, successCallback);
+    }
+
+    @Override
+    public void printQrCode(String qrCode, Callback errorCallback) {
+        printQrCode(qrCode, QrCodeOptions.legacy(), errorCallback, null);
     }
 
-    private boolean shouldPrintColor(int col) {
-        final int threshold = 127;
-        int a, r, g, b, luminance;
-        a = (col >> 24) & 0xff;
-        if (a != 0xff) {// Ignore transparencies
-            return false;
+    @Override
+    public void printQrCode(String qrCode, QrCodeOptions options, Callback errorCallback, Callback successCallback) {
+        NetPrinterDeviceId target = selectedTarget(errorCallback);
+        if (target != null) {
+            printQrCode(target, qrCode, options, errorCallback, successCallback);
         }
-        r = (col >> 16) & 0xff;
-        g = (col >> 8) & 0xff;
-        b = col & 0xff;
-
-        luminance = (int) (0.299 * r + 0.587 * g + 0.114 * b);
-
-        return luminance < threshold;
-    }
-
-    public static Bitmap resizeTheImageForPrinting(Bitmap image) {
-        // making logo size 150 or less pixels
-        int width = image.getWidth();
-        int height = image.getHeight();
-        if (width > 200 || height > 200) {
-            if (width > height) {
-                float decreaseSizeBy = (200.0f / width);
-                return getBitmapResized(image, decreaseSizeBy);
-            } else {
-                float decreaseSizeBy = (200.0f / height);
-                return getBitmapResized(image, decreaseSizeBy);
+    }
+
+    public void printQrCode(final NetPrinterDeviceId target, final String qrCode, final QrCodeOptions options,
+                            final Callback errorCallback, final Callback successCallback) {
+        submitJob(target, new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                QrCodePrinter.print(qrCode, options, output);
             }
-        }
-        return image;
+        }, errorCallback, successCallback);
     }
 
-    public static int getRGB(Bitmap bmpOriginal, int col, int row) {
-        // get one pixel color
-        int pixel = bmpOriginal.getPixel(col, row);
-        // retrieve color of all channels
-        int R = Color.red(pixel);
-        int G = Color.green(pixel);
-        int B = Color.blue(pixel);
-        return Color.rgb(R, G, B);
+    @Override
+    public void printBarcode(String data, BarcodeOptions options, Callback errorCallback, Callback successCallback) {
+        NetPrinterDeviceId target = selectedTarget(errorCallback);
+        if (target != null) {
+            printBarcode(target, data, options, errorCallback, successCallback);
+        }
     }
 
-    public static Bitmap getBitmapResized(Bitmap image, float decreaseSizeBy) {
-        Bitmap resized = Bitmap.createScaledBitmap(image, (int) (image.getWidth() * decreaseSizeBy),
-                (int) (image.getHeight() * decreaseSizeBy), true);
-        return resized;
+    public void printBarcode(final NetPrinterDeviceId target, final String data, final BarcodeOptions options,
+                            final Callback errorCallback, final Callback successCallback) {
+        submitJob(target, new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                BarcodePrinter.print(data, options, output);
+            }
+        }, errorCallback, successCallback);
     }
 
 }
@@ -30,7 +30,6 @@ public class NetPrinterDeviceId extends PrinterDeviceId {
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        if (!super.equals(o)) return false;
 
         NetPrinterDeviceId that = (NetPrinterDeviceId) o;
 
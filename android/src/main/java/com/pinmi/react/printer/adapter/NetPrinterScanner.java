@@ -0,0 +1,289 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.InterfaceAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds printers by opening non-blocking TCP connects to every host/port pair
+ * and multiplexing them on one Selector, so hundreds of probes are in flight
+ * at once instead of one blocking connect after another.
+ *
+ * When the process runs out of descriptors the scan lowers its concurrency
+ * to what is in flight and retries the host later. A probe that cannot be
+ * started even with nothing in flight is counted as failed.
+ */
+
+public class NetPrinterScanner {
+
+    // wider subnets are narrowed to the /24 around our own address
+    private final static int MIN_PREFIX_LENGTH = 24;
+
+    private final static int STARTED = 0;
+    private final static int ANSWERED = 1;
+    private final static int NO_DESCRIPTOR = 2;
+    private final static int FAILED = 3;
+
+    public interface Listener {
+        void onPrinterFound(String host, int port);
+    }
+
+    private final NetScanOptions mOptions;
+    private volatile boolean mCancelled = false;
+    private volatile Selector mSelector;
+    private int mFailedProbes = 0;
+    private IOException mLastFailure;
+
+    public NetPrinterScanner(NetScanOptions options) {
+        this.mOptions = options;
+    }
+
+    /**
+     * Stops the probes in flight; probe() returns promptly with what it found so far.
+     */
+    public void cancel() {
+        mCancelled = true;
+        Selector selector = mSelector;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+
+    /**
+     * How many host/port pairs could not be probed at all, so their result
+     * is unknown.
+     */
+    public synchronized int getFailedProbes() {
+        return mFailedProbes;
+    }
+
+    public synchronized IOException getLastFailure() {
+        return mLastFailure;
+    }
+
+    /**
+     * Every other host on the IPv4 subnets of the interfaces that are up,
+     * Wi-Fi and Ethernet alike.
+     */
+    public static List<InetAddress> localSubnetHosts() throws SocketException {
+        Set<InetAddress> hosts = new LinkedHashSet<>();
+        Set<InetAddress> own = new LinkedHashSet<>();
+        List<NetworkInterface> interfaces = Collections.list(NetworkInterface.getNetworkInterfaces());
+        for (NetworkInterface networkInterface : interfaces) {
+            if (!networkInterface.isUp() || networkInterface.isLoopback() || networkInterface.isPointToPoint()) {
+                continue;
+            }
+            for (InterfaceAddress interfaceAddress : networkInterface.getInterfaceAddresses()) {
+                InetAddress address = interfaceAddress.getAddress();
+                if (!(address instanceof Inet4Address)) {
+                    continue;
+                }
+                own.add(address);
+                addSubnetHosts(hosts, address, interfaceAddress.getNetworkPrefixLength());
+            }
+        }
+        hosts.removeAll(own);
+        return new ArrayList<>(hosts);
+    }
+
+    static void addSubnetHosts(Set<InetAddress> hosts, InetAddress address, int prefixLength) {
+        int prefix = Math.max(MIN_PREFIX_LENGTH, prefixLength);
+        if (prefix >= 31) {
+            return;
+        }
+        int ip = toInt(address);
+        int mask = -1 << (32 - prefix);
+        int network = ip & mask;
+        int broadcast = network | ~mask;
+        for (int host = network + 1; host < broadcast; host++) {
+            hosts.add(toAddress(host));
+        }
+    }
+
+    /**
+     * Probes every host on every configured port, reporting each open port as
+     * soon as its connect completes. Returns when all probes have answered or
+     * timed out.
+     */
+    public void probe(List<InetAddress> hosts, Listener listener) throws IOException {
+        List<InetSocketAddress> targets = new ArrayList<>(hosts.size() * mOptions.getPorts().length);
+        for (int port : mOptions.getPorts()) {
+            for (InetAddress host : hosts) {
+                targets.add(new InetSocketAddress(host, port));
+            }
+        }
+        probeTargets(targets, listener);
+    }
+
+    /**
+     * Probes exactly the given host/port pairs.
+     */
+    public void probeTargets(List<InetSocketAddress> targets, Listener listener) throws IOException {
+        Iterator<InetSocketAddress> pending = targets.iterator();
+        Deque<InetSocketAddress> retry = new ArrayDeque<>();
+        Selector selector = Selector.open();
+        mSelector = selector;
+        int concurrency = mOptions.getConcurrency();
+        int inFlight = 0;
+        try {
+            while (!mCancelled) {
+                while (inFlight < concurrency && (!retry.isEmpty() || pending.hasNext())) {
+                    InetSocketAddress target = retry.isEmpty() ? pending.next() : retry.poll();
+                    int result = startConnect(selector, target, listener);
+                    if (result == STARTED) {
+                        inFlight++;
+                    } else if (result == NO_DESCRIPTOR && inFlight > 0) {
+                        // wait for probes in flight to free theirs, then try again
+                        concurrency = inFlight;
+                        retry.addFirst(target);
+                        break;
+                    } else if (result != ANSWERED) {
+                        recordFailure();
+                    }
+                }
+                if (inFlight == 0) {
+                    return;
+                }
+
+                selector.select(Math.max(1, nextDeadline(selector) - System.currentTimeMillis()));
+
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    SelectionKey key = selected.next();
+                    selected.remove();
+                    Probe probe = (Probe) key.attachment();
+                    try {
+                        if (((SocketChannel) key.channel()).finishConnect()) {
+                            listener.onPrinterFound(probe.target.getAddress().getHostAddress(), probe.target.getPort());
+                        }
+                    } catch (IOException e) {
+                        // refused or unreachable, nothing listening there
+                    }
+                    closeQuietly(key);
+                    inFlight--;
+                }
+
+                long now = System.currentTimeMillis();
+                for (SelectionKey key : selector.keys()) {
+                    if (key.isValid() && ((Probe) key.attachment()).deadline <= now) {
+                        closeQuietly(key);
+                        inFlight--;
+                    }
+                }
+            }
+        } finally {
+            mSelector = null;
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            selector.close();
+        }
+    }
+
+    /**
+     * Starts a connect and returns STARTED when it is pending on the
+     * selector, ANSWERED when it completed at once, NO_DESCRIPTOR when no
+     * socket could be opened and FAILED when the connect was refused outright.
+     */
+    private int startConnect(Selector selector, InetSocketAddress target, Listener listener) {
+        SocketChannel channel;
+        try {
+            channel = openChannel();
+        } catch (IOException e) {
+            setLastFailure(e);
+            return NO_DESCRIPTOR;
+        }
+        try {
+            channel.configureBlocking(false);
+            if (channel.connect(target)) {
+                listener.onPrinterFound(target.getAddress().getHostAddress(), target.getPort());
+                channel.close();
+                return ANSWERED;
+            }
+            channel.register(selector, SelectionKey.OP_CONNECT,
+                    new Probe(target, System.currentTimeMillis() + mOptions.getConnectTimeout()));
+            return STARTED;
+        } catch (IOException e) {
+            setLastFailure(e);
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            return FAILED;
+        }
+    }
+
+    SocketChannel openChannel() throws IOException {
+        return SocketChannel.open();
+    }
+
+    private synchronized void recordFailure() {
+        mFailedProbes++;
+    }
+
+    private synchronized void setLastFailure(IOException e) {
+        mLastFailure = e;
+    }
+
+    private static long nextDeadline(Selector selector) {
+        long deadline = Long.MAX_VALUE;
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid()) {
+                deadline = Math.min(deadline, ((Probe) key.attachment()).deadline);
+            }
+        }
+        return deadline;
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static int toInt(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        return ((bytes[0] & 0xff) << 24) | ((bytes[1] & 0xff) << 16) | ((bytes[2] & 0xff) << 8) | (bytes[3] & 0xff);
+    }
+
+    private static InetAddress toAddress(int ip) {
+        byte[] bytes = { (byte) (ip >> 24), (byte) (ip >> 16), (byte) (ip >> 8), (byte) ip };
+        try {
+            return InetAddress.getByAddress(bytes);
+        } catch (IOException e) {
+            // only thrown for a wrong array length
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Probe {
+        final InetSocketAddress target;
+        final long deadline;
+
+        Probe(InetSocketAddress target, long deadline) {
+            this.target = target;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.pinmi.react.printer.adapter;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * Settings for a network printer scan, parsed from the options map sent by JS.
+ */
+
+public class NetScanOptions {
+
+    public final static int[] DEFAULT_PORTS = { 9100, 515, 3396, 9303 };
+    // well below the per-process descriptor limit of older devices
+    public final static int DEFAULT_CONCURRENCY = 128;
+    public final static int DEFAULT_CONNECT_TIMEOUT = 400;
+
+    private int[] ports = DEFAULT_PORTS;
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private boolean sweep = true;
+    private boolean arpPrepass = true;
+    private boolean broadcastDiscovery = true;
+    private int listenWindow = UdpPrinterDiscovery.DEFAULT_LISTEN_WINDOW;
+
+    public static NetScanOptions defaults() {
+        return new NetScanOptions();
+    }
+
+    public static NetScanOptions fromReadableMap(ReadableMap map) {
+        NetScanOptions options = new NetScanOptions();
+        if (map == null) {
+            return options;
+        }
+        if (map.hasKey("ports") && !map.isNull("ports")) {
+            ReadableArray array = map.getArray("ports");
+            int[] ports = new int[array.size()];
+            for (int i = 0; i < ports.length; i++) {
+                ports[i] = array.getInt(i);
+            }
+            if (ports.length > 0) {
+                options.ports = ports;
+            }
+        }
+        if (map.hasKey("concurrency") && !map.isNull("concurrency")) {
+            options.concurrency = Math.max(1, map.getInt("concurrency"));
+        }
+        if (map.hasKey("timeout") && !map.isNull("timeout")) {
+            options.connectTimeout = Math.max(1, map.getInt("timeout"));
+        }
+        if (map.hasKey("sweep") && !map.isNull("sweep")) {
+            options.sweep = map.getBoolean("sweep");
+        }
+        if (map.hasKey("arp") && !map.isNull("arp")) {
+            options.arpPrepass = map.getBoolean("arp");
+        }
+        if (map.hasKey("broadcast") && !map.isNull("broadcast")) {
+            options.broadcastDiscovery = map.getBoolean("broadcast");
+        }
+        if (map.hasKey("listenWindow") && !map.isNull("listenWindow")) {
+            options.listenWindow = Math.max(0, map.getInt("listenWindow"));
+        }
+        return options;
+    }
+
+    /**
+     * Ports probed on every host, in order of preference.
+     */
+    public int[] getPorts() {
+        return ports;
+    }
+
+    public NetScanOptions setPorts(int[] ports) {
+        this.ports = ports;
+        return this;
+    }
+
+    /**
+     * Maximum number of connects in flight at once.
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public NetScanOptions setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public NetScanOptions setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * Probe every host of the local subnets over TCP.
+     */
+    public boolean isSweep() {
+        return sweep;
+    }
+
+    public NetScanOptions setSweep(boolean sweep) {
+        this.sweep = sweep;
+        return this;
+    }
+
+    /**
+     * Sweep only the hosts in the kernel's neighbour table when it is readable
+     * and not empty, after a UDP warm-up to fill it.
+     */
+    public boolean isArpPrepass() {
+        return arpPrepass;
+    }
+
+    public NetScanOptions setArpPrepass(boolean arpPrepass) {
+        this.arpPrepass = arpPrepass;
+        return this;
+    }
+
+    /**
+     * Ask printers to announce themselves over UDP (mDNS, SNMP, ENPC).
+     */
+    public boolean isBroadcastDiscovery() {
+        return broadcastDiscovery;
+    }
+
+    public NetScanOptions setBroadcastDiscovery(boolean broadcastDiscovery) {
+        this.broadcastDiscovery = broadcastDiscovery;
+        return this;
+    }
+
+    /**
+     * How long to collect UDP replies, in ms.
+     */
+    public int getListenWindow() {
+        return listenWindow;
+    }
+
+    public NetScanOptions setListenWindow(int listenWindow) {
+        this.listenWindow = listenWindow;
+        return this;
+    }
+}
@@ -7,7 +7,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
-import android.util.Base64;
 import android.util.Log;
 import androidx.annotation.RequiresApi;
 import java.util.Hashtable;
@@ -19,25 +18,40 @@ public class NetThreadWrite implements Runnable {
 
     private String rawData;
     private Socket socket;
+    private PrinterStatusChannel statusChannel;
     private String LOG_TAG = "RNNetPrinter";
 
     public NetThreadWrite(Socket socket, String rawData, Callback callSuccess, Callback callError) {
+        this(socket, null, rawData, callSuccess, callError);
+    }
+
+    /**
+     * With a status channel the data is flow controlled and success is only
+     * reported once the printer confirms it has printed the job.
+     */
+    public NetThreadWrite(Socket socket, PrinterStatusChannel statusChannel, String rawData, Callback callSuccess, Callback callError) {
         this.callSuccess = callSuccess;
         this.callError = callError;
         this.rawData = rawData;
         this.socket = socket;
+        this.statusChannel = statusChannel;
     }
    
    @Override
     public void run() {
       try {
-            byte[] bytes = Base64.decode(this.rawData, Base64.DEFAULT);
-            OutputStream printerOutputStream = this.socket.getOutputStream();
-            printerOutputStream.write(bytes, 0, bytes.length);
-            printerOutputStream.flush();
+            PrinterOutput output = new StreamPrinterOutput(this.socket.getOutputStream());
+            if (this.statusChannel != null) {
+                output = FlowControlledPrinterOutput.forRawData(output, this.statusChannel);
+            }
+            Base64PrinterDecoder.decode(this.rawData, output);
+            output.flush();
+            if (this.statusChannel != null) {
+                this.statusChannel.awaitPrinted();
+            }
             this.callSuccess.invoke();
         } catch (IOException e) {
-            Log.e(LOG_TAG, "failed to print data" + this.rawData);
+            Log.e(LOG_TAG, "failed to print data");
             e.printStackTrace();
             this.callError.invoke(e.toString());
         }
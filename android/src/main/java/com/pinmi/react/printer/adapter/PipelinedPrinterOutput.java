@@ -0,0 +1,179 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * PrinterOutput that hands each write to a transmit thread through a small
+ * ring of reusable buffers, so the caller can convert and encode the next
+ * stripe while the previous one is still going out to the printer.
+ *
+ * flush() waits for every queued buffer to be transmitted, then flushes the
+ * target. A transmit failure is rethrown from the next write or flush.
+ *
+ * Jobs get theirs from {@link #obtain}: on a PrinterJobQueue writer that is
+ * the queue's own pipeline, pointed at the job's output, so the transmit
+ * thread is started once per printer rather than once per job.
+ */
+
+public class PipelinedPrinterOutput implements PrinterOutput, Closeable {
+
+    private final static int DEFAULT_SLOTS = 4;
+
+    private static class Slot {
+        byte[] data = new byte[0];
+        int length;
+    }
+
+    private final static Slot END_OF_JOB = new Slot();
+
+    private PrinterOutput target;
+    private final boolean shared;
+    private final int slotCount;
+    private final BlockingQueue<Slot> freeSlots;
+    private final BlockingQueue<Slot> filledSlots;
+    private final Thread transmitThread;
+    private volatile IOException failure;
+
+    public PipelinedPrinterOutput(PrinterOutput target) {
+        this(target, DEFAULT_SLOTS);
+    }
+
+    public PipelinedPrinterOutput(PrinterOutput target, int slotCount) {
+        this(target, slotCount, false, "RNPrinterTransmit");
+    }
+
+    private PipelinedPrinterOutput(PrinterOutput target, int slotCount, boolean shared, String threadName) {
+        this.target = target;
+        this.shared = shared;
+        this.slotCount = slotCount;
+        this.freeSlots = new ArrayBlockingQueue<>(slotCount);
+        this.filledSlots = new ArrayBlockingQueue<>(slotCount + 1);
+        for (int i = 0; i < slotCount; i++) {
+            freeSlots.add(new Slot());
+        }
+        this.transmitThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                transmit();
+            }
+        }, threadName);
+        this.transmitThread.setDaemon(true);
+        this.transmitThread.start();
+    }
+
+    /**
+     * A pipeline to target for the current job; close() it when the job is done.
+     */
+    public static PipelinedPrinterOutput obtain(PrinterOutput target) {
+        PipelinedPrinterOutput pipeline = PrinterJobQueue.currentPipeline();
+        if (pipeline == null) {
+            return new PipelinedPrinterOutput(target);
+        }
+        pipeline.target = target;
+        pipeline.failure = null;
+        return pipeline;
+    }
+
+    /**
+     * The long-lived pipeline of a job queue; stopped with {@link #shutdown()}.
+     */
+    static PipelinedPrinterOutput newShared(String name) {
+        return new PipelinedPrinterOutput(null, DEFAULT_SLOTS, true, "RNPrinterTransmit-" + name);
+    }
+
+    private void transmit() {
+        try {
+            while (true) {
+                Slot slot = filledSlots.take();
+                if (slot == END_OF_JOB) {
+                    return;
+                }
+                if (failure == null) {
+                    try {
+                        target.write(slot.data, 0, slot.length);
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                freeSlots.put(slot);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        checkFailure();
+        try {
+            Slot slot = freeSlots.take();
+            if (slot.data.length < length) {
+                slot.data = new byte[length];
+            }
+            System.arraycopy(data, offset, slot.data, 0, length);
+            slot.length = length;
+            filledSlots.put(slot);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while queueing print data");
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        awaitTransmitted();
+        checkFailure();
+        target.flush();
+    }
+
+    /**
+     * Waits for queued data to drain. A pipeline of its own also stops its
+     * transmit thread; a queue's pipeline keeps it for the next job.
+     */
+    @Override
+    public void close() throws IOException {
+        if (shared) {
+            awaitTransmitted();
+            return;
+        }
+        shutdown();
+    }
+
+    void shutdown() throws IOException {
+        try {
+            awaitTransmitted();
+        } finally {
+            filledSlots.offer(END_OF_JOB);
+        }
+    }
+
+    private void awaitTransmitted() throws IOException {
+        // every slot is back in the free queue once the transmit thread has written it
+        Slot[] slots = new Slot[slotCount];
+        int taken = 0;
+        try {
+            while (taken < slotCount) {
+                Slot slot = freeSlots.take();
+                slots[taken] = slot;
+                taken++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for print data to be sent");
+        } finally {
+            for (int i = 0; i < taken; i++) {
+                freeSlots.offer(slots[i]);
+            }
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+
+/**
+ * The printing part of a job: what to send, given an output the adapter has
+ * already connected and wrapped. Adapters run it on the printer's writer
+ * thread and take care of waiting for the printer and reporting the result.
+ */
+
+public interface PrintJob {
+
+    public void print(PrinterOutput output) throws IOException;
+}
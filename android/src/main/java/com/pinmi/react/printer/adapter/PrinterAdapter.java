@@ -26,7 +26,23 @@ public interface PrinterAdapter {
 
     public void printRawData(String rawBase64Data, Callback errorCallback, Callback successCallback);
 
+    public void printFile(String source, Callback errorCallback, Callback successCallback);
+
+    public void printText(String text, TextPrintOptions options, Callback errorCallback, Callback successCallback);
+
+    public void printRasterText(String text, RasterTextOptions options, Callback errorCallback, Callback successCallback);
+
+    public void printTable(List<List<String>> rows, TableOptions options, Callback errorCallback, Callback successCallback);
+
     public void printImageData(String imageUrl, Callback errorCallback);
 
+    public void printImageData(String imageUrl, ImagePrintOptions options, Callback errorCallback, Callback successCallback);
+
     public void printQrCode(String qrCode, Callback errorCallback);
+
+    public void printQrCode(String qrCode, QrCodeOptions options, Callback errorCallback, Callback successCallback);
+
+    public void printBarcode(String data, BarcodeOptions options, Callback errorCallback, Callback successCallback);
+
+    public void getPrinterStatus(Callback successCallback, Callback errorCallback);
 }
@@ -0,0 +1,16 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+
+/**
+ * Back channel from a printer, used for status replies.
+ */
+
+public interface PrinterInput {
+
+    /**
+     * Reads up to length bytes, waiting at most timeoutMs for the first one.
+     * Returns 0 when nothing arrived in time.
+     */
+    int read(byte[] buffer, int offset, int length, int timeoutMs) throws IOException;
+}
@@ -0,0 +1,171 @@
+package com.pinmi.react.printer.adapter;
+
+import android.util.Log;
+
+import com.facebook.react.bridge.Callback;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded FIFO of print jobs drained by one long-lived writer thread per
+ * printer. Jobs run strictly one after another, so their bytes never
+ * interleave on the connection and their callbacks fire in submission order.
+ * The writer also owns the transmit thread that pipelined jobs share.
+ */
+
+public class PrinterJobQueue {
+
+    public final static int DEFAULT_CAPACITY = 32;
+
+    private final static String LOG_TAG = "RNPrinterJobQueue";
+    private final static Runnable END_OF_QUEUE = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    // the queue whose writer is the current thread
+    private final static ThreadLocal<PrinterJobQueue> CURRENT = new ThreadLocal<>();
+
+    private final String mName;
+    private final int mCapacity;
+    private final BlockingQueue<Runnable> mJobs;
+    private Thread mWriter;
+    private boolean mShutdown = false;
+    // only touched by the writer thread
+    private PipelinedPrinterOutput mPipeline;
+
+    public PrinterJobQueue(String name) {
+        this(name, DEFAULT_CAPACITY);
+    }
+
+    public PrinterJobQueue(String name, int capacity) {
+        this.mName = name;
+        this.mCapacity = capacity;
+        this.mJobs = new ArrayBlockingQueue<>(capacity + 1);
+    }
+
+    /**
+     * Queues the job behind the ones already submitted. Returns false, without
+     * running it, when the queue is full or has been shut down.
+     */
+    public synchronized boolean submit(Runnable job) {
+        if (mShutdown || mJobs.size() >= mCapacity) {
+            return false;
+        }
+        mJobs.offer(job);
+        if (mWriter == null) {
+            mWriter = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    drain();
+                }
+            }, "RNPrinterWriter-" + mName);
+            mWriter.setDaemon(true);
+            mWriter.start();
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@link #submit(Runnable)}, reporting a rejected job to the
+     * callback. A RuntimeException thrown by the job, e.g. from parsing its
+     * options, is reported to the callback too, so the caller always hears back.
+     */
+    public boolean submit(final Runnable job, final Callback errorCallback) {
+        Runnable reported = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    job.run();
+                } catch (RuntimeException e) {
+                    reportFailure(errorCallback, e);
+                }
+            }
+        };
+        if (submit(reported)) {
+            return true;
+        }
+        errorCallback.invoke("print queue for " + mName + " is full or closed, try again later");
+        return false;
+    }
+
+    /**
+     * Lets the jobs already queued finish, then stops the writer thread.
+     */
+    public synchronized void shutdown() {
+        if (mShutdown) {
+            return;
+        }
+        mShutdown = true;
+        // the extra slot reserved in the constructor guarantees room for the marker
+        mJobs.offer(END_OF_QUEUE);
+    }
+
+    public int size() {
+        return mJobs.size();
+    }
+
+    /**
+     * The pipeline of the queue the calling thread writes for, or null when
+     * it is not a writer thread.
+     */
+    static PipelinedPrinterOutput currentPipeline() {
+        PrinterJobQueue queue = CURRENT.get();
+        if (queue == null) {
+            return null;
+        }
+        if (queue.mPipeline == null) {
+            queue.mPipeline = PipelinedPrinterOutput.newShared(queue.mName);
+        }
+        return queue.mPipeline;
+    }
+
+    private static void reportFailure(Callback errorCallback, RuntimeException e) {
+        try {
+            errorCallback.invoke(e.getMessage() != null ? e.getMessage() : e.toString());
+        } catch (RuntimeException alreadyInvoked) {
+            // the job reported its result before failing, the callback cannot fire twice
+            Log.e(LOG_TAG, "could not report the failure", alreadyInvoked);
+        }
+    }
+
+    private void drain() {
+        CURRENT.set(this);
+        try {
+            runJobs();
+        } finally {
+            CURRENT.remove();
+            if (mPipeline != null) {
+                try {
+                    mPipeline.shutdown();
+                } catch (IOException e) {
+                    // nothing is left to report it to
+                }
+            }
+        }
+    }
+
+    private void runJobs() {
+        while (true) {
+            Runnable job;
+            try {
+                job = mJobs.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (job == END_OF_QUEUE) {
+                return;
+            }
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                // one broken job must not take the writer down with the rest of the queue
+                Log.e(LOG_TAG, "print job failed on " + mName, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+
+/**
+ * Byte sink for a connected printer, implemented once per transport so that
+ * encoders can emit whole command blocks without knowing where they go.
+ */
+
+public interface PrinterOutput {
+
+    public void write(byte[] data, int offset, int length) throws IOException;
+
+    public void flush() throws IOException;
+}
@@ -0,0 +1,176 @@
+package com.pinmi.react.printer.adapter;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * Printer state decoded from DLE EOT replies or Automatic Status Back blocks.
+ */
+
+public class PrinterStatus {
+
+    private boolean online = true;
+    private boolean waitingForRecovery = false;
+    private boolean drawerOpen = false;
+    private boolean coverOpen = false;
+    private boolean feedButtonPressed = false;
+    private boolean paperEnd = false;
+    private boolean paperNearEnd = false;
+    private boolean cutterError = false;
+    private boolean unrecoverableError = false;
+    private boolean autoRecoverableError = false;
+    private long updatedAt = 0;
+
+    /**
+     * DLE EOT replies have the fixed bits 0xx1xx10.
+     */
+    static boolean isRealTimeReply(int b) {
+        return (b & 0x93) == 0x12;
+    }
+
+    /**
+     * The first byte of an ASB block has the fixed bits 0xx1xx00.
+     */
+    static boolean isAsbHeader(int b) {
+        return (b & 0x93) == 0x10;
+    }
+
+    /**
+     * Applies the reply to DLE EOT n.
+     */
+    void applyRealTime(int n, int b) {
+        switch (n) {
+            case 1:
+                drawerOpen = (b & 0x04) != 0;
+                online = (b & 0x08) == 0;
+                waitingForRecovery = (b & 0x20) != 0;
+                break;
+            case 2:
+                coverOpen = (b & 0x04) != 0;
+                feedButtonPressed = (b & 0x08) != 0;
+                // bit 5: printing stopped by paper end; n = 4 adds the sensor reading
+                paperEnd = (b & 0x20) != 0;
+                break;
+            case 3:
+                cutterError = (b & 0x08) != 0;
+                unrecoverableError = (b & 0x20) != 0;
+                autoRecoverableError = (b & 0x40) != 0;
+                break;
+            case 4:
+                paperNearEnd = (b & 0x0c) != 0;
+                paperEnd = paperEnd || (b & 0x60) != 0;
+                break;
+            default:
+                return;
+        }
+        updatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Applies a 4-byte Automatic Status Back block.
+     */
+    void applyAsb(byte[] block, int offset) {
+        int first = block[offset] & 0xff;
+        int second = block[offset + 1] & 0xff;
+        int third = block[offset + 2] & 0xff;
+        drawerOpen = (first & 0x04) != 0;
+        online = (first & 0x08) == 0;
+        coverOpen = (first & 0x20) != 0;
+        feedButtonPressed = (first & 0x40) != 0;
+        cutterError = (second & 0x04) != 0;
+        unrecoverableError = (second & 0x08) != 0;
+        autoRecoverableError = (second & 0x20) != 0;
+        paperNearEnd = (third & 0x03) != 0;
+        paperEnd = (third & 0x0c) != 0;
+        updatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * True when the printer can take and print data right now.
+     */
+    public boolean isReady() {
+        return online && !coverOpen && !paperEnd && !cutterError && !unrecoverableError && !autoRecoverableError;
+    }
+
+    /**
+     * A short reason for the printer not being ready, or null when it is.
+     */
+    public String describeProblem() {
+        if (coverOpen) {
+            return "cover is open";
+        }
+        if (paperEnd) {
+            return "out of paper";
+        }
+        if (cutterError) {
+            return "auto cutter error";
+        }
+        if (unrecoverableError) {
+            return "unrecoverable error";
+        }
+        if (autoRecoverableError) {
+            return "print head overheated";
+        }
+        if (!online) {
+            return "printer is offline";
+        }
+        return null;
+    }
+
+    public boolean isOnline() {
+        return online;
+    }
+
+    public boolean isCoverOpen() {
+        return coverOpen;
+    }
+
+    public boolean isPaperEnd() {
+        return paperEnd;
+    }
+
+    public boolean isPaperNearEnd() {
+        return paperNearEnd;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public PrinterStatus copy() {
+        PrinterStatus copy = new PrinterStatus();
+        copy.online = online;
+        copy.waitingForRecovery = waitingForRecovery;
+        copy.drawerOpen = drawerOpen;
+        copy.coverOpen = coverOpen;
+        copy.feedButtonPressed = feedButtonPressed;
+        copy.paperEnd = paperEnd;
+        copy.paperNearEnd = paperNearEnd;
+        copy.cutterError = cutterError;
+        copy.unrecoverableError = unrecoverableError;
+        copy.autoRecoverableError = autoRecoverableError;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
+    public WritableMap toRNWritableMap() {
+        WritableMap map = Arguments.createMap();
+        map.putBoolean("ready", isReady());
+        map.putBoolean("online", online);
+        map.putBoolean("waitingForRecovery", waitingForRecovery);
+        map.putBoolean("drawerOpen", drawerOpen);
+        map.putBoolean("coverOpen", coverOpen);
+        map.putBoolean("feedButtonPressed", feedButtonPressed);
+        map.putBoolean("paperEnd", paperEnd);
+        map.putBoolean("paperNearEnd", paperNearEnd);
+        map.putBoolean("cutterError", cutterError);
+        map.putBoolean("unrecoverableError", unrecoverableError);
+        map.putBoolean("autoRecoverableError", autoRecoverableError);
+        map.putDouble("updatedAt", updatedAt);
+        String problem = describeProblem();
+        if (problem != null) {
+            map.putString("problem", problem);
+        }
+        return map;
+    }
+}
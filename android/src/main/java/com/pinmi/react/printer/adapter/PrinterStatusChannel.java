@@ -0,0 +1,193 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+
+/**
+ * Two-way status link to one printer connection.
+ *
+ * Real-time DLE EOT queries are answered as soon as the printer receives them,
+ * even with a full buffer, so they tell whether it is online and has paper.
+ * GS r is processed in order with the print data, so its reply means every
+ * byte sent before it has been printed. Automatic Status Back blocks that
+ * arrive in between are decoded too.
+ *
+ * A printer that never answers marks the channel unsupported, after which
+ * every call returns at once and jobs behave as write-only again. One that
+ * answers DLE EOT but ignores GS r keeps the status queries and only loses
+ * job confirmation.
+ */
+
+public class PrinterStatusChannel {
+
+    public final static int QUERY_TIMEOUT = 500;
+    public final static int COMPLETION_TIMEOUT = 30000;
+    public final static long MAX_PAUSE_MS = 60000;
+
+    private final static long PAUSE_POLL_INTERVAL = 250;
+    private final static byte DLE = 0x10;
+    private final static byte EOT = 0x04;
+    private final static byte[] QUERY_ALL = {
+            DLE, EOT, 1, DLE, EOT, 2, DLE, EOT, 3, DLE, EOT, 4
+    };
+    // GS r 1: transmit paper sensor status, queued behind the print data
+    private final static byte[] TRANSMIT_PAPER_STATUS = { 0x1D, 0x72, 1 };
+
+    private final PrinterOutput mOutput;
+    private final PrinterInput mInput;
+    private final PrinterStatus mStatus = new PrinterStatus();
+    private final byte[] mBuffer = new byte[64];
+    private final int mCompletionTimeout;
+    private boolean mSupported = true;
+    private boolean mCompletionSupported = true;
+    private boolean mCompletionConfirmed = false;
+    private int mAsbFill = 0;
+    private final byte[] mAsb = new byte[4];
+
+    public PrinterStatusChannel(PrinterOutput output, PrinterInput input) {
+        this(output, input, COMPLETION_TIMEOUT);
+    }
+
+    PrinterStatusChannel(PrinterOutput output, PrinterInput input, int completionTimeout) {
+        this.mOutput = output;
+        this.mInput = input;
+        this.mCompletionTimeout = completionTimeout;
+    }
+
+    public synchronized boolean isSupported() {
+        return mSupported;
+    }
+
+    /**
+     * The last known state, without asking the printer.
+     */
+    public synchronized PrinterStatus getLastStatus() {
+        return mStatus.copy();
+    }
+
+    /**
+     * Asks the printer for its current state with DLE EOT 1 to 4.
+     */
+    public synchronized PrinterStatus query() throws IOException {
+        if (!mSupported) {
+            throw new IOException("printer does not report its status");
+        }
+        mOutput.write(QUERY_ALL, 0, QUERY_ALL.length);
+        mOutput.flush();
+        for (int n = 1; n <= 4; n++) {
+            int reply = readReply(QUERY_TIMEOUT, true);
+            if (reply < 0) {
+                if (n == 1 && mStatus.getUpdatedAt() == 0) {
+                    // never answered on this connection
+                    mSupported = false;
+                }
+                throw new IOException("printer did not answer the status query");
+            }
+            mStatus.applyRealTime(n, reply);
+        }
+        return mStatus.copy();
+    }
+
+    /**
+     * Blocks while the printer is offline, out of paper or has its cover
+     * open, polling until it recovers. Throws once the pause exceeds
+     * {@link #MAX_PAUSE_MS}. Returns at once if status is unsupported.
+     */
+    public synchronized void awaitReady() throws IOException {
+        if (!mSupported) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + MAX_PAUSE_MS;
+        PrinterStatus status;
+        try {
+            status = query();
+        } catch (IOException e) {
+            if (!mSupported) {
+                return;
+            }
+            throw e;
+        }
+        while (!status.isReady()) {
+            if (System.currentTimeMillis() >= deadline) {
+                throw new IOException("printer not ready: " + status.describeProblem());
+            }
+            try {
+                Thread.sleep(PAUSE_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while waiting for the printer");
+            }
+            status = query();
+        }
+    }
+
+    /**
+     * Waits until everything sent so far has actually been printed.
+     *
+     * A timeout is only an error when a status query shows the printer
+     * stuck. A ready printer that has never answered GS r is taken to ignore
+     * it, and later jobs skip the wait.
+     */
+    public synchronized void awaitPrinted() throws IOException {
+        if (!mSupported || !mCompletionSupported) {
+            return;
+        }
+        mOutput.write(TRANSMIT_PAPER_STATUS, 0, TRANSMIT_PAPER_STATUS.length);
+        mOutput.flush();
+        if (readReply(mCompletionTimeout, false) >= 0) {
+            mCompletionConfirmed = true;
+            return;
+        }
+        // find out why it stalled, e.g. paper ran out mid-job
+        PrinterStatus status;
+        try {
+            status = query();
+        } catch (IOException e) {
+            throw new IOException("printer did not confirm the job");
+        }
+        if (!status.isReady()) {
+            throw new IOException("printer did not confirm the job: " + status.describeProblem());
+        }
+        if (!mCompletionConfirmed) {
+            mCompletionSupported = false;
+        }
+    }
+
+    /**
+     * Returns the next reply byte of the expected kind, or -1 on timeout.
+     * ASB blocks met on the way update the status and are skipped.
+     */
+    private int readReply(int timeoutMs, boolean realTime) throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (true) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = mInput.read(mBuffer, 0, 1, (int) remaining);
+            if (read <= 0) {
+                continue;
+            }
+            int b = mBuffer[0] & 0xff;
+            // the fixed bits of ASB headers, DLE EOT and GS r replies never collide
+            if (mAsbFill > 0 || PrinterStatus.isAsbHeader(b)) {
+                mAsb[mAsbFill++] = (byte) b;
+                if (mAsbFill == mAsb.length) {
+                    mStatus.applyAsb(mAsb, 0);
+                    mAsbFill = 0;
+                }
+                continue;
+            }
+            if (realTime ? PrinterStatus.isRealTimeReply(b) : isTransmitReply(b)) {
+                return b;
+            }
+        }
+    }
+
+    /**
+     * GS r 1 replies have the fixed bits 0xx0xxxx; bits 0 and 1 report the
+     * paper near-end sensor and may be set.
+     */
+    static boolean isTransmitReply(int b) {
+        return (b & 0x90) == 0x00;
+    }
+}
@@ -0,0 +1,114 @@
+package com.pinmi.react.printer.adapter;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * Per-print settings for QR codes, parsed from the options map sent by JS.
+ */
+
+public class QrCodeOptions {
+
+    public enum QrMode {
+        /** Printer draws the symbol itself from GS ( k, only the text is sent. */
+        NATIVE,
+        /** Symbol is rendered on the device and sent as a bit image. */
+        RASTER
+    }
+
+    public enum ErrorCorrection {
+        L, M, Q, H
+    }
+
+    public final static int DEFAULT_MODULE_SIZE = 6;
+    // what the legacy printQrCode printed: a 250 px zxing bitmap scaled down to 200
+    public final static int LEGACY_SYMBOL_SIZE = 200;
+
+    private QrMode mode = QrMode.NATIVE;
+    private int moduleSize = DEFAULT_MODULE_SIZE;
+    private ErrorCorrection errorCorrection = ErrorCorrection.M;
+    private int symbolSize = 0;
+
+    public static QrCodeOptions defaults() {
+        return new QrCodeOptions();
+    }
+
+    /**
+     * Settings of the legacy two-argument printQrCode: a raster symbol about
+     * as large as the one it printed before there were options.
+     */
+    public static QrCodeOptions legacy() {
+        return new QrCodeOptions()
+                .setMode(QrMode.RASTER)
+                .setErrorCorrection(ErrorCorrection.L)
+                .setSymbolSize(LEGACY_SYMBOL_SIZE);
+    }
+
+    public static QrCodeOptions fromReadableMap(ReadableMap map) {
+        QrCodeOptions options = new QrCodeOptions();
+        if (map == null) {
+            return options;
+        }
+        if (map.hasKey("mode") && !map.isNull("mode")) {
+            options.mode = "raster".equalsIgnoreCase(map.getString("mode")) ? QrMode.RASTER : QrMode.NATIVE;
+        }
+        if (map.hasKey("moduleSize") && !map.isNull("moduleSize")) {
+            options.moduleSize = Math.max(1, Math.min(16, map.getInt("moduleSize")));
+        }
+        if (map.hasKey("errorCorrection") && !map.isNull("errorCorrection")) {
+            options.errorCorrection = parseErrorCorrection(map.getString("errorCorrection"));
+        }
+        return options;
+    }
+
+    private static ErrorCorrection parseErrorCorrection(String value) {
+        for (ErrorCorrection level : ErrorCorrection.values()) {
+            if (level.name().equalsIgnoreCase(value)) {
+                return level;
+            }
+        }
+        return ErrorCorrection.M;
+    }
+
+    public QrMode getMode() {
+        return mode;
+    }
+
+    public QrCodeOptions setMode(QrMode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    /**
+     * Dots per QR module, 1 to 16.
+     */
+    public int getModuleSize() {
+        return moduleSize;
+    }
+
+    public QrCodeOptions setModuleSize(int moduleSize) {
+        this.moduleSize = moduleSize;
+        return this;
+    }
+
+    /**
+     * Width in dots a raster symbol is fitted to, overriding the module size.
+     * 0 prints at the module size.
+     */
+    public int getSymbolSize() {
+        return symbolSize;
+    }
+
+    public QrCodeOptions setSymbolSize(int symbolSize) {
+        this.symbolSize = symbolSize;
+        return this;
+    }
+
+    public ErrorCorrection getErrorCorrection() {
+        return errorCorrection;
+    }
+
+    public QrCodeOptions setErrorCorrection(ErrorCorrection errorCorrection) {
+        this.errorCorrection = errorCorrection;
+        return this;
+    }
+}
@@ -0,0 +1,99 @@
+package com.pinmi.react.printer.adapter;
+
+import android.util.LruCache;
+
+import com.google.zxing.WriterException;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * QR code job shared by the adapters: either the printer's own GS ( k
+ * symbol commands, a few dozen bytes, or a device-rendered bit image for
+ * printers that lack them.
+ */
+
+public class QrCodePrinter {
+
+    private final static byte GS = 0x1D;
+    private final static byte[] CENTER_ALIGN = { 0x1B, 0x61, 0x31 };
+    private final static byte LINE_FEED = 0x0A;
+    // largest payload GS ( k function 180 can store
+    private final static int MAX_NATIVE_DATA_LENGTH = 7089;
+    private final static int SYMBOL_CACHE_SIZE = 32;
+
+    // recently rasterized symbols, so reprints skip the QR encoder; created
+    // on the first raster job, so native jobs never touch android.util
+    private static class SymbolCache {
+        final static LruCache<String, QrSymbol> mSymbols = new LruCache<>(SYMBOL_CACHE_SIZE);
+    }
+
+    public static void print(String content, QrCodeOptions options, PrinterOutput output) throws IOException {
+        if (options.getMode() == QrCodeOptions.QrMode.RASTER) {
+            printRaster(content, options, output);
+        } else {
+            byte[] command = nativeQrCode(content, options);
+            output.write(command, 0, command.length);
+            output.flush();
+        }
+    }
+
+    /**
+     * Builds the GS ( k sequence (model 2) that makes the printer draw the symbol itself.
+     */
+    public static byte[] nativeQrCode(String content, QrCodeOptions options) throws IOException {
+        byte[] data = content.getBytes(Charset.forName("UTF-8"));
+        if (data.length == 0 || data.length > MAX_NATIVE_DATA_LENGTH) {
+            throw new IOException("QR code content length must be between 1 and " + MAX_NATIVE_DATA_LENGTH + " bytes");
+        }
+        int storeLength = data.length + 3;
+        byte[] command = new byte[CENTER_ALIGN.length + 9 + 8 + 8 + 8 + data.length + 8 + 1];
+        int i = 0;
+        System.arraycopy(CENTER_ALIGN, 0, command, i, CENTER_ALIGN.length);
+        i += CENTER_ALIGN.length;
+        // function 165: select model 2
+        i = put(command, i, GS, 0x28, 0x6B, 0x04, 0x00, 0x31, 0x41, 0x32, 0x00);
+        // function 167: module size in dots
+        i = put(command, i, GS, 0x28, 0x6B, 0x03, 0x00, 0x31, 0x43, options.getModuleSize());
+        // function 169: error correction level, 48 (L) to 51 (H)
+        i = put(command, i, GS, 0x28, 0x6B, 0x03, 0x00, 0x31, 0x45, 48 + options.getErrorCorrection().ordinal());
+        // function 180: store the data in the symbol storage area
+        i = put(command, i, GS, 0x28, 0x6B, storeLength & 0xff, (storeLength >> 8) & 0xff, 0x31, 0x50, 0x30);
+        System.arraycopy(data, 0, command, i, data.length);
+        i += data.length;
+        // function 181: print the stored symbol
+        i = put(command, i, GS, 0x28, 0x6B, 0x03, 0x00, 0x31, 0x51, 0x30);
+        command[i] = LINE_FEED;
+        return command;
+    }
+
+    private static void printRaster(String content, QrCodeOptions options, PrinterOutput output) throws IOException {
+        QrSymbol symbol = rasterSymbol(content, options);
+        new EscPosImageEncoder().encode(symbol.newRasterSource(), ImagePrintOptions.ImageMode.BIT_IMAGE, output);
+    }
+
+    private static QrSymbol rasterSymbol(String content, QrCodeOptions options) throws IOException {
+        String key = options.getModuleSize() + "|" + options.getSymbolSize() + "|" + options.getErrorCorrection()
+                + "|" + content;
+        QrSymbol symbol = SymbolCache.mSymbols.get(key);
+        if (symbol != null) {
+            return symbol;
+        }
+        try {
+            symbol = options.getSymbolSize() > 0
+                    ? QrSymbol.encodeToFit(content, options.getErrorCorrection(), options.getSymbolSize())
+                    : QrSymbol.encode(content, options.getErrorCorrection(), options.getModuleSize());
+        } catch (WriterException e) {
+            throw new IOException("failed to encode QR code: " + e.getMessage());
+        }
+        SymbolCache.mSymbols.put(key, symbol);
+        return symbol;
+    }
+
+    private static int put(byte[] buffer, int offset, int... values) {
+        for (int value : values) {
+            buffer[offset++] = (byte) value;
+        }
+        return offset;
+    }
+}
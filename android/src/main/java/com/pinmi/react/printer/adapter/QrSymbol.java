@@ -0,0 +1,115 @@
+package com.pinmi.react.printer.adapter;
+
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A QR symbol packed at 1bpp and scaled by an integer number of dots per
+ * module, kept as one packed row per module row. Immutable, so it can be
+ * cached and printed any number of times through newRasterSource().
+ */
+
+public class QrSymbol {
+
+    private final static int QUIET_ZONE_MODULES = 1;
+
+    private final int width;
+    private final int height;
+    private final int scale;
+    private final int bytesPerRow;
+    private final byte[] moduleRows;
+
+    private QrSymbol(int width, int height, int scale, byte[] moduleRows) {
+        this.width = width;
+        this.height = height;
+        this.scale = scale;
+        this.bytesPerRow = (width + 7) / 8;
+        this.moduleRows = moduleRows;
+    }
+
+    /**
+     * Encodes content at native module resolution (no intermediate bitmap) and
+     * scales each module to scale x scale dots directly in the packed domain.
+     */
+    public static QrSymbol encode(String content, QrCodeOptions.ErrorCorrection errorCorrection, int scale)
+            throws WriterException {
+        return scale(encodeMatrix(content, errorCorrection), scale);
+    }
+
+    /**
+     * Like encode(), with the largest module size that keeps the symbol,
+     * quiet zone included, within size dots.
+     */
+    public static QrSymbol encodeToFit(String content, QrCodeOptions.ErrorCorrection errorCorrection, int size)
+            throws WriterException {
+        ByteMatrix matrix = encodeMatrix(content, errorCorrection);
+        int modulesWide = matrix.getWidth() + QUIET_ZONE_MODULES * 2;
+        return scale(matrix, Math.max(1, size / modulesWide));
+    }
+
+    private static ByteMatrix encodeMatrix(String content, QrCodeOptions.ErrorCorrection errorCorrection)
+            throws WriterException {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        return Encoder.encode(content, ErrorCorrectionLevel.valueOf(errorCorrection.name()), hints).getMatrix();
+    }
+
+    private static QrSymbol scale(ByteMatrix matrix, int scale) {
+        int modulesWide = matrix.getWidth() + QUIET_ZONE_MODULES * 2;
+        int modulesHigh = matrix.getHeight() + QUIET_ZONE_MODULES * 2;
+        int width = modulesWide * scale;
+        int bytesPerRow = (width + 7) / 8;
+        byte[] moduleRows = new byte[modulesHigh * bytesPerRow];
+
+        for (int my = 0; my < matrix.getHeight(); my++) {
+            int rowOffset = (my + QUIET_ZONE_MODULES) * bytesPerRow;
+            for (int mx = 0; mx < matrix.getWidth(); mx++) {
+                if (matrix.get(mx, my) != 1) {
+                    continue;
+                }
+                int x = (mx + QUIET_ZONE_MODULES) * scale;
+                for (int end = x + scale; x < end; x++) {
+                    moduleRows[rowOffset + (x >> 3)] |= (byte) (0x80 >> (x & 7));
+                }
+            }
+        }
+        return new QrSymbol(width, modulesHigh * scale, scale, moduleRows);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public RasterSource newRasterSource() {
+        return new RasterSource() {
+            private int nextRow = 0;
+
+            @Override
+            public int getWidth() {
+                return width;
+            }
+
+            @Override
+            public int getHeight() {
+                return height;
+            }
+
+            @Override
+            public void readRow(byte[] buffer, int offset) {
+                // each module row repeats for scale printed rows
+                int moduleRow = nextRow++ / scale;
+                System.arraycopy(moduleRows, moduleRow * bytesPerRow, buffer, offset, bytesPerRow);
+            }
+        };
+    }
+}
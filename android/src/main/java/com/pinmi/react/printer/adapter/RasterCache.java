@@ -0,0 +1,122 @@
+package com.pinmi.react.printer.adapter;
+
+import android.content.Context;
+import android.util.LruCache;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Cache of fully encoded ESC/POS image commands, so a repeated logo can be
+ * sent without downloading, scaling or thresholding it again.
+ *
+ * Entries live in a size-bounded memory LRU and are written through to the
+ * app cache dir, where they survive restarts until evicted or cleared.
+ * Keys carry the version of the source bytes, so an image that changed on
+ * the server gets a new entry once ImageFetcher has revalidated it.
+ */
+
+public class RasterCache {
+    private static RasterCache mInstance;
+
+    private final static String CACHE_DIR = "rn-printer-raster";
+    private final static int MEMORY_CACHE_BYTES = 4 * 1024 * 1024;
+    private final static long DISK_CACHE_BYTES = 32L * 1024 * 1024;
+
+    private final LruCache<String, byte[]> mMemoryCache;
+    private RasterDiskCache mDiskCache;
+
+    private RasterCache() {
+        mMemoryCache = new LruCache<String, byte[]>(MEMORY_CACHE_BYTES) {
+            @Override
+            protected int sizeOf(String key, byte[] value) {
+                return value.length;
+            }
+        };
+    }
+
+    public static synchronized RasterCache getInstance() {
+        if (mInstance == null) {
+            mInstance = new RasterCache();
+        }
+        return mInstance;
+    }
+
+    /**
+     * Enables the disk tier; without it the cache is memory only.
+     */
+    public synchronized void init(Context context) {
+        if (mDiskCache != null || context == null) {
+            return;
+        }
+        File dir = new File(context.getCacheDir(), CACHE_DIR);
+        if (dir.isDirectory() || dir.mkdirs()) {
+            mDiskCache = new RasterDiskCache(dir, DISK_CACHE_BYTES);
+        }
+    }
+
+    public byte[] get(String key) {
+        byte[] data = mMemoryCache.get(key);
+        if (data != null) {
+            return data;
+        }
+        RasterDiskCache disk = diskCache();
+        if (disk == null) {
+            return null;
+        }
+        data = disk.get(key);
+        if (data != null) {
+            mMemoryCache.put(key, data);
+        }
+        return data;
+    }
+
+    public void put(String key, byte[] data) {
+        mMemoryCache.put(key, data);
+        RasterDiskCache disk = diskCache();
+        if (disk != null) {
+            disk.put(key, data);
+        }
+    }
+
+    public synchronized void clear() {
+        mMemoryCache.evictAll();
+        if (mDiskCache != null) {
+            mDiskCache.clear();
+        }
+    }
+
+    /**
+     * Builds a cache key from the image source, the version of its bytes
+     * (see {@link ImageFetcher#versionOf}) and everything that affects the
+     * encoded bytes.
+     */
+    public static String keyFor(String source, String version, ImagePrintOptions options) {
+        return source + "|" + version + "|" + options.getImageWidth() + "|" + options.getImageMode() + "|" + options.getDitherMode()
+                + "|" + options.getThreshold();
+    }
+
+    private synchronized RasterDiskCache diskCache() {
+        return mDiskCache;
+    }
+
+    static String sha1(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return toHex(digest.digest(value.getBytes(Charset.forName("UTF-8"))));
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+
+    static String toHex(byte[] hash) {
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
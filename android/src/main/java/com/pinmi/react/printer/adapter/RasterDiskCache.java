@@ -0,0 +1,148 @@
+package com.pinmi.react.printer.adapter;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Disk tier of the RasterCache: one file per key, trimmed to a byte budget
+ * by last use.
+ *
+ * Each put writes its own temp file and renames it into place, so two jobs
+ * caching the same image at once never share a half-written file. Trimming
+ * leaves temp files alone until they are old enough to be leftovers.
+ */
+
+class RasterDiskCache {
+
+    private final static String LOG_TAG = "RNPrinterRasterCache";
+    private final static String TEMP_SUFFIX = ".tmp";
+    private final static long STALE_TEMP_MS = 60 * 60 * 1000;
+
+    private final File mDir;
+    private final long mMaxBytes;
+
+    RasterDiskCache(File dir, long maxBytes) {
+        this.mDir = dir;
+        this.mMaxBytes = maxBytes;
+    }
+
+    byte[] get(String key) {
+        File file = fileFor(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            byte[] data = readFully(file);
+            file.setLastModified(System.currentTimeMillis());
+            return data;
+        } catch (IOException e) {
+            Log.w(LOG_TAG, "failed to read cached raster " + file, e);
+            file.delete();
+            return null;
+        }
+    }
+
+    void put(String key, byte[] data) {
+        File file = fileFor(key);
+        File temp = null;
+        try {
+            temp = File.createTempFile(file.getName(), TEMP_SUFFIX, mDir);
+            OutputStream out = new FileOutputStream(temp);
+            try {
+                out.write(data);
+            } finally {
+                out.close();
+            }
+            if (!temp.renameTo(file)) {
+                temp.delete();
+                return;
+            }
+            trim();
+        } catch (IOException e) {
+            Log.w(LOG_TAG, "failed to write cached raster " + file, e);
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    synchronized void clear() {
+        File[] files = mDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    private File fileFor(String key) {
+        return new File(mDir, RasterCache.sha1(key));
+    }
+
+    private synchronized void trim() {
+        File[] files = mDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long total = 0;
+        int entries = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                // still being written, unless a crash left it behind
+                if (now - file.lastModified() > STALE_TEMP_MS) {
+                    file.delete();
+                }
+                continue;
+            }
+            files[entries++] = file;
+            total += file.length();
+        }
+        if (total <= mMaxBytes) {
+            return;
+        }
+        files = Arrays.copyOf(files, entries);
+        // least recently used first
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        for (File file : files) {
+            if (total <= mMaxBytes) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private static byte[] readFully(File file) throws IOException {
+        byte[] data = new byte[(int) file.length()];
+        InputStream in = new FileInputStream(file);
+        try {
+            int read = 0;
+            while (read < data.length) {
+                int count = in.read(data, read, data.length - read);
+                if (count < 0) {
+                    throw new IOException("unexpected end of " + file);
+                }
+                read += count;
+            }
+        } finally {
+            in.close();
+        }
+        return data;
+    }
+}
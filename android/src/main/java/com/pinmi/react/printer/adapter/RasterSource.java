@@ -0,0 +1,18 @@
+package com.pinmi.react.printer.adapter;
+
+/**
+ * Sequential source of packed 1 bit per pixel rows, most significant bit
+ * first, a set bit meaning a printed (black) dot.
+ */
+
+public interface RasterSource {
+
+    public int getWidth();
+
+    public int getHeight();
+
+    /**
+     * Writes the next row, (getWidth() + 7) / 8 bytes, into buffer at offset.
+     */
+    public void readRow(byte[] buffer, int offset);
+}
@@ -0,0 +1,183 @@
+package com.pinmi.react.printer.adapter;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * Per-print settings for text printed as an image, parsed from the options
+ * map sent by JS. Keys follow the JS PrinterImageOptions where they overlap.
+ */
+
+public class RasterTextOptions {
+
+    public final static int PAPER_WIDTH_58MM = 384;
+    public final static int PAPER_WIDTH_80MM = 576;
+
+    private String fontFamily = "sans-serif";
+    private boolean bold = false;
+    private float fontSize = 24;
+    private int paperWidth = PAPER_WIDTH_80MM;
+    private int paddingX = 0;
+    private int lineSpacing = 4;
+    private int threshold = BitmapRasterSource.DEFAULT_THRESHOLD;
+    private ImagePrintOptions.ImageMode imageMode = ImagePrintOptions.ImageMode.BIT_IMAGE;
+    private boolean beep = false;
+    private boolean cut = false;
+    private boolean tailingLine = false;
+
+    public static RasterTextOptions defaults() {
+        return new RasterTextOptions();
+    }
+
+    public static RasterTextOptions fromReadableMap(ReadableMap map) {
+        RasterTextOptions options = new RasterTextOptions();
+        if (map == null) {
+            return options;
+        }
+        if (map.hasKey("fontFamily") && !map.isNull("fontFamily")) {
+            options.fontFamily = map.getString("fontFamily");
+        }
+        if (map.hasKey("bold") && !map.isNull("bold")) {
+            options.bold = map.getBoolean("bold");
+        }
+        if (map.hasKey("fontSize") && !map.isNull("fontSize")) {
+            options.fontSize = (float) Math.max(6, Math.min(200, map.getDouble("fontSize")));
+        }
+        if (map.hasKey("printerWidthType") && !map.isNull("printerWidthType")) {
+            options.paperWidth = map.getInt("printerWidthType") == 58 ? PAPER_WIDTH_58MM : PAPER_WIDTH_80MM;
+        }
+        if (map.hasKey("paperWidth") && !map.isNull("paperWidth")) {
+            options.paperWidth = Math.max(8, Math.min(2048, map.getInt("paperWidth")));
+        }
+        if (map.hasKey("paddingX") && !map.isNull("paddingX")) {
+            options.paddingX = Math.max(0, map.getInt("paddingX"));
+        }
+        if (map.hasKey("lineSpacing") && !map.isNull("lineSpacing")) {
+            options.lineSpacing = Math.max(0, map.getInt("lineSpacing"));
+        }
+        if (map.hasKey("threshold") && !map.isNull("threshold")) {
+            options.threshold = Math.max(1, Math.min(255, map.getInt("threshold")));
+        }
+        if (map.hasKey("imageMode") && !map.isNull("imageMode")) {
+            options.imageMode = "raster".equalsIgnoreCase(map.getString("imageMode"))
+                    ? ImagePrintOptions.ImageMode.RASTER : ImagePrintOptions.ImageMode.BIT_IMAGE;
+        }
+        if (map.hasKey("beep") && !map.isNull("beep")) {
+            options.beep = map.getBoolean("beep");
+        }
+        if (map.hasKey("cut") && !map.isNull("cut")) {
+            options.cut = map.getBoolean("cut");
+        }
+        if (map.hasKey("tailingLine") && !map.isNull("tailingLine")) {
+            options.tailingLine = map.getBoolean("tailingLine");
+        }
+        return options;
+    }
+
+    public String getFontFamily() {
+        return fontFamily;
+    }
+
+    public RasterTextOptions setFontFamily(String fontFamily) {
+        this.fontFamily = fontFamily;
+        return this;
+    }
+
+    public boolean isBold() {
+        return bold;
+    }
+
+    public RasterTextOptions setBold(boolean bold) {
+        this.bold = bold;
+        return this;
+    }
+
+    /**
+     * Text size in dots for normal-size lines.
+     */
+    public float getFontSize() {
+        return fontSize;
+    }
+
+    public RasterTextOptions setFontSize(float fontSize) {
+        this.fontSize = fontSize;
+        return this;
+    }
+
+    /**
+     * Printable width in dots, 384 for 58 mm and 576 for 80 mm paper.
+     */
+    public int getPaperWidth() {
+        return paperWidth;
+    }
+
+    public RasterTextOptions setPaperWidth(int paperWidth) {
+        this.paperWidth = paperWidth;
+        return this;
+    }
+
+    public int getPaddingX() {
+        return paddingX;
+    }
+
+    public RasterTextOptions setPaddingX(int paddingX) {
+        this.paddingX = paddingX;
+        return this;
+    }
+
+    /**
+     * Blank dots between lines.
+     */
+    public int getLineSpacing() {
+        return lineSpacing;
+    }
+
+    public RasterTextOptions setLineSpacing(int lineSpacing) {
+        this.lineSpacing = lineSpacing;
+        return this;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public RasterTextOptions setThreshold(int threshold) {
+        this.threshold = threshold;
+        return this;
+    }
+
+    public ImagePrintOptions.ImageMode getImageMode() {
+        return imageMode;
+    }
+
+    public RasterTextOptions setImageMode(ImagePrintOptions.ImageMode imageMode) {
+        this.imageMode = imageMode;
+        return this;
+    }
+
+    public boolean isBeep() {
+        return beep;
+    }
+
+    public RasterTextOptions setBeep(boolean beep) {
+        this.beep = beep;
+        return this;
+    }
+
+    public boolean isCut() {
+        return cut;
+    }
+
+    public RasterTextOptions setCut(boolean cut) {
+        this.cut = cut;
+        return this;
+    }
+
+    public boolean isTailingLine() {
+        return tailingLine;
+    }
+
+    public RasterTextOptions setTailingLine(boolean tailingLine) {
+        this.tailingLine = tailingLine;
+        return this;
+    }
+}
@@ -0,0 +1,236 @@
+package com.pinmi.react.printer.adapter;
+
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.TextDirectionHeuristics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Text job printed as an image, for receipts in scripts the printer cannot
+ * shape itself. Takes the same markup as printText, applied per line: a
+ * line's alignment and size come from the tags it contains.
+ *
+ * Each line is a cached GlyphAtlas run; the lines are composed row by row
+ * into the stripe encoder, so no receipt-sized bitmap is ever drawn.
+ */
+
+public class RasterTextPrinter {
+
+    enum Align { START, LEFT, CENTER, RIGHT }
+
+    enum Size {
+        NORMAL(1f, 1f), DOUBLE_HEIGHT(2f, 0.5f), DOUBLE_WIDTH(1f, 2f), DOUBLE(2f, 1f);
+
+        final float scale;
+        final float scaleX;
+
+        Size(float scale, float scaleX) {
+            this.scale = scale;
+            this.scaleX = scaleX;
+        }
+    }
+
+    // the printText tags, in the same matching order
+    private final static String[] TAGS = {
+            "<M>", "</M>", "<B>", "</B>", "<D>", "</D>", "<C>", "</C>",
+            "<CM>", "</CM>", "<CD>", "</CD>", "<CB>", "</CB>", "<L>", "</L>", "<R>", "</R>"
+    };
+    private final static Size[] TAG_SIZES = {
+            Size.DOUBLE_HEIGHT, null, Size.DOUBLE, null, Size.DOUBLE_WIDTH, null, null, null,
+            Size.DOUBLE_HEIGHT, null, Size.DOUBLE_WIDTH, null, Size.DOUBLE, null, null, null, null, null
+    };
+    private final static Align[] TAG_ALIGNS = {
+            null, null, null, null, null, null, Align.CENTER, null,
+            Align.CENTER, null, Align.CENTER, null, Align.CENTER, null, Align.LEFT, null, Align.RIGHT, null
+    };
+
+    /**
+     * One line of markup with its tags applied.
+     */
+    static class MarkedLine {
+        final String text;
+        final Size size;
+        final Align align;
+
+        MarkedLine(String text, Size size, Align align) {
+            this.text = text;
+            this.size = size;
+            this.align = align;
+        }
+    }
+
+    public static void print(String text, RasterTextOptions options, PrinterOutput output) throws IOException {
+        if (text == null) {
+            throw new IOException("text is empty");
+        }
+        String family = options.getFontFamily();
+        Typeface typeface = Typeface.create(family, options.isBold() ? Typeface.BOLD : Typeface.NORMAL);
+        String fontKey = family + (options.isBold() ? ":bold" : "");
+        int paperWidth = options.getPaperWidth();
+        int padding = Math.min(options.getPaddingX(), (paperWidth - 8) / 2);
+        int maxWidth = paperWidth - 2 * padding;
+
+        GlyphAtlas atlas = GlyphAtlas.getInstance();
+        ComposedRaster raster = new ComposedRaster(paperWidth);
+        String[] lines = text.split("\n", -1);
+        // a trailing newline ends the last line rather than starting an empty one
+        int count = lines.length > 1 && lines[lines.length - 1].isEmpty() ? lines.length - 1 : lines.length;
+        for (int i = 0; i < count; i++) {
+            MarkedLine line = parseLine(lines[i]);
+            Size size = line.size;
+            Align align = line.align;
+            String value = line.text.length() > 0 ? line.text : " ";
+            boolean rtl = TextDirectionHeuristics.FIRSTSTRONG_LTR.isRtl(value, 0, value.length());
+            boolean right = align == Align.RIGHT || (align == Align.START && rtl);
+
+            Layout.Alignment wrapAlignment;
+            if (align == Align.CENTER) {
+                wrapAlignment = Layout.Alignment.ALIGN_CENTER;
+            } else {
+                // NORMAL follows the paragraph direction
+                wrapAlignment = right == rtl ? Layout.Alignment.ALIGN_NORMAL : Layout.Alignment.ALIGN_OPPOSITE;
+            }
+            GlyphAtlas.GlyphRun run = atlas.get(value, typeface, fontKey, options.getFontSize() * size.scale,
+                    size.scaleX, maxWidth, wrapAlignment, options.getThreshold());
+
+            int x = padding;
+            if (align == Align.CENTER) {
+                x += (maxWidth - run.getWidth()) / 2;
+            } else if (right) {
+                x += maxWidth - run.getWidth();
+            }
+            raster.add(run, x);
+            raster.addGap(options.getLineSpacing());
+        }
+
+        encode(raster, options, output);
+    }
+
+    /**
+     * Strips the tags from a line; the last size and alignment tag in it win.
+     */
+    static MarkedLine parseLine(String line) {
+        StringBuilder content = new StringBuilder(line.length());
+        Size size = Size.NORMAL;
+        Align align = Align.START;
+        for (int c = 0; c < line.length(); c++) {
+            char ch = line.charAt(c);
+            if (ch != '<') {
+                content.append(ch);
+                continue;
+            }
+            // a '<' that starts no tag is dropped, as in printText
+            for (int t = 0; t < TAGS.length; t++) {
+                if (line.startsWith(TAGS[t], c)) {
+                    size = TAG_SIZES[t] != null ? TAG_SIZES[t] : size;
+                    align = TAG_ALIGNS[t] != null ? TAG_ALIGNS[t] : align;
+                    c += TAGS[t].length() - 1;
+                }
+            }
+        }
+        return new MarkedLine(content.toString(), size, align);
+    }
+
+    /**
+     * Encodes the composed lines and the receipt trailer.
+     */
+    static void encode(ComposedRaster raster, RasterTextOptions options, PrinterOutput output) throws IOException {
+        // encode the next stripe while the previous one is on the wire
+        PipelinedPrinterOutput pipeline = PipelinedPrinterOutput.obtain(output);
+        try {
+            new EscPosImageEncoder().encode(raster, options.getImageMode(), pipeline);
+            TextPrinter.writeTrailer(options.isTailingLine(), options.isCut(), options.isBeep(), pipeline);
+            pipeline.flush();
+        } finally {
+            pipeline.close();
+        }
+    }
+
+    /**
+     * Lines of glyph runs stacked top to bottom on a paper-wide canvas; the
+     * runs of one line sit side by side.
+     */
+    static class ComposedRaster implements RasterSource {
+
+        private final int width;
+        private final int bytesPerRow;
+        // the runs of each line, or null for a gap
+        private final List<GlyphAtlas.GlyphRun[]> lines = new ArrayList<>();
+        private final List<int[]> positions = new ArrayList<>();
+        private final List<Integer> heights = new ArrayList<>();
+        private int height = 0;
+        private int entry = 0;
+        private int entryRow = 0;
+
+        ComposedRaster(int width) {
+            this.width = width;
+            this.bytesPerRow = (width + 7) / 8;
+        }
+
+        void add(GlyphAtlas.GlyphRun run, int x) {
+            addLine(new GlyphAtlas.GlyphRun[] { run }, new int[] { x });
+        }
+
+        /**
+         * Adds runs side by side, run i at xs[i]; the line is as tall as its tallest run.
+         */
+        void addLine(GlyphAtlas.GlyphRun[] runs, int[] xs) {
+            int lineHeight = 0;
+            int[] clamped = new int[xs.length];
+            for (int i = 0; i < runs.length; i++) {
+                lineHeight = Math.max(lineHeight, runs[i].getHeight());
+                clamped[i] = Math.max(0, xs[i]);
+            }
+            if (lineHeight > 0) {
+                lines.add(runs);
+                positions.add(clamped);
+                heights.add(lineHeight);
+                height += lineHeight;
+            }
+        }
+
+        void addGap(int rows) {
+            if (rows > 0) {
+                lines.add(null);
+                positions.add(null);
+                heights.add(rows);
+                height += rows;
+            }
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public void readRow(byte[] buffer, int offset) {
+            Arrays.fill(buffer, offset, offset + bytesPerRow, (byte) 0);
+            if (entry >= lines.size()) {
+                return;
+            }
+            GlyphAtlas.GlyphRun[] runs = lines.get(entry);
+            if (runs != null) {
+                int[] xs = positions.get(entry);
+                for (int i = 0; i < runs.length; i++) {
+                    if (entryRow < runs[i].getHeight()) {
+                        runs[i].blitRow(entryRow, buffer, offset, bytesPerRow, xs[i]);
+                    }
+                }
+            }
+            if (++entryRow >= heights.get(entry)) {
+                entry++;
+                entryRow = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.pinmi.react.printer.adapter;
+
+import java.util.Arrays;
+
+/**
+ * Turns rows of 8-bit luminance into packed 1bpp rows, one row at a time.
+ *
+ * Error diffusion only keeps the error carried into the next one or two rows,
+ * so images can be streamed band by band without a full-size working copy.
+ */
+
+public class RowDitherer {
+
+    public enum DitherMode {
+        THRESHOLD,
+        FLOYD_STEINBERG,
+        ATKINSON,
+        BAYER
+    }
+
+    private final static int[] BAYER_4X4 = {
+            0, 8, 2, 10,
+            12, 4, 14, 6,
+            3, 11, 1, 9,
+            15, 7, 13, 5
+    };
+
+    // rows carry two columns of padding on each side so kernels never go out of range
+    private final static int PADDING = 2;
+
+    private final DitherMode mode;
+    private final int width;
+    private final int threshold;
+    private int[] errorCurrent;
+    private int[] errorNext;
+    private int[] errorAfterNext;
+    private int row = 0;
+
+    public RowDitherer(DitherMode mode, int width, int threshold) {
+        this.mode = mode;
+        this.width = width;
+        this.threshold = threshold;
+        if (mode == DitherMode.FLOYD_STEINBERG || mode == DitherMode.ATKINSON) {
+            errorCurrent = new int[width + PADDING * 2];
+            errorNext = new int[width + PADDING * 2];
+        }
+        if (mode == DitherMode.ATKINSON) {
+            errorAfterNext = new int[width + PADDING * 2];
+        }
+    }
+
+    /**
+     * Dithers one row of luminance values (0 black .. 255 white) into buffer at offset.
+     */
+    public void ditherRow(int[] luminance, byte[] buffer, int offset) {
+        switch (mode) {
+            case FLOYD_STEINBERG:
+                floydSteinberg(luminance);
+                break;
+            case ATKINSON:
+                atkinson(luminance);
+                break;
+            case BAYER:
+                bayer(luminance);
+                break;
+            default:
+                break;
+        }
+        pack(luminance, buffer, offset);
+        row++;
+    }
+
+    // after the mode specific pass, luminance holds 0 for a printed dot and 255 otherwise
+    private void pack(int[] luminance, byte[] buffer, int offset) {
+        int packed = 0;
+        int bit = 7;
+        for (int x = 0; x < width; x++) {
+            if (luminance[x] < threshold) {
+                packed |= 1 << bit;
+            }
+            if (--bit < 0) {
+                buffer[offset++] = (byte) packed;
+                packed = 0;
+                bit = 7;
+            }
+        }
+        if (bit != 7) {
+            buffer[offset] = (byte) packed;
+        }
+    }
+
+    private void floydSteinberg(int[] luminance) {
+        int[] current = errorCurrent;
+        int[] next = errorNext;
+        for (int x = 0; x < width; x++) {
+            int i = x + PADDING;
+            int value = luminance[x] + (current[i] >> 4);
+            int output = value < threshold ? 0 : 255;
+            int error = value - output;
+            current[i + 1] += error * 7;
+            next[i - 1] += error * 3;
+            next[i] += error * 5;
+            next[i + 1] += error;
+            luminance[x] = output;
+        }
+        Arrays.fill(current, 0);
+        errorCurrent = next;
+        errorNext = current;
+    }
+
+    private void atkinson(int[] luminance) {
+        int[] current = errorCurrent;
+        int[] next = errorNext;
+        int[] afterNext = errorAfterNext;
+        for (int x = 0; x < width; x++) {
+            int i = x + PADDING;
+            int value = luminance[x] + (current[i] >> 3);
+            int output = value < threshold ? 0 : 255;
+            // Atkinson only spreads 6/8 of the error, which keeps highlights clean
+            int error = value - output;
+            current[i + 1] += error;
+            current[i + 2] += error;
+            next[i - 1] += error;
+            next[i] += error;
+            next[i + 1] += error;
+            afterNext[i] += error;
+            luminance[x] = output;
+        }
+        Arrays.fill(current, 0);
+        errorCurrent = next;
+        errorNext = afterNext;
+        errorAfterNext = current;
+    }
+
+    private void bayer(int[] luminance) {
+        int base = (row & 3) * 4;
+        for (int x = 0; x < width; x++) {
+            // spread the 16 matrix levels around the configured threshold
+            int level = (BAYER_4X4[base + (x & 3)] * 16 + 8) - 128 + threshold;
+            luminance[x] = luminance[x] < level ? 0 : 255;
+        }
+    }
+}
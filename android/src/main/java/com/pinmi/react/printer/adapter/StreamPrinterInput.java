@@ -0,0 +1,46 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * PrinterInput over a plain InputStream (TCP socket or RFCOMM socket).
+ *
+ * RFCOMM streams have no read timeout, so this polls available() instead of
+ * blocking in read().
+ */
+
+public class StreamPrinterInput implements PrinterInput {
+
+    private final static int POLL_INTERVAL = 10;
+
+    private InputStream inputStream;
+
+    public StreamPrinterInput(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length, int timeoutMs) throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (true) {
+            int available = this.inputStream.available();
+            if (available > 0) {
+                int read = this.inputStream.read(buffer, offset, Math.min(available, length));
+                if (read < 0) {
+                    throw new IOException("printer closed the connection");
+                }
+                return read;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return 0;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * PrinterOutput over a plain OutputStream (TCP socket or RFCOMM socket).
+ */
+
+public class StreamPrinterOutput implements PrinterOutput {
+
+    private OutputStream outputStream;
+
+    public StreamPrinterOutput(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        this.outputStream.write(data, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.outputStream.flush();
+    }
+}
@@ -0,0 +1,189 @@
+package com.pinmi.react.printer.adapter;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-print settings for table jobs, parsed from the options map sent by JS:
+ * the column definitions, the line width, and the printText options used to
+ * encode the laid-out lines.
+ */
+
+public class TableOptions {
+
+    public enum Align {
+        LEFT, CENTER, RIGHT
+    }
+
+    public enum Wrap {
+        /** Break between words, and inside a word only when it alone is too wide. */
+        WORD,
+        /** Break at the column edge wherever it falls. */
+        CHAR,
+        /** Keep the first line and cut it at the column edge. */
+        CLIP
+    }
+
+    public static class Column {
+        private int width = 0;
+        private Align align = Align.LEFT;
+        private Wrap wrap = Wrap.WORD;
+
+        public static Column fromReadableMap(ReadableMap map) {
+            Column column = new Column();
+            if (map == null) {
+                return column;
+            }
+            if (map.hasKey("width") && !map.isNull("width")) {
+                column.width = Math.max(0, map.getInt("width"));
+            }
+            if (map.hasKey("align") && !map.isNull("align")) {
+                column.align = parseAlign(map.getString("align"));
+            }
+            if (map.hasKey("wrap") && !map.isNull("wrap")) {
+                column.wrap = parseWrap(map.getString("wrap"));
+            }
+            return column;
+        }
+
+        /**
+         * Width in character cells; 0 shares the space the other columns leave.
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        public Column setWidth(int width) {
+            this.width = width;
+            return this;
+        }
+
+        public Align getAlign() {
+            return align;
+        }
+
+        public Column setAlign(Align align) {
+            this.align = align;
+            return this;
+        }
+
+        public Wrap getWrap() {
+            return wrap;
+        }
+
+        public Column setWrap(Wrap wrap) {
+            this.wrap = wrap;
+            return this;
+        }
+    }
+
+    private List<Column> columns = new ArrayList<>();
+    private int lineWidth = 0;
+    private int printerWidthType = 80;
+    private int columnSpacing = 1;
+    private TextPrintOptions textOptions = TextPrintOptions.defaults();
+
+    public static TableOptions defaults() {
+        return new TableOptions();
+    }
+
+    public static TableOptions fromReadableMap(ReadableMap map) {
+        TableOptions options = new TableOptions();
+        if (map == null) {
+            return options;
+        }
+        if (map.hasKey("columns") && !map.isNull("columns")) {
+            ReadableArray columns = map.getArray("columns");
+            for (int i = 0; i < columns.size(); i++) {
+                options.columns.add(Column.fromReadableMap(columns.getMap(i)));
+            }
+        }
+        if (map.hasKey("lineWidth") && !map.isNull("lineWidth")) {
+            options.lineWidth = Math.max(0, map.getInt("lineWidth"));
+        }
+        if (map.hasKey("printerWidthType") && !map.isNull("printerWidthType")) {
+            options.printerWidthType = map.getInt("printerWidthType") == 58 ? 58 : 80;
+        }
+        if (map.hasKey("columnSpacing") && !map.isNull("columnSpacing")) {
+            options.columnSpacing = Math.max(0, map.getInt("columnSpacing"));
+        }
+        options.textOptions = TextPrintOptions.fromReadableMap(map);
+        return options;
+    }
+
+    private static Align parseAlign(String value) {
+        for (Align align : Align.values()) {
+            if (align.name().equalsIgnoreCase(value)) {
+                return align;
+            }
+        }
+        return Align.LEFT;
+    }
+
+    private static Wrap parseWrap(String value) {
+        if ("char".equalsIgnoreCase(value)) {
+            return Wrap.CHAR;
+        }
+        if ("clip".equalsIgnoreCase(value) || "none".equalsIgnoreCase(value)) {
+            return Wrap.CLIP;
+        }
+        return Wrap.WORD;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public TableOptions setColumns(List<Column> columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    /**
+     * Characters per line: the explicit lineWidth, else what the paper holds
+     * in the selected font (48 or 64 on 80 mm, 32 or 42 on 58 mm).
+     */
+    public int getLineWidth() {
+        if (lineWidth > 0) {
+            return lineWidth;
+        }
+        boolean fontB = textOptions.isFontB();
+        if (printerWidthType == 58) {
+            return fontB ? 42 : 32;
+        }
+        return fontB ? 64 : 48;
+    }
+
+    public TableOptions setLineWidth(int lineWidth) {
+        this.lineWidth = lineWidth;
+        return this;
+    }
+
+    /**
+     * Printable width in dots, for tables printed as an image.
+     */
+    public int getPaperWidth() {
+        return printerWidthType == 58 ? RasterTextOptions.PAPER_WIDTH_58MM : RasterTextOptions.PAPER_WIDTH_80MM;
+    }
+
+    public int getColumnSpacing() {
+        return columnSpacing;
+    }
+
+    public TableOptions setColumnSpacing(int columnSpacing) {
+        this.columnSpacing = columnSpacing;
+        return this;
+    }
+
+    public TextPrintOptions getTextOptions() {
+        return textOptions;
+    }
+
+    public TableOptions setTextOptions(TextPrintOptions textOptions) {
+        this.textOptions = textOptions;
+        return this;
+    }
+}
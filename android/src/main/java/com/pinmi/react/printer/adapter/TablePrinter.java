@@ -0,0 +1,403 @@
+package com.pinmi.react.printer.adapter;
+
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.TextDirectionHeuristics;
+
+import com.facebook.react.bridge.ReadableArray;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Table job shared by the adapters: lays rows of cells out in fixed or
+ * shared-width columns, measured in printer character cells so full-width
+ * characters and combining marks keep the columns aligned, then prints the
+ * lines as plain text in the printer's font.
+ *
+ * Printer fonts cannot shape right-to-left scripts, so a table with Hebrew
+ * or Arabic cells is printed as an image instead: each cell line is drawn
+ * like printRasterText and placed at its column's position on the paper.
+ */
+
+public class TablePrinter {
+
+    private final static String FONT_FAMILY = "sans-serif";
+
+    public static void print(List<List<String>> rows, TableOptions options, PrinterOutput output) throws IOException {
+        if (rows == null || rows.isEmpty()) {
+            throw new IOException("table has no rows");
+        }
+        if (hasRightToLeft(rows)) {
+            printRaster(rows, options, output);
+            return;
+        }
+        TextPrinter.printPlain(layout(rows, options), options.getTextOptions(), output);
+    }
+
+    /**
+     * The table as text, one printed line per '\n'.
+     */
+    public static String layout(List<List<String>> rows, TableOptions options) {
+        Grid grid = new Grid(rows, options);
+        if (grid.columnCount == 0) {
+            return "";
+        }
+        int lineWidth = options.getLineWidth();
+        TextMetrics metrics = TextMetrics.getInstance();
+        StringBuilder text = new StringBuilder(rows.size() * (lineWidth + 1));
+        for (List<String> row : rows) {
+            List<List<String>> cells = grid.wrap(row, metrics);
+            int height = Grid.height(cells);
+            for (int r = 0; r < height; r++) {
+                int lineStart = text.length();
+                for (int c = 0; c < grid.columnCount; c++) {
+                    if (c > 0) {
+                        pad(text, grid.spacing);
+                    }
+                    String segment = Grid.segment(cells, c, r);
+                    int free = Math.max(0, grid.widths[c] - TextMetrics.measure(segment, 0, segment.length()));
+                    switch (grid.columns.get(c).getAlign()) {
+                        case RIGHT:
+                            pad(text, free);
+                            text.append(segment);
+                            break;
+                        case CENTER:
+                            pad(text, free / 2);
+                            text.append(segment);
+                            pad(text, free - free / 2);
+                            break;
+                        default:
+                            text.append(segment);
+                            pad(text, free);
+                            break;
+                    }
+                }
+                // trailing blanks only cost bytes on the wire
+                int end = text.length();
+                while (end > lineStart && text.charAt(end - 1) == ' ') {
+                    end--;
+                }
+                text.setLength(end);
+                text.append('\n');
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Whether any cell holds Hebrew, Arabic or other right-to-left letters.
+     */
+    static boolean hasRightToLeft(List<List<String>> rows) {
+        for (List<String> row : rows) {
+            for (String value : row) {
+                if (value == null) {
+                    continue;
+                }
+                for (int i = 0; i < value.length(); ) {
+                    int codePoint = value.codePointAt(i);
+                    byte direction = Character.getDirectionality(codePoint);
+                    if (direction == Character.DIRECTIONALITY_RIGHT_TO_LEFT
+                            || direction == Character.DIRECTIONALITY_RIGHT_TO_LEFT_ARABIC) {
+                        return true;
+                    }
+                    i += Character.charCount(codePoint);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prints the same layout as an image: a character cell is the paper
+     * width divided by the line width, and each cell line is one glyph run
+     * aligned within its column.
+     */
+    private static void printRaster(List<List<String>> rows, TableOptions options, PrinterOutput output) throws IOException {
+        TextPrintOptions textOptions = options.getTextOptions();
+        RasterTextOptions rasterOptions = RasterTextOptions.defaults()
+                .setPaperWidth(options.getPaperWidth())
+                .setFontSize(textOptions.isFontB() ? 17 : 24)
+                .setTailingLine(textOptions.isTailingLine())
+                .setCut(textOptions.isCut())
+                .setBeep(textOptions.isBeep());
+        Grid grid = new Grid(rows, options);
+        RasterTextPrinter.ComposedRaster raster = new RasterTextPrinter.ComposedRaster(rasterOptions.getPaperWidth());
+        if (grid.columnCount == 0) {
+            RasterTextPrinter.encode(raster, rasterOptions, output);
+            return;
+        }
+
+        float cell = rasterOptions.getPaperWidth() / (float) options.getLineWidth();
+        int[] starts = new int[grid.columnCount];
+        int[] spans = new int[grid.columnCount];
+        int offset = 0;
+        for (int c = 0; c < grid.columnCount; c++) {
+            starts[c] = Math.round(offset * cell);
+            spans[c] = Math.max(1, Math.round((offset + grid.widths[c]) * cell) - starts[c]);
+            offset += grid.widths[c] + grid.spacing;
+        }
+
+        Typeface typeface = Typeface.create(FONT_FAMILY, Typeface.NORMAL);
+        GlyphAtlas atlas = GlyphAtlas.getInstance();
+        TextMetrics metrics = TextMetrics.getInstance();
+        for (List<String> row : rows) {
+            List<List<String>> cells = grid.wrap(row, metrics);
+            int height = Grid.height(cells);
+            for (int r = 0; r < height; r++) {
+                List<GlyphAtlas.GlyphRun> runs = new ArrayList<>(grid.columnCount);
+                List<Integer> xs = new ArrayList<>(grid.columnCount);
+                for (int c = 0; c < grid.columnCount; c++) {
+                    String segment = Grid.segment(cells, c, r);
+                    if (segment.trim().isEmpty()) {
+                        continue;
+                    }
+                    TableOptions.Align align = grid.columns.get(c).getAlign();
+                    boolean rtl = TextDirectionHeuristics.FIRSTSTRONG_LTR.isRtl(segment, 0, segment.length());
+                    Layout.Alignment wrapAlignment;
+                    if (align == TableOptions.Align.CENTER) {
+                        wrapAlignment = Layout.Alignment.ALIGN_CENTER;
+                    } else {
+                        // NORMAL follows the paragraph direction
+                        wrapAlignment = (align == TableOptions.Align.RIGHT) == rtl
+                                ? Layout.Alignment.ALIGN_NORMAL : Layout.Alignment.ALIGN_OPPOSITE;
+                    }
+                    GlyphAtlas.GlyphRun run = atlas.get(segment, typeface, FONT_FAMILY, rasterOptions.getFontSize(),
+                            1f, spans[c], wrapAlignment, rasterOptions.getThreshold());
+                    int free = Math.max(0, spans[c] - run.getWidth());
+                    int x = starts[c];
+                    if (align == TableOptions.Align.RIGHT) {
+                        x += free;
+                    } else if (align == TableOptions.Align.CENTER) {
+                        x += free / 2;
+                    }
+                    runs.add(run);
+                    xs.add(x);
+                }
+                if (runs.isEmpty()) {
+                    raster.addGap(Math.round(rasterOptions.getFontSize()));
+                } else {
+                    int[] positions = new int[xs.size()];
+                    for (int i = 0; i < positions.length; i++) {
+                        positions[i] = xs.get(i);
+                    }
+                    raster.addLine(runs.toArray(new GlyphAtlas.GlyphRun[runs.size()]), positions);
+                }
+                raster.addGap(rasterOptions.getLineSpacing());
+            }
+        }
+        RasterTextPrinter.encode(raster, rasterOptions, output);
+    }
+
+    /**
+     * The columns of a table and their widths in character cells.
+     */
+    private static class Grid {
+        final int columnCount;
+        final List<TableOptions.Column> columns;
+        final int spacing;
+        final int[] widths;
+
+        Grid(List<List<String>> rows, TableOptions options) {
+            int count = options.getColumns().size();
+            for (List<String> row : rows) {
+                count = Math.max(count, row.size());
+            }
+            columnCount = count;
+            columns = new ArrayList<>(options.getColumns());
+            while (columns.size() < count) {
+                columns.add(new TableOptions.Column());
+            }
+            int lineWidth = options.getLineWidth();
+            int gap = options.getColumnSpacing();
+            if (count > 0 && lineWidth - gap * (count - 1) < count) {
+                gap = 0;
+            }
+            spacing = gap;
+            widths = count > 0 ? columnWidths(columns, lineWidth - spacing * (count - 1)) : new int[0];
+        }
+
+        /**
+         * The lines of each cell of the row, wrapped to its column.
+         */
+        List<List<String>> wrap(List<String> row, TextMetrics metrics) {
+            List<List<String>> cells = new ArrayList<>(columnCount);
+            for (int c = 0; c < columnCount; c++) {
+                String value = c < row.size() && row.get(c) != null ? row.get(c) : "";
+                cells.add(TablePrinter.wrap(value, widths[c], columns.get(c).getWrap(), metrics));
+            }
+            return cells;
+        }
+
+        static int height(List<List<String>> cells) {
+            int height = 1;
+            for (List<String> lines : cells) {
+                height = Math.max(height, lines.size());
+            }
+            return height;
+        }
+
+        static String segment(List<List<String>> cells, int column, int line) {
+            List<String> lines = cells.get(column);
+            return line < lines.size() ? lines.get(line) : "";
+        }
+    }
+
+    /**
+     * Fixed widths are kept, shrunk in proportion if they do not fit; columns
+     * without a width share what is left.
+     */
+    static int[] columnWidths(List<TableOptions.Column> columns, int available) {
+        int[] widths = new int[columns.size()];
+        int fixed = 0;
+        int flexible = 0;
+        for (TableOptions.Column column : columns) {
+            if (column.getWidth() > 0) {
+                fixed += column.getWidth();
+            } else {
+                flexible++;
+            }
+        }
+        int room = Math.max(0, available - flexible);
+        int used = 0;
+        for (int i = 0; i < widths.length; i++) {
+            int width = columns.get(i).getWidth();
+            if (width > 0) {
+                widths[i] = fixed > room ? Math.max(1, width * room / fixed) : width;
+                used += widths[i];
+            }
+        }
+        if (flexible > 0) {
+            int left = Math.max(flexible, available - used);
+            int share = left / flexible;
+            int extra = left % flexible;
+            for (int i = 0; i < widths.length; i++) {
+                if (columns.get(i).getWidth() == 0) {
+                    widths[i] = share + (extra-- > 0 ? 1 : 0);
+                }
+            }
+        }
+        return widths;
+    }
+
+    static List<String> wrap(String value, int width, TableOptions.Wrap rule, TextMetrics metrics) {
+        if (value.indexOf('\n') < 0 && metrics.measure(value) <= width) {
+            return Collections.singletonList(value);
+        }
+        List<String> lines = new ArrayList<>();
+        for (String paragraph : value.split("\n", -1)) {
+            wrapParagraph(paragraph, width, rule == TableOptions.Wrap.WORD, lines);
+            if (rule == TableOptions.Wrap.CLIP) {
+                return Collections.singletonList(lines.get(0));
+            }
+        }
+        return lines;
+    }
+
+    private static void wrapParagraph(String text, int width, boolean words, List<String> lines) {
+        int length = text.length();
+        if (length == 0) {
+            lines.add("");
+            return;
+        }
+        int start = 0;
+        while (start < length) {
+            int used = 0;
+            int i = start;
+            int lastSpace = -1;
+            while (i < length) {
+                int codePoint = text.codePointAt(i);
+                int cells = TextMetrics.codePointWidth(codePoint);
+                if (used + cells > width) {
+                    break;
+                }
+                if (codePoint == ' ') {
+                    lastSpace = i;
+                }
+                used += cells;
+                i += Character.charCount(codePoint);
+            }
+            if (i >= length) {
+                lines.add(text.substring(start));
+                return;
+            }
+            int next;
+            if (words && text.charAt(i) == ' ') {
+                next = i;
+            } else if (words && lastSpace > start) {
+                next = lastSpace;
+            } else {
+                // a single character wider than the column still has to go somewhere
+                next = i > start ? i : start + Character.charCount(text.codePointAt(start));
+            }
+            lines.add(trimEnd(text.substring(start, next)));
+            start = next;
+            if (words) {
+                while (start < length && text.charAt(start) == ' ') {
+                    start++;
+                }
+            }
+        }
+    }
+
+    private static String trimEnd(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+
+    private static void pad(StringBuilder text, int count) {
+        for (int i = 0; i < count; i++) {
+            text.append(' ');
+        }
+    }
+
+    /**
+     * Converts the rows sent by JS, arrays of strings, numbers or booleans.
+     */
+    public static List<List<String>> rowsFromReadableArray(ReadableArray array) {
+        List<List<String>> rows = new ArrayList<>();
+        if (array == null) {
+            return rows;
+        }
+        for (int i = 0; i < array.size(); i++) {
+            List<String> row = new ArrayList<>();
+            switch (array.getType(i)) {
+                case Array:
+                    ReadableArray cells = array.getArray(i);
+                    for (int c = 0; c < cells.size(); c++) {
+                        row.add(cellValue(cells, c));
+                    }
+                    break;
+                case Null:
+                    break;
+                default:
+                    row.add(cellValue(array, i));
+                    break;
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static String cellValue(ReadableArray array, int index) {
+        switch (array.getType(index)) {
+            case String:
+                return array.getString(index);
+            case Number:
+                double number = array.getDouble(index);
+                if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+                    return String.valueOf((long) number);
+                }
+                return String.valueOf(number);
+            case Boolean:
+                return String.valueOf(array.getBoolean(index));
+            default:
+                return "";
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * PrinterOutput that forwards to a target and keeps a copy of everything written.
+ */
+
+public class TeePrinterOutput implements PrinterOutput {
+
+    private final PrinterOutput target;
+    private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+    public TeePrinterOutput(PrinterOutput target) {
+        this.target = target;
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        copy.write(data, offset, length);
+        target.write(data, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        target.flush();
+    }
+
+    public byte[] toByteArray() {
+        return copy.toByteArray();
+    }
+}
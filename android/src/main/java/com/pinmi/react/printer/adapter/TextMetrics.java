@@ -0,0 +1,94 @@
+package com.pinmi.react.printer.adapter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Width of text in printer character cells: one for most characters, two
+ * for CJK and other full-width characters, none for combining marks and
+ * format characters. Widths of whole strings are cached, since receipts
+ * repeat the same item names, prices and headers.
+ */
+
+public class TextMetrics {
+    private static TextMetrics mInstance;
+
+    private final static int CACHE_ENTRIES = 1024;
+
+    // access-ordered, so the least recently measured string goes first
+    private final LinkedHashMap<String, Integer> mWidths = new LinkedHashMap<String, Integer>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > CACHE_ENTRIES;
+        }
+    };
+
+    private TextMetrics() {
+
+    }
+
+    public static synchronized TextMetrics getInstance() {
+        if (mInstance == null) {
+            mInstance = new TextMetrics();
+        }
+        return mInstance;
+    }
+
+    public int measure(String text) {
+        synchronized (mWidths) {
+            Integer cached = mWidths.get(text);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        int width = measure(text, 0, text.length());
+        synchronized (mWidths) {
+            mWidths.put(text, width);
+        }
+        return width;
+    }
+
+    /**
+     * Uncached width of text[start, end).
+     */
+    public static int measure(CharSequence text, int start, int end) {
+        int width = 0;
+        for (int i = start; i < end; ) {
+            int codePoint = Character.codePointAt(text, i);
+            width += codePointWidth(codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return width;
+    }
+
+    public static int codePointWidth(int codePoint) {
+        if (codePoint < 0x300) {
+            return codePoint < 0x20 || (codePoint >= 0x7f && codePoint < 0xa0) ? 0 : 1;
+        }
+        int type = Character.getType(codePoint);
+        if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK || type == Character.FORMAT) {
+            return 0;
+        }
+        return isWide(codePoint) ? 2 : 1;
+    }
+
+    /**
+     * East Asian wide and full-width ranges, plus the emoji blocks.
+     */
+    private static boolean isWide(int c) {
+        return (c >= 0x1100 && c <= 0x115f)
+                || (c >= 0x2e80 && c <= 0x303e)
+                || (c >= 0x3041 && c <= 0x33ff)
+                || (c >= 0x3400 && c <= 0x4dbf)
+                || (c >= 0x4e00 && c <= 0x9fff)
+                || (c >= 0xa000 && c <= 0xa4cf)
+                || (c >= 0xac00 && c <= 0xd7a3)
+                || (c >= 0xf900 && c <= 0xfaff)
+                || (c >= 0xfe30 && c <= 0xfe4f)
+                || (c >= 0xff00 && c <= 0xff60)
+                || (c >= 0xffe0 && c <= 0xffe6)
+                || (c >= 0x1f300 && c <= 0x1f64f)
+                || (c >= 0x1f900 && c <= 0x1f9ff)
+                || (c >= 0x20000 && c <= 0x3fffd);
+    }
+}
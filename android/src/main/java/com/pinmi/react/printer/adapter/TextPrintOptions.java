@@ -0,0 +1,129 @@
+package com.pinmi.react.printer.adapter;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * Per-print settings for markup text jobs, parsed from the options map sent
+ * by JS. Same keys as the JS PrinterOptions, plus an optional code page.
+ */
+
+public class TextPrintOptions {
+
+    public final static int AUTO_CODE_PAGE = -1;
+
+    private boolean beep = false;
+    private boolean cut = false;
+    private boolean tailingLine = false;
+    private String encoding = "UTF8";
+    private int codePage = AUTO_CODE_PAGE;
+    private boolean fontB = false;
+
+    /**
+     * Defaults of printText: no beep, no cut, no trailing lines.
+     */
+    public static TextPrintOptions defaults() {
+        return new TextPrintOptions();
+    }
+
+    /**
+     * Defaults of printBill: beep, cut and trailing lines.
+     */
+    public static TextPrintOptions billDefaults() {
+        return new TextPrintOptions().setBeep(true).setCut(true).setTailingLine(true);
+    }
+
+    public static TextPrintOptions fromReadableMap(ReadableMap map) {
+        return fromReadableMap(map, defaults());
+    }
+
+    /**
+     * Overrides the given defaults with whatever the map sets.
+     */
+    public static TextPrintOptions fromReadableMap(ReadableMap map, TextPrintOptions options) {
+        if (map == null) {
+            return options;
+        }
+        if (map.hasKey("beep") && !map.isNull("beep")) {
+            options.beep = map.getBoolean("beep");
+        }
+        if (map.hasKey("cut") && !map.isNull("cut")) {
+            options.cut = map.getBoolean("cut");
+        }
+        if (map.hasKey("tailingLine") && !map.isNull("tailingLine")) {
+            options.tailingLine = map.getBoolean("tailingLine");
+        }
+        if (map.hasKey("encoding") && !map.isNull("encoding")) {
+            options.encoding = map.getString("encoding");
+        }
+        if (map.hasKey("codePage") && !map.isNull("codePage")) {
+            options.codePage = Math.max(0, Math.min(255, map.getInt("codePage")));
+        }
+        if (map.hasKey("font") && !map.isNull("font")) {
+            options.fontB = "B".equalsIgnoreCase(map.getString("font"));
+        }
+        return options;
+    }
+
+    public boolean isBeep() {
+        return beep;
+    }
+
+    public TextPrintOptions setBeep(boolean beep) {
+        this.beep = beep;
+        return this;
+    }
+
+    public boolean isCut() {
+        return cut;
+    }
+
+    public TextPrintOptions setCut(boolean cut) {
+        this.cut = cut;
+        return this;
+    }
+
+    public boolean isTailingLine() {
+        return tailingLine;
+    }
+
+    public TextPrintOptions setTailingLine(boolean tailingLine) {
+        this.tailingLine = tailingLine;
+        return this;
+    }
+
+    /**
+     * Charset name as accepted by iconv-lite, e.g. UTF8, CP437, windows1252, GB18030.
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public TextPrintOptions setEncoding(String encoding) {
+        this.encoding = encoding;
+        return this;
+    }
+
+    /**
+     * n of ESC t, or {@link #AUTO_CODE_PAGE} to pick it from the encoding.
+     */
+    public int getCodePage() {
+        return codePage;
+    }
+
+    public TextPrintOptions setCodePage(int codePage) {
+        this.codePage = codePage;
+        return this;
+    }
+
+    /**
+     * Printer font B, smaller than the default font A; selected with ESC M.
+     */
+    public boolean isFontB() {
+        return fontB;
+    }
+
+    public TextPrintOptions setFontB(boolean fontB) {
+        this.fontB = fontB;
+        return this;
+    }
+}
@@ -0,0 +1,290 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Markup text job shared by the adapters, the native twin of
+ * EPToolkit.exchange_text: the same tags produce the same ESC/POS bytes, so
+ * JS can send the receipt text itself instead of a base64 byte stream.
+ *
+ * Text is encoded straight into a small per-thread buffer with a cached
+ * CharsetEncoder. For single-byte encodings the matching code page is
+ * selected with ESC t, which the JS encoder left to the printer's default.
+ */
+
+public class TextPrinter {
+
+    private final static byte[] INIT_PRINTER = { 27, 64 };
+    private final static byte[] DEFAULT_LINE_SPACING = { 27, 50 };
+    private final static byte[] RESET = { 27, 97, 0, 29, 33, 0, 27, 50 };
+    private final static byte[] CUT = { 27, 105 };
+    private final static byte[] BEEP = { 27, 66, 3, 2 };
+    private final static byte[] TAILING_LINES = { 10, 10, 10, 10, 10 };
+    private final static byte[] SELECT_FONT_B = { 27, 77, 1 };
+    private final static byte[] FONT_END = { 27, 33, 0, 28, 33, 0 };
+    private final static byte[] NONE = {};
+
+    // matched in this order, like the JS controller table
+    private final static String[] TAGS = {
+            "<M>", "</M>", "<B>", "</B>", "<D>", "</D>", "<C>", "</C>",
+            "<CM>", "</CM>", "<CD>", "</CD>", "<CB>", "</CB>", "<L>", "</L>", "<R>", "</R>"
+    };
+    private final static byte[][] TAG_BYTES = {
+            { 27, 33, 16, 28, 33, 8 }, FONT_END,
+            { 27, 33, 48, 28, 33, 12 }, FONT_END,
+            { 27, 33, 32, 28, 33, 4 }, FONT_END,
+            { 27, 97, 1 }, NONE,
+            { 27, 97, 1, 27, 33, 16, 28, 33, 8 }, FONT_END,
+            { 27, 97, 1, 27, 33, 32, 28, 33, 4 }, FONT_END,
+            { 27, 97, 1, 27, 33, 48, 28, 33, 12 }, FONT_END,
+            { 27, 97, 0 }, NONE,
+            { 27, 97, 2 }, NONE
+    };
+
+    // n of ESC t for the single-byte charsets Epson-compatible printers carry
+    private final static Map<String, Integer> CODE_PAGES = new HashMap<>();
+
+    static {
+        CODE_PAGES.put("IBM437", 0);
+        CODE_PAGES.put("IBM850", 2);
+        CODE_PAGES.put("IBM860", 3);
+        CODE_PAGES.put("IBM863", 4);
+        CODE_PAGES.put("IBM865", 5);
+        CODE_PAGES.put("IBM857", 13);
+        CODE_PAGES.put("x-IBM737", 14);
+        CODE_PAGES.put("ISO-8859-7", 15);
+        CODE_PAGES.put("windows-1252", 16);
+        // no ISO-8859-1 page, 1252 only adds printable characters to it
+        CODE_PAGES.put("ISO-8859-1", 16);
+        CODE_PAGES.put("IBM866", 17);
+        CODE_PAGES.put("IBM852", 18);
+        CODE_PAGES.put("IBM00858", 19);
+        CODE_PAGES.put("IBM855", 34);
+        CODE_PAGES.put("IBM861", 35);
+        CODE_PAGES.put("IBM862", 36);
+        CODE_PAGES.put("IBM864", 37);
+        CODE_PAGES.put("IBM869", 38);
+        CODE_PAGES.put("ISO-8859-2", 39);
+        CODE_PAGES.put("ISO-8859-15", 40);
+        CODE_PAGES.put("windows-1250", 45);
+        CODE_PAGES.put("windows-1251", 46);
+        CODE_PAGES.put("windows-1253", 47);
+        CODE_PAGES.put("windows-1254", 48);
+        CODE_PAGES.put("windows-1255", 49);
+        CODE_PAGES.put("windows-1256", 50);
+        CODE_PAGES.put("windows-1257", 51);
+        CODE_PAGES.put("windows-1258", 52);
+    }
+
+    private final static Pattern WINDOWS_NAME = Pattern.compile("(?:windows|win|cp)(125\\d)");
+    private final static Pattern IBM_NAME = Pattern.compile("(?:cp|ibm)(\\d{3,5})");
+    private final static Pattern ISO_NAME = Pattern.compile("iso8859(\\d{1,2})");
+
+    private final static Map<String, Charset> CHARSETS = new HashMap<>();
+
+    // encoders are not thread-safe, each writer thread keeps its own
+    private final static ThreadLocal<TextPrinter> ENCODERS = new ThreadLocal<TextPrinter>() {
+        @Override
+        protected TextPrinter initialValue() {
+            return new TextPrinter();
+        }
+    };
+
+    private final Map<Charset, CharsetEncoder> mEncoders = new HashMap<>();
+    private final ByteBuffer mBuffer = ByteBuffer.allocate(4096);
+
+    private TextPrinter() {
+
+    }
+
+    public static void print(String text, TextPrintOptions options, PrinterOutput output) throws IOException {
+        print(text, options, true, output);
+    }
+
+    /**
+     * Prints text that is already laid out: '<' is just a character and,
+     * since nothing changes the style, lines need no reset.
+     */
+    static void printPlain(String text, TextPrintOptions options, PrinterOutput output) throws IOException {
+        print(text, options, false, output);
+    }
+
+    private static void print(String text, TextPrintOptions options, boolean markup, PrinterOutput output) throws IOException {
+        if (text == null) {
+            throw new IOException("text is empty");
+        }
+        Charset charset = charsetFor(options.getEncoding());
+        TextPrinter printer = ENCODERS.get();
+        printer.mBuffer.clear();
+        printer.encode(text, charset, options, markup, output);
+        output.flush();
+    }
+
+    /**
+     * Resolves iconv-lite spellings such as UTF8, windows1252 or cp866 to a Java charset.
+     */
+    public static Charset charsetFor(String encoding) throws IOException {
+        synchronized (CHARSETS) {
+            Charset charset = CHARSETS.get(encoding);
+            if (charset == null) {
+                charset = lookupCharset(encoding);
+                CHARSETS.put(encoding, charset);
+            }
+            return charset;
+        }
+    }
+
+    private static Charset lookupCharset(String encoding) throws IOException {
+        if (encoding == null || encoding.isEmpty()) {
+            return Charset.forName("UTF-8");
+        }
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            // not a Java name, try the iconv-lite one below
+        }
+        String name = encoding.toLowerCase(Locale.US).replaceAll("[^a-z0-9]", "");
+        String javaName = name;
+        Matcher matcher;
+        if (name.equals("latin1") || name.equals("binary")) {
+            javaName = "ISO-8859-1";
+        } else if (name.equals("shiftjis") || name.equals("sjis")) {
+            javaName = "Shift_JIS";
+        } else if (name.equals("euckr")) {
+            javaName = "EUC-KR";
+        } else if (name.equals("eucjp")) {
+            javaName = "EUC-JP";
+        } else if (name.equals("koi8r")) {
+            javaName = "KOI8-R";
+        } else if ((matcher = WINDOWS_NAME.matcher(name)).matches()) {
+            javaName = "windows-" + matcher.group(1);
+        } else if ((matcher = IBM_NAME.matcher(name)).matches()) {
+            javaName = "IBM" + matcher.group(1);
+        } else if ((matcher = ISO_NAME.matcher(name)).matches()) {
+            javaName = "ISO-8859-" + matcher.group(1);
+        }
+        try {
+            return Charset.forName(javaName);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("unsupported encoding: " + encoding);
+        }
+    }
+
+    /**
+     * n of ESC t for the charset, or -1 when the printer has no such code page.
+     */
+    public static int codePageFor(Charset charset) {
+        Integer codePage = CODE_PAGES.get(charset.name());
+        return codePage != null ? codePage : -1;
+    }
+
+    private void encode(String text, Charset charset, TextPrintOptions options, boolean markup,
+                        PrinterOutput output) throws IOException {
+        CharsetEncoder encoder = encoderFor(charset);
+        put(INIT_PRINTER, output);
+        int codePage = options.getCodePage() != TextPrintOptions.AUTO_CODE_PAGE ? options.getCodePage() : codePageFor(charset);
+        if (codePage >= 0) {
+            put(new byte[] { 27, 116, (byte) codePage }, output);
+        }
+        if (options.isFontB()) {
+            put(SELECT_FONT_B, output);
+        }
+        put(DEFAULT_LINE_SPACING, output);
+
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '<' && markup) {
+                putText(encoder, text, start, i, output);
+                // a '<' that starts no tag is dropped, as in exchange_text
+                for (int t = 0; t < TAGS.length; t++) {
+                    if (text.startsWith(TAGS[t], i)) {
+                        put(TAG_BYTES[t], output);
+                        i += TAGS[t].length() - 1;
+                    }
+                }
+                start = i + 1;
+            } else if (ch == '\n' && markup) {
+                putText(encoder, text, start, i + 1, output);
+                put(RESET, output);
+                start = i + 1;
+            }
+        }
+        putText(encoder, text, start, text.length(), output);
+
+        drain(output);
+        writeTrailer(options.isTailingLine(), options.isCut(), options.isBeep(), output);
+    }
+
+    /**
+     * The optional feed, cut and beep that end a receipt, in exchange_text's order.
+     */
+    static void writeTrailer(boolean tailingLine, boolean cut, boolean beep, PrinterOutput output) throws IOException {
+        if (tailingLine) {
+            output.write(TAILING_LINES, 0, TAILING_LINES.length);
+        }
+        if (cut) {
+            output.write(CUT, 0, CUT.length);
+        }
+        if (beep) {
+            output.write(BEEP, 0, BEEP.length);
+        }
+    }
+
+    private CharsetEncoder encoderFor(Charset charset) {
+        CharsetEncoder encoder = mEncoders.get(charset);
+        if (encoder == null) {
+            encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            mEncoders.put(charset, encoder);
+        }
+        return encoder;
+    }
+
+    private void putText(CharsetEncoder encoder, String text, int start, int end, PrinterOutput output) throws IOException {
+        if (start >= end) {
+            return;
+        }
+        CharBuffer in = CharBuffer.wrap(text, start, end);
+        encoder.reset();
+        CoderResult result;
+        do {
+            result = encoder.encode(in, mBuffer, true);
+            if (result.isOverflow()) {
+                drain(output);
+            }
+        } while (result.isOverflow());
+        do {
+            result = encoder.flush(mBuffer);
+            if (result.isOverflow()) {
+                drain(output);
+            }
+        } while (result.isOverflow());
+    }
+
+    private void put(byte[] bytes, PrinterOutput output) throws IOException {
+        if (bytes.length > mBuffer.remaining()) {
+            drain(output);
+        }
+        mBuffer.put(bytes);
+    }
+
+    private void drain(PrinterOutput output) throws IOException {
+        if (mBuffer.position() > 0) {
+            output.write(mBuffer.array(), 0, mBuffer.position());
+            mBuffer.clear();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.pinmi.react.printer.adapter;
+
+import android.hardware.usb.UsbDeviceConnection;
+import android.hardware.usb.UsbEndpoint;
+import android.hardware.usb.UsbRequest;
+import android.os.Build;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PrinterOutput over a bulk OUT endpoint that keeps several UsbRequests
+ * queued at once, so the next transfer is already waiting on the bus when the
+ * previous one completes instead of the bus idling between synchronous
+ * bulkTransfer calls.
+ *
+ * The requests and their buffers are created once per connection and
+ * recycled as completions are reaped with requestWait. Each completion is
+ * reported to the chunk sizer with the time the transfer spent at the head
+ * of the queue, since write() returns long before the bytes are on the bus.
+ */
+
+public class USBAsyncPrinterOutput implements PrinterOutput, Closeable {
+
+    public final static int DEFAULT_REQUESTS = 4;
+
+    // queue(ByteBuffer, int) rejects more than 16 KB before Android O
+    private final static int BUFFER_SIZE = 16384;
+    private final static long WAIT_TIMEOUT = 10000;
+    private final static long CANCEL_TIMEOUT = 1000;
+
+    private static ScheduledExecutorService mWatchdog;
+
+    private static class Transfer {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int length;
+        long queuedAt;
+    }
+
+    private final UsbDeviceConnection mConnection;
+    private final AdaptiveChunkSizer mSizer;
+    private final UsbRequest[] mRequests;
+    private final ArrayDeque<UsbRequest> mFree = new ArrayDeque<>();
+    private int mInFlight = 0;
+    private long mLastCompletion = 0;
+    private volatile boolean mClosed = false;
+
+    public USBAsyncPrinterOutput(UsbDeviceConnection connection, UsbEndpoint endpoint, int requests,
+                                 AdaptiveChunkSizer sizer) throws IOException {
+        this.mConnection = connection;
+        this.mSizer = sizer;
+        this.mRequests = new UsbRequest[requests];
+        for (int i = 0; i < requests; i++) {
+            UsbRequest request = new UsbRequest();
+            if (!request.initialize(connection, endpoint)) {
+                request.close();
+                close();
+                throw new IOException("failed to initialize USB request");
+            }
+            request.setClientData(new Transfer());
+            mRequests[i] = request;
+            mFree.add(request);
+        }
+    }
+
+    @Override
+    public synchronized void write(byte[] data, int offset, int length) throws IOException {
+        if (mClosed) {
+            throw new IOException("USB connection was closed after a failed transfer");
+        }
+        while (length > 0) {
+            if (mFree.isEmpty()) {
+                reap();
+            }
+            UsbRequest request = mFree.poll();
+            Transfer transfer = (Transfer) request.getClientData();
+            ByteBuffer buffer = transfer.buffer;
+            buffer.clear();
+            int chunk = Math.min(length, buffer.capacity());
+            buffer.put(data, offset, chunk);
+            transfer.length = chunk;
+            transfer.queuedAt = System.nanoTime();
+
+            boolean queued;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                buffer.flip();
+                queued = request.queue(buffer);
+            } else {
+                queued = request.queue(buffer, chunk);
+            }
+            if (!queued) {
+                mFree.add(request);
+                throw new IOException("failed to queue USB transfer");
+            }
+            mInFlight++;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Waits until every queued transfer has completed.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        while (mInFlight > 0) {
+            reap();
+        }
+    }
+
+    /**
+     * True once the connection has been given up, a new one is needed.
+     */
+    public boolean isClosed() {
+        return mClosed;
+    }
+
+    private void reap() throws IOException {
+        UsbRequest done;
+        try {
+            done = await(WAIT_TIMEOUT);
+        } catch (TimeoutException e) {
+            done = null;
+        }
+        if (done == null) {
+            boolean hung = mClosed;
+            abort();
+            throw new IOException(hung ? "USB transfer timed out" : "USB transfer failed");
+        }
+        mInFlight--;
+        mFree.add(done);
+
+        long now = System.nanoTime();
+        Transfer transfer = (Transfer) done.getClientData();
+        if (mSizer != null) {
+            mSizer.record(transfer.length, busTime(transfer.queuedAt, mLastCompletion, now));
+        }
+        mLastCompletion = now;
+    }
+
+    /**
+     * How long a transfer completing at now spent on the bus. It only starts
+     * moving once the one ahead of it has completed, so the time it waited
+     * in the queue behind that one does not count.
+     */
+    static long busTime(long queuedAt, long lastCompletion, long now) {
+        return now - Math.max(queuedAt, lastCompletion);
+    }
+
+    private UsbRequest await(long timeoutMs) throws TimeoutException {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            return mConnection.requestWait(timeoutMs);
+        }
+        // closing the connection makes a hung requestWait() return null
+        ScheduledFuture<?> watchdog = watchdog().schedule(new Runnable() {
+            @Override
+            public void run() {
+                closeConnection();
+            }
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+        try {
+            return mConnection.requestWait();
+        } finally {
+            watchdog.cancel(false);
+        }
+    }
+
+    private static synchronized ScheduledExecutorService watchdog() {
+        if (mWatchdog == null) {
+            mWatchdog = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "RNPrinterUsbWatchdog");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return mWatchdog;
+    }
+
+    private void closeConnection() {
+        mClosed = true;
+        mConnection.close();
+    }
+
+    /**
+     * Cancels whatever is still queued so the next job starts from a clean
+     * slate. A cancelled request still completes, and that completion must
+     * be reaped before the request is reused or it would be taken for the
+     * next transfer's.
+     */
+    private void abort() {
+        for (UsbRequest request : mRequests) {
+            if (request != null && !mFree.contains(request)) {
+                request.cancel();
+            }
+        }
+        while (mInFlight > 0 && !mClosed) {
+            UsbRequest done;
+            try {
+                done = await(CANCEL_TIMEOUT);
+            } catch (TimeoutException e) {
+                done = null;
+            }
+            if (done == null) {
+                break;
+            }
+            mInFlight--;
+            mFree.add(done);
+        }
+        if (mInFlight > 0 && !mClosed) {
+            closeConnection();
+        }
+        mInFlight = 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        abort();
+        for (UsbRequest request : mRequests) {
+            if (request != null) {
+                request.close();
+            }
+        }
+        mFree.clear();
+    }
+}
@@ -5,7 +5,6 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
-import android.graphics.Color;
 import android.hardware.usb.UsbConstants;
 import android.hardware.usb.UsbDevice;
 import android.hardware.usb.UsbDeviceConnection;
@@ -15,22 +14,16 @@ import android.hardware.usb.UsbManager;
 import android.util.Base64;
 import android.util.Log;
 import android.widget.Toast;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 
 
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.modules.core.DeviceEventManagerModule;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
 import java.net.Socket;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import android.os.Build;
@@ -50,6 +43,10 @@ public class USBPrinterAdapter implements PrinterAdapter {
     private UsbDeviceConnection mUsbDeviceConnection;
     private UsbInterface mUsbInterface;
     private UsbEndpoint mEndPoint;
+    private PrinterOutput mTransport;
+    private PrinterStatusChannel mStatusChannel;
+    private AdaptiveChunkSizer mChunkSizer = AdaptiveChunkSizer.forUsb();
+    private final PrinterJobQueue mJobQueue = new PrinterJobQueue("usb");
     private static final String ACTION_USB_PERMISSION = "com.pinmi.react.USBPrinter.USB_PERMISSION";
     private static final String EVENT_USB_DEVICE_ATTACHED = "usbAttached";
     
@@ -57,13 +54,6 @@ public class USBPrinterAdapter implements PrinterAdapter {
     private Callback mPendingSuccessCallback;
     private Callback mPendingErrorCallback;
 
-    private final static char ESC_CHAR = 0x1B;
-    private static byte[] SELECT_BIT_IMAGE_MODE = { 0x1B, 0x2A, 33 };
-    private final static byte[] SET_LINE_SPACE_24 = new byte[] { ESC_CHAR, 0x33, 24 };
-    private final static byte[] SET_LINE_SPACE_32 = new byte[] { ESC_CHAR, 0x33, 32 };
-    private final static byte[] LINE_FEED = new byte[] { 0x0A };
-    private static byte[] CENTER_ALIGN = { 0x1B, 0X61, 0X31 };
-
     private USBPrinterAdapter() {
     }
 
@@ -143,6 +133,8 @@ public class USBPrinterAdapter implements PrinterAdapter {
     public void init(ReactApplicationContext reactContext, Callback successCallback, Callback errorCallback) {
         try {
             this.mContext = reactContext;
+            RasterCache.getInstance().init(reactContext);
+            ImageFetcher.getInstance().init(reactContext);
             this.mUSBManager = (UsbManager) this.mContext.getSystemService(Context.USB_SERVICE);
             int flags = PendingIntent.FLAG_UPDATE_CURRENT;
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
@@ -179,20 +171,47 @@ public class USBPrinterAdapter implements PrinterAdapter {
     }
 
 
+    /**
+     * Closes the connection behind the jobs already queued, so a job that is
+     * still writing never has its requests closed under it. New jobs open a
+     * fresh connection.
+     */
     public void closeConnectionIfExists() {
-        if (mUsbDeviceConnection != null) {
-            try {
-                if (mUsbInterface != null) {
-                    mUsbDeviceConnection.releaseInterface(mUsbInterface);
-                }
-                mUsbDeviceConnection.close();
-            } catch (Exception e) {
-                Log.e(LOG_TAG, "Error closing connection: " + e.getMessage());
-            } finally {
-                mUsbInterface = null;
-                mEndPoint = null;
-                mUsbDeviceConnection = null;
+        if (mUsbDeviceConnection == null) {
+            return;
+        }
+        final UsbDeviceConnection connection = mUsbDeviceConnection;
+        final UsbInterface usbInterface = mUsbInterface;
+        final PrinterOutput transport = mTransport;
+        mUsbInterface = null;
+        mEndPoint = null;
+        mTransport = null;
+        mStatusChannel = null;
+        mUsbDeviceConnection = null;
+        Runnable close = new Runnable() {
+            @Override
+            public void run() {
+                closeConnection(connection, usbInterface, transport);
             }
+        };
+        if (!mJobQueue.submit(close)) {
+            // queue full or shut down, nothing is left to wait for
+            close.run();
+        }
+    }
+
+    private void closeConnection(UsbDeviceConnection connection, UsbInterface usbInterface,
+                                 PrinterOutput transport) {
+        try {
+            if (transport instanceof USBAsyncPrinterOutput) {
+                ((USBAsyncPrinterOutput) transport).close();
+            }
+            if (usbInterface != null) {
+                connection.releaseInterface(usbInterface);
+            }
+            connection.close();
+        } catch (Exception e) {
+            Log.e(LOG_TAG, "Error closing connection: " + e.getMessage());
         }
     }
 
@@ -312,6 +331,11 @@ public class USBPrinterAdapter implements PrinterAdapter {
                 return false;
             }
 
+            if (mUsbDeviceConnection != null && mTransport instanceof USBAsyncPrinterOutput
+                    && ((USBAsyncPrinterOutput) mTransport).isClosed()) {
+                Log.w(LOG_TAG, "USB connection was closed after a failed transfer, reopening");
+                closeConnectionIfExists();
+            }
             if (mUsbDeviceConnection != null) {
                 Log.d(LOG_TAG, "INFO: USB Connection already connected");
                 return true;
@@ -326,37 +350,52 @@ public class USBPrinterAdapter implements PrinterAdapter {
             UsbInterface usbInterface = mUsbDevice.getInterface(0);
             Log.d(LOG_TAG, "Interface endpoint count: " + usbInterface.getEndpointCount());
             
+            UsbEndpoint outEndpoint = null;
+            UsbEndpoint inEndpoint = null;
             for (int i = 0; i < usbInterface.getEndpointCount(); i++) {
                 final UsbEndpoint ep = usbInterface.getEndpoint(i);
                 Log.d(LOG_TAG, "Endpoint " + i + ": Type=" + ep.getType() + ", Direction=" + ep.getDirection());
                 
                 if (ep.getType() == UsbConstants.USB_ENDPOINT_XFER_BULK) {
-                    if (ep.getDirection() == UsbConstants.USB_DIR_OUT) {
+                    if (ep.getDirection() == UsbConstants.USB_DIR_OUT && outEndpoint == null) {
                         Log.d(LOG_TAG, "Found suitable OUT endpoint: " + i);
-                        
-                        UsbDeviceConnection usbDeviceConnection = mUSBManager.openDevice(mUsbDevice);
-                        if (usbDeviceConnection == null) {
-                            Log.e(LOG_TAG, "ERROR: failed to open USB Connection");
-                            return false;
-                        }
-                        
-                        Log.d(LOG_TAG, "USB device opened, claiming interface...");
-                        if (usbDeviceConnection.claimInterface(usbInterface, true)) {
-                            Log.d(LOG_TAG, "Interface claimed successfully");
-                            mEndPoint = ep;
-                            mUsbInterface = usbInterface;
-                            mUsbDeviceConnection = usbDeviceConnection;
-                            Log.d(LOG_TAG, "Device connected successfully");
-                            Log.d(LOG_TAG, "=== OPEN CONNECTION DEBUG END ===");
-                            return true;
-                        } else {
-                            Log.e(LOG_TAG, "ERROR: failed to claim usb connection");
-                            usbDeviceConnection.close();
-                            return false;
-                        }
+                        outEndpoint = ep;
+                    } else if (ep.getDirection() == UsbConstants.USB_DIR_IN && inEndpoint == null) {
+                        // optional, carries the status replies
+                        Log.d(LOG_TAG, "Found status IN endpoint: " + i);
+                        inEndpoint = ep;
                     }
                 }
             }
+
+            if (outEndpoint != null) {
+                UsbDeviceConnection usbDeviceConnection = mUSBManager.openDevice(mUsbDevice);
+                if (usbDeviceConnection == null) {
+                    Log.e(LOG_TAG, "ERROR: failed to open USB Connection");
+                    return false;
+                }
+
+                Log.d(LOG_TAG, "USB device opened, claiming interface...");
+                if (usbDeviceConnection.claimInterface(usbInterface, true)) {
+                    Log.d(LOG_TAG, "Interface claimed successfully");
+                    mEndPoint = outEndpoint;
+                    mUsbInterface = usbInterface;
+                    mUsbDeviceConnection = usbDeviceConnection;
+                    // a different printer may want a different chunk size
+                    mChunkSizer = AdaptiveChunkSizer.forUsb();
+                    mTransport = openTransport(usbDeviceConnection, outEndpoint);
+                    mStatusChannel = inEndpoint == null ? null : new PrinterStatusChannel(
+                            new USBPrinterOutput(usbDeviceConnection, outEndpoint),
+                            new USBPrinterInput(usbDeviceConnection, inEndpoint));
+                    Log.d(LOG_TAG, "Device connected successfully");
+                    Log.d(LOG_TAG, "=== OPEN CONNECTION DEBUG END ===");
+                    return true;
+                } else {
+                    Log.e(LOG_TAG, "ERROR: failed to claim usb connection");
+                    usbDeviceConnection.close();
+                    return false;
+                }
+            }
             Log.e(LOG_TAG, "ERROR: No suitable endpoint found");
             Log.d(LOG_TAG, "=== OPEN CONNECTION DEBUG END ===");
             return false;
@@ -372,7 +411,6 @@ public class USBPrinterAdapter implements PrinterAdapter {
             final String rawData = rawBase64Data;
             Log.d(LOG_TAG, "=== PRINT DEBUG START ===");
             Log.d(LOG_TAG, "Raw data length: " + (rawBase64Data != null ? rawBase64Data.length() : 0));
-            Log.d(LOG_TAG, "Raw data preview: " + (rawBase64Data != null ? rawBase64Data.substring(0, Math.min(50, rawBase64Data.length())) : "null"));
             
             if (rawBase64Data == null || rawBase64Data.isEmpty()) {
                 Log.e(LOG_TAG, "ERROR: Raw data is null or empty");
@@ -389,9 +427,9 @@ public class USBPrinterAdapter implements PrinterAdapter {
                 Log.d(LOG_TAG, "USB Endpoint object: " + (mEndPoint != null ? "VALID" : "NULL"));
                 Log.d(LOG_TAG, "USB Device: " + (mUsbDevice != null ? "Vendor: " + mUsbDevice.getVendorId() + ", Product: " + mUsbDevice.getProductId() : "NULL"));
                 
-                Log.d(LOG_TAG, "Starting print thread...");
-                new Thread(new USBThreadWrite(mUsbDeviceConnection, mEndPoint, rawData, successCallback, errorCallback)).start();
-                Log.d(LOG_TAG, "Print thread started successfully");
+                Log.d(LOG_TAG, "Queueing print job...");
+                mJobQueue.submit(new USBThreadWrite(mUsbDeviceConnection, mEndPoint, mTransport, mStatusChannel, mChunkSizer,
+                        rawData, successCallback, errorCallback), errorCallback);
             } else {
                 String msg = "failed to connect to device";
                 Log.e(LOG_TAG, "ERROR: " + msg);
@@ -404,196 +442,189 @@ public class USBPrinterAdapter implements PrinterAdapter {
         }
     }
 
-    public static Bitmap getBitmapFromURL(String src) {
-        try {
-            URL url = new URL(src);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setDoInput(true);
-            connection.connect();
-            InputStream input = connection.getInputStream();
-            Bitmap myBitmap = BitmapFactory.decodeStream(input);
+    @Override
+    public void printFile(final String source, final Callback errorCallback, final Callback successCallback) {
+        Log.v(LOG_TAG, "start to print file " + source);
+        submitRawJob("Error printing file", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                FilePrinter.print(mContext, source, output);
+            }
+        }, errorCallback, successCallback);
+    }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            myBitmap.compress(Bitmap.CompressFormat.PNG, 100, baos);
+    @Override
+    public void printText(final String text, final TextPrintOptions options, final Callback errorCallback, final Callback successCallback) {
+        submitJob("Error printing text", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                TextPrinter.print(text, options, output);
+            }
+        }, errorCallback, successCallback);
+    }
 
-            return myBitmap;
-        } catch (Exception e) {
-            Log.e("RNUSBPrinter", "Error getting bitmap from URL: " + e.getMessage());
-            return null;
-        }
+    @Override
+    public void printRasterText(final String text, final RasterTextOptions options, final Callback errorCallback, final Callback successCallback) {
+        submitJob("Error printing text", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                RasterTextPrinter.print(text, options, output);
+            }
+        }, errorCallback, successCallback);
     }
 
+    @Override
+    public void printTable(final List<List<String>> rows, final TableOptions options, final Callback errorCallback, final Callback successCallback) {
+        submitJob("Error printing table", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                TablePrinter.print(rows, options, output);
+            }
+        }, errorCallback, successCallback);
+    }
 
     @Override
     public void printImageData(final String imageUrl, Callback errorCallback) {
-        try {
-            final Bitmap bitmapImage = getBitmapFromURL(imageUrl);
+        printImageData(imageUrl, ImagePrintOptions.defaults(), errorCallback, null);
+    }
 
-            if(bitmapImage == null) {
-                errorCallback.invoke("image not found");
-                return;
+    @Override
+    public void printImageData(final String imageUrl, final ImagePrintOptions options, final Callback errorCallback, final Callback successCallback) {
+        Log.v(LOG_TAG, "start to print image data " + imageUrl);
+        submitJob("Error printing image data", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                ImagePrinter.print(imageUrl, options, output);
             }
+        }, errorCallback, successCallback);
+    }
 
-            Log.v(LOG_TAG, "start to print image data " + bitmapImage);
-            boolean isConnected = openConnection();
-            if (isConnected) {
-                Log.v(LOG_TAG, "Connected to device");
-                int[][] pixels = getPixelsSlow(bitmapImage);
-
-                int b = mUsbDeviceConnection.bulkTransfer(mEndPoint, SET_LINE_SPACE_24, SET_LINE_SPACE_24.length, 100000);
-
-                b = mUsbDeviceConnection.bulkTransfer(mEndPoint, CENTER_ALIGN, CENTER_ALIGN.length, 100000);
-
-                for (int y = 0; y < pixels.length; y += 24) {
-                    // Like I said before, when done sending data,
-                    // the printer will resume to normal text printing
-                    mUsbDeviceConnection.bulkTransfer(mEndPoint, SELECT_BIT_IMAGE_MODE, SELECT_BIT_IMAGE_MODE.length, 100000);
-
-                    // Set nL and nH based on the width of the image
-                    byte[] row = new byte[]{(byte)(0x00ff & pixels[y].length)
-                            , (byte)((0xff00 & pixels[y].length) >> 8)};
-
-                    mUsbDeviceConnection.bulkTransfer(mEndPoint, row, row.length, 100000);
-
-                    for (int x = 0; x < pixels[y].length; x++) {
-                        // for each stripe, recollect 3 bytes (3 bytes = 24 bits)
-                        byte[] slice = recollectSlice(y, x, pixels);
-                        mUsbDeviceConnection.bulkTransfer(mEndPoint, slice, slice.length, 100000);
-                    }
-
-                    // Do a line feed, if not the printing will resume on the same line
-                    mUsbDeviceConnection.bulkTransfer(mEndPoint, LINE_FEED, LINE_FEED.length, 100000);
-                }
+    @Override
+    public void printQrCode(String qrCode, Callback errorCallback) {
+        printQrCode(qrCode, QrCodeOptions.legacy(), errorCallback, null);
+    }
 
-                mUsbDeviceConnection.bulkTransfer(mEndPoint, SET_LINE_SPACE_32, SET_LINE_SPACE_32.length, 100000);
-                mUsbDeviceConnection.bulkTransfer(mEndPoint, LINE_FEED, LINE_FEED.length, 100000);
-            } else {
-                String msg = "failed to connect to device";
-                Log.v(LOG_TAG, msg);
-                errorCallback.invoke(msg);
+    @Override
+    public void printQrCode(final String qrCode, final QrCodeOptions options, final Callback errorCallback, final Callback successCallback) {
+        submitJob("Error printing QR code", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                QrCodePrinter.print(qrCode, options, output);
             }
-        } catch (Exception e) {
-            errorCallback.invoke("Error printing image data: " + e.getMessage());
-        }
+        }, errorCallback, successCallback);
     }
 
     @Override
-    public void printQrCode(String qrCode, Callback errorCallback) {
-        try {
-            // TODO: Implement QR code printing
-            errorCallback.invoke("QR code printing not implemented yet");
-        } catch (Exception e) {
-            errorCallback.invoke("Error printing QR code: " + e.getMessage());
-        }
+    public void printBarcode(final String data, final BarcodeOptions options, final Callback errorCallback, final Callback successCallback) {
+        submitJob("Error printing barcode", new PrintJob() {
+            @Override
+            public void print(PrinterOutput output) throws IOException {
+                BarcodePrinter.print(data, options, output);
+            }
+        }, errorCallback, successCallback);
     }
 
-    public static int[][] getPixelsSlow(Bitmap image2) {
-        try {
-            Bitmap image = resizeTheImageForPrinting(image2);
-
-            int width = image.getWidth();
-            int height = image.getHeight();
-            int[][] result = new int[height][width];
-            for (int row = 0; row < height; row++) {
-                for (int col = 0; col < width; col++) {
-                    result[row][col] = getRGB(image, col, row);
-                }
-            }
-            return result;
-        } catch (Exception e) {
-            Log.e("RNUSBPrinter", "Error getting pixels: " + e.getMessage());
-            return new int[0][0];
-        }
+    private void submitJob(String failure, PrintJob job, Callback errorCallback, Callback successCallback) {
+        submitJob(failure, false, job, errorCallback, successCallback);
+    }
+
+    private void submitRawJob(String failure, PrintJob job, Callback errorCallback, Callback successCallback) {
+        submitJob(failure, true, job, errorCallback, successCallback);
     }
 
-    private byte[] recollectSlice(int y, int x, int[][] img) {
+    /**
+     * Connects if needed and queues the job. When it runs it prints through
+     * the connection's chunked, flow-controlled output, waits for the printer
+     * to confirm and reports the result; successCallback may be null.
+     */
+    private void submitJob(final String failure, boolean rawData, final PrintJob job,
+                           final Callback errorCallback, final Callback successCallback) {
         try {
-            byte[] slices = new byte[] { 0, 0, 0 };
-            for (int yy = y, i = 0; yy < y + 24 && i < 3; yy += 8, i++) {
-                byte slice = 0;
-                for (int b = 0; b < 8; b++) {
-                    int yyy = yy + b;
-                    if (yyy >= img.length) {
-                        continue;
+            if (!openConnection()) {
+                String msg = "failed to connect to device";
+                Log.v(LOG_TAG, msg);
+                errorCallback.invoke(msg);
+                return;
+            }
+            final PrinterStatusChannel statusChannel = mStatusChannel;
+            final PrinterOutput output = rawData ? rawOutputFor(mTransport, mChunkSizer, statusChannel)
+                    : outputFor(mTransport, mChunkSizer, statusChannel);
+            mJobQueue.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        job.print(output);
+                        if (statusChannel != null) {
+                            statusChannel.awaitPrinted();
+                        }
+                        if (successCallback != null) {
+                            successCallback.invoke();
+                        }
+                    } catch (Exception e) {
+                        errorCallback.invoke(failure + ": " + e.getMessage());
                     }
-                    int col = img[yyy][x];
-                    boolean v = shouldPrintColor(col);
-                    slice |= (byte) ((v ? 1 : 0) << (7 - b));
                 }
-                slices[i] = slice;
-            }
-            return slices;
+            }, errorCallback);
         } catch (Exception e) {
-            Log.e("RNUSBPrinter", "Error recollecting slice: " + e.getMessage());
-            return new byte[] { 0, 0, 0 };
+            errorCallback.invoke(failure + ": " + e.getMessage());
         }
     }
 
-    private boolean shouldPrintColor(int col) {
+    /**
+     * Queued UsbRequests keep the pipe full; plain bulkTransfer if they cannot be set up.
+     */
+    private PrinterOutput openTransport(UsbDeviceConnection connection, UsbEndpoint endpoint) {
         try {
-            final int threshold = 127;
-            int a, r, g, b, luminance;
-            a = (col >> 24) & 0xff;
-            if (a != 0xff) {// Ignore transparencies
-                return false;
-            }
-            r = (col >> 16) & 0xff;
-            g = (col >> 8) & 0xff;
-            b = col & 0xff;
-
-            luminance = (int) (0.299 * r + 0.587 * g + 0.114 * b);
-
-            return luminance < threshold;
-        } catch (Exception e) {
-            Log.e("RNUSBPrinter", "Error in shouldPrintColor: " + e.getMessage());
-            return false;
+            return new USBAsyncPrinterOutput(connection, endpoint, USBAsyncPrinterOutput.DEFAULT_REQUESTS, mChunkSizer);
+        } catch (IOException e) {
+            Log.w(LOG_TAG, "falling back to synchronous transfers: " + e.getMessage());
+            return new USBPrinterOutput(connection, endpoint);
         }
     }
 
-    public static Bitmap resizeTheImageForPrinting(Bitmap image) {
-        try {
-            // making logo size 150 or less pixels
-            int width = image.getWidth();
-            int height = image.getHeight();
-            if (width > 200 || height > 200) {
-                if (width > height) {
-                    float decreaseSizeBy = (200.0f / width);
-                    return getBitmapResized(image, decreaseSizeBy);
-                } else {
-                    float decreaseSizeBy = (200.0f / height);
-                    return getBitmapResized(image, decreaseSizeBy);
-                }
-            }
-            return image;
-        } catch (Exception e) {
-            Log.e("RNUSBPrinter", "Error resizing image: " + e.getMessage());
-            return image;
+    private static PrinterOutput outputFor(PrinterOutput transport, AdaptiveChunkSizer chunkSizer,
+                                           PrinterStatusChannel statusChannel) {
+        PrinterOutput output = new ChunkedPrinterOutput(transport, chunkSizer);
+        if (statusChannel != null) {
+            output = new FlowControlledPrinterOutput(output, statusChannel);
         }
+        return output;
     }
 
-    public static int getRGB(Bitmap bmpOriginal, int col, int row) {
-        try {
-            // get one pixel color
-            int pixel = bmpOriginal.getPixel(col, row);
-            // retrieve color of all channels
-            int R = Color.red(pixel);
-            int G = Color.green(pixel);
-            int B = Color.blue(pixel);
-            return Color.rgb(R, G, B);
-        } catch (Exception e) {
-            Log.e("RNUSBPrinter", "Error getting RGB: " + e.getMessage());
-            return Color.BLACK;
+    private static PrinterOutput rawOutputFor(PrinterOutput transport, AdaptiveChunkSizer chunkSizer,
+                                              PrinterStatusChannel statusChannel) {
+        PrinterOutput output = new ChunkedPrinterOutput(transport, chunkSizer);
+        if (statusChannel != null) {
+            output = FlowControlledPrinterOutput.forRawData(output, statusChannel);
         }
+        return output;
     }
 
-    public static Bitmap getBitmapResized(Bitmap image, float decreaseSizeBy) {
+    @Override
+    public void getPrinterStatus(final Callback successCallback, final Callback errorCallback) {
         try {
-            Bitmap resized = Bitmap.createScaledBitmap(image, (int) (image.getWidth() * decreaseSizeBy),
-                    (int) (image.getHeight() * decreaseSizeBy), true);
-            return resized;
+            if (!openConnection()) {
+                errorCallback.invoke("failed to connect to device");
+                return;
+            }
+            final PrinterStatusChannel statusChannel = mStatusChannel;
+            if (statusChannel == null) {
+                errorCallback.invoke("printer has no status endpoint");
+                return;
+            }
+            // queued so the replies are not mixed up with a running job's
+            mJobQueue.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        successCallback.invoke(statusChannel.query().toRNWritableMap());
+                    } catch (IOException e) {
+                        errorCallback.invoke(e.getMessage());
+                    }
+                }
+            }, errorCallback);
         } catch (Exception e) {
-            Log.e("RNUSBPrinter", "Error resizing bitmap: " + e.getMessage());
-            return image;
+            errorCallback.invoke("Error reading printer status: " + e.getMessage());
         }
     }
 }
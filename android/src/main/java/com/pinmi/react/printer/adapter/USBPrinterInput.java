@@ -0,0 +1,43 @@
+package com.pinmi.react.printer.adapter;
+
+import android.hardware.usb.UsbDeviceConnection;
+import android.hardware.usb.UsbEndpoint;
+
+import java.io.IOException;
+
+/**
+ * PrinterInput over a bulk IN endpoint.
+ */
+
+public class USBPrinterInput implements PrinterInput {
+
+    private UsbDeviceConnection connection;
+    private UsbEndpoint endpoint;
+    private byte[] packet;
+    private int packetPosition = 0;
+    private int packetLimit = 0;
+
+    public USBPrinterInput(UsbDeviceConnection connection, UsbEndpoint endpoint) {
+        this.connection = connection;
+        this.endpoint = endpoint;
+        this.packet = new byte[Math.max(64, endpoint.getMaxPacketSize())];
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length, int timeoutMs) throws IOException {
+        if (packetPosition == packetLimit) {
+            // read whole packets, a short buffer would make the host drop the rest
+            int read = this.connection.bulkTransfer(this.endpoint, this.packet, 0, this.packet.length, Math.max(1, timeoutMs));
+            if (read <= 0) {
+                // the transfer timed out, or the printer had nothing to say
+                return 0;
+            }
+            packetPosition = 0;
+            packetLimit = read;
+        }
+        int copied = Math.min(packetLimit - packetPosition, length);
+        System.arraycopy(this.packet, packetPosition, buffer, offset, copied);
+        packetPosition += copied;
+        return copied;
+    }
+}
@@ -0,0 +1,45 @@
+package com.pinmi.react.printer.adapter;
+
+import android.hardware.usb.UsbDeviceConnection;
+import android.hardware.usb.UsbEndpoint;
+
+import java.io.IOException;
+
+/**
+ * PrinterOutput over a bulk OUT endpoint.
+ *
+ * A bulk transfer may accept fewer bytes than asked for, and older Android
+ * versions reject transfers above 16 KB, so writes are split and repeated
+ * until every byte has been taken.
+ */
+
+public class USBPrinterOutput implements PrinterOutput {
+
+    private static final int TRANSFER_TIMEOUT = 10000;
+    private static final int MAX_TRANSFER_SIZE = 16384;
+
+    private UsbDeviceConnection connection;
+    private UsbEndpoint endpoint;
+
+    public USBPrinterOutput(UsbDeviceConnection connection, UsbEndpoint endpoint) {
+        this.connection = connection;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        while (length > 0) {
+            int sent = this.connection.bulkTransfer(this.endpoint, data, offset,
+                    Math.min(length, MAX_TRANSFER_SIZE), TRANSFER_TIMEOUT);
+            if (sent <= 0) {
+                throw new IOException("USB transfer failed with status: " + sent + ", " + length + " bytes not sent");
+            }
+            offset += sent;
+            length -= sent;
+        }
+    }
+
+    @Override
+    public void flush() {
+    }
+}
@@ -7,7 +7,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import android.bluetooth.BluetoothSocket;
-import android.util.Base64;
 import android.util.Log;
 import androidx.annotation.RequiresApi;
 import java.util.Hashtable;
@@ -22,9 +21,27 @@ public class USBThreadWrite implements Runnable {
     private String rawData;
     private UsbDeviceConnection socket;
     private UsbEndpoint usbEndpoint;
+    private PrinterStatusChannel statusChannel;
+    private AdaptiveChunkSizer chunkSizer;
+    private PrinterOutput transport;
     private String LOG_TAG = "RNUSBPrinter";
 
     public USBThreadWrite(UsbDeviceConnection socket, UsbEndpoint usbEndpoint, String rawData, Callback callSuccess, Callback callError) {
+        this(socket, usbEndpoint, null, null, null, rawData, callSuccess, callError);
+    }
+
+    /**
+     * With a status channel the data is flow controlled and success is only
+     * reported once the printer confirms it has printed the job. With a chunk
+     * sizer the data goes out in throughput-tuned chunks. The transport, when
+     * given, replaces a plain synchronous bulkTransfer output on the endpoint.
+     */
+    public USBThreadWrite(UsbDeviceConnection socket, UsbEndpoint usbEndpoint, PrinterOutput transport,
+                          PrinterStatusChannel statusChannel, AdaptiveChunkSizer chunkSizer,
+                          String rawData, Callback callSuccess, Callback callError) {
+        this.transport = transport;
+        this.statusChannel = statusChannel;
+        this.chunkSizer = chunkSizer;
         try {
             this.callSuccess = callSuccess;
             this.callError = callError;
@@ -63,34 +80,35 @@ public class USBThreadWrite implements Runnable {
                 return;
             }
             
-            Log.d(LOG_TAG, "Raw data length: " + rawData.length());
-            Log.d(LOG_TAG, "Raw data preview: " + rawData.substring(0, Math.min(50, rawData.length())));
-            
-            Log.d(LOG_TAG, "Decoding base64 data...");
-            byte[] bytes = Base64.decode(rawData, Base64.DEFAULT);
-            if (bytes == null || bytes.length == 0) {
-                Log.e(LOG_TAG, "ERROR: Failed to decode base64 data or result is empty");
-                this.callError.invoke("Failed to decode base64 data");
-                return;
+            PrinterOutput output = this.transport != null ? this.transport : new USBPrinterOutput(socket, this.usbEndpoint);
+            if (this.chunkSizer != null) {
+                output = new ChunkedPrinterOutput(output, this.chunkSizer);
             }
-            
-            Log.d(LOG_TAG, "Decoded bytes length: " + bytes.length);
-            Log.d(LOG_TAG, "First 20 bytes: " + bytesToHex(bytes, Math.min(20, bytes.length)));
-            
-            Log.d(LOG_TAG, "Starting USB bulk transfer...");
-            int b = socket.bulkTransfer(this.usbEndpoint, bytes, bytes.length, 100000);
-            Log.d(LOG_TAG, "USB bulk transfer completed with result: " + b);
-            
-            if (b > 0) {
-                Log.d(LOG_TAG, "SUCCESS: Sent " + b + " bytes successfully");
-                if (this.callSuccess != null) {
-                    this.callSuccess.invoke();
+            if (this.statusChannel != null) {
+                output = FlowControlledPrinterOutput.forRawData(output, this.statusChannel);
+            }
+            int sent;
+            try {
+                sent = Base64PrinterDecoder.decode(rawData, output);
+                if (sent == 0) {
+                    Log.e(LOG_TAG, "ERROR: Failed to decode base64 data or result is empty");
+                    this.callError.invoke("Failed to decode base64 data");
+                    return;
+                }
+                output.flush();
+                if (this.statusChannel != null) {
+                    this.statusChannel.awaitPrinted();
                 }
-            } else {
-                Log.e(LOG_TAG, "ERROR: USB transfer failed with status: " + b);
+            } catch (IOException e) {
+                Log.e(LOG_TAG, "ERROR: " + e.getMessage());
                 if (this.callError != null) {
-                    this.callError.invoke("USB transfer failed with status: " + b);
+                    this.callError.invoke(e.getMessage());
                 }
+                return;
+            }
+            Log.d(LOG_TAG, "SUCCESS: Sent " + sent + " bytes successfully");
+            if (this.callSuccess != null) {
+                this.callSuccess.invoke();
             }
             
             Log.d(LOG_TAG, "=== USB THREAD WRITE END ===");
@@ -101,12 +119,5 @@ public class USBThreadWrite implements Runnable {
             }
        }
     }
-    
-    private String bytesToHex(byte[] bytes, int length) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < length && i < bytes.length; i++) {
-            sb.append(String.format("%02X ", bytes[i]));
-        }
-        return sb.toString();
-    }
+
 }
@@ -0,0 +1,414 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.InterfaceAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds printers by sending a handful of UDP queries (mDNS for
+ * _pdl-datastream._tcp, an SNMP Printer-MIB get and the Epson ENPC probe) and
+ * collecting the answers in one listen window, instead of knocking on every
+ * TCP port of every host.
+ *
+ * Replies are matched to their query by source port, so the queries can be
+ * pointed at any address, e.g. a local responder in tests.
+ */
+
+public class UdpPrinterDiscovery {
+
+    public final static int DEFAULT_LISTEN_WINDOW = 1500;
+    public final static int MDNS_PORT = 5353;
+    public final static int SNMP_PORT = 161;
+    public final static int ENPC_PORT = 3289;
+    public final static int RAW_PRINT_PORT = 9100;
+
+    private final static String MDNS_ADDRESS = "224.0.0.251";
+    private final static String PDL_SERVICE = "_pdl-datastream._tcp.local";
+    // prtGeneralConfigChanges.1, only answered by agents that implement the Printer-MIB
+    private final static int[] PRINTER_MIB_OID = { 1, 3, 6, 1, 2, 1, 43, 5, 1, 1, 1, 1 };
+    private final static Charset ASCII = Charset.forName("US-ASCII");
+
+    private final static int DNS_TYPE_PTR = 12;
+    private final static int DNS_TYPE_SRV = 33;
+
+    /**
+     * Decides whether a reply came from a printer.
+     */
+    public interface ResponseParser {
+        /**
+         * Returns the port to print to, or -1 when the reply is not from a printer.
+         */
+        int parse(byte[] data, int length);
+    }
+
+    public static class Query {
+        final InetSocketAddress target;
+        final byte[] payload;
+        final ResponseParser parser;
+
+        public Query(InetSocketAddress target, byte[] payload, ResponseParser parser) {
+            this.target = target;
+            this.payload = payload;
+            this.parser = parser;
+        }
+    }
+
+    private final List<Query> mQueries;
+    private final int mListenWindow;
+    private volatile boolean mCancelled = false;
+    private volatile DatagramSocket mSocket;
+
+    public UdpPrinterDiscovery(List<Query> queries, int listenWindow) {
+        this.mQueries = queries;
+        this.mListenWindow = listenWindow;
+    }
+
+    /**
+     * mDNS to the link-local group, SNMP and ENPC to every interface broadcast address.
+     */
+    public static List<Query> defaultQueries() throws IOException {
+        List<Query> queries = new ArrayList<>();
+        queries.add(mdnsQuery(new InetSocketAddress(InetAddress.getByName(MDNS_ADDRESS), MDNS_PORT)));
+        for (InetAddress broadcast : localBroadcastAddresses()) {
+            queries.add(snmpQuery(new InetSocketAddress(broadcast, SNMP_PORT)));
+            queries.add(enpcQuery(new InetSocketAddress(broadcast, ENPC_PORT)));
+        }
+        return queries;
+    }
+
+    public static List<InetAddress> localBroadcastAddresses() throws SocketException {
+        Set<InetAddress> addresses = new LinkedHashSet<>();
+        for (NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+            if (!networkInterface.isUp() || networkInterface.isLoopback()) {
+                continue;
+            }
+            for (InterfaceAddress interfaceAddress : networkInterface.getInterfaceAddresses()) {
+                if (interfaceAddress.getAddress() instanceof Inet4Address && interfaceAddress.getBroadcast() != null) {
+                    addresses.add(interfaceAddress.getBroadcast());
+                }
+            }
+        }
+        try {
+            addresses.add(InetAddress.getByName("255.255.255.255"));
+        } catch (IOException e) {
+            // a literal address, never resolved
+        }
+        return new ArrayList<>(addresses);
+    }
+
+    /**
+     * Sends every query, then reports each printer that answers within the
+     * listen window, once per host.
+     */
+    public void discover(NetPrinterScanner.Listener listener) throws IOException {
+        Map<Integer, ResponseParser> parsers = new HashMap<>();
+        DatagramSocket socket = new DatagramSocket();
+        mSocket = socket;
+        try {
+            socket.setBroadcast(true);
+            for (Query query : mQueries) {
+                parsers.put(query.target.getPort(), query.parser);
+                try {
+                    socket.send(new DatagramPacket(query.payload, query.payload.length, query.target));
+                } catch (IOException e) {
+                    // e.g. no route for this broadcast address, the others may still work
+                }
+            }
+
+            Set<String> seen = new LinkedHashSet<>();
+            byte[] buffer = new byte[2048];
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            long deadline = System.currentTimeMillis() + mListenWindow;
+            while (!mCancelled) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                socket.setSoTimeout((int) remaining);
+                packet.setLength(buffer.length);
+                try {
+                    socket.receive(packet);
+                } catch (SocketTimeoutException e) {
+                    break;
+                }
+                ResponseParser parser = parsers.get(packet.getPort());
+                if (parser == null) {
+                    continue;
+                }
+                int port;
+                try {
+                    port = parser.parse(packet.getData(), packet.getLength());
+                } catch (RuntimeException e) {
+                    // one malformed reply must not end the listen window
+                    continue;
+                }
+                String host = packet.getAddress().getHostAddress();
+                if (port > 0 && seen.add(host)) {
+                    listener.onPrinterFound(host, port);
+                }
+            }
+        } catch (SocketException e) {
+            // closed by cancel()
+            if (!mCancelled) {
+                throw e;
+            }
+        } finally {
+            mSocket = null;
+            socket.close();
+        }
+    }
+
+    public void cancel() {
+        mCancelled = true;
+        DatagramSocket socket = mSocket;
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    /*
+     * mDNS
+     */
+
+    public static Query mdnsQuery(InetSocketAddress target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // id 0, standard query, one question
+        writeShort(out, 0);
+        writeShort(out, 0);
+        writeShort(out, 1);
+        writeShort(out, 0);
+        writeShort(out, 0);
+        writeShort(out, 0);
+        for (String label : PDL_SERVICE.split("\\.")) {
+            byte[] bytes = label.getBytes(ASCII);
+            out.write(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        out.write(0);
+        writeShort(out, DNS_TYPE_PTR);
+        // class IN with the unicast-response bit, so the answer comes straight back to us
+        writeShort(out, 0x8001);
+        return new Query(target, out.toByteArray(), new ResponseParser() {
+            @Override
+            public int parse(byte[] data, int length) {
+                return parseMdnsResponse(data, length);
+            }
+        });
+    }
+
+    static int parseMdnsResponse(byte[] data, int length) {
+        try {
+            if (length < 12 || (data[2] & 0x80) == 0) {
+                // not a response
+                return -1;
+            }
+            int questions = readShort(data, 4);
+            int records = readShort(data, 6) + readShort(data, 8) + readShort(data, 10);
+            int offset = 12;
+            for (int i = 0; i < questions; i++) {
+                offset = skipName(data, offset, length) + 4;
+            }
+            boolean printer = false;
+            int port = RAW_PRINT_PORT;
+            for (int i = 0; i < records && offset < length; i++) {
+                String name = readName(data, offset, length);
+                offset = skipName(data, offset, length);
+                if (offset + 10 > length) {
+                    break;
+                }
+                int type = readShort(data, offset);
+                int dataLength = readShort(data, offset + 8);
+                int rdata = offset + 10;
+                if (name.toLowerCase().endsWith(PDL_SERVICE)) {
+                    if (type == DNS_TYPE_PTR) {
+                        printer = true;
+                    } else if (type == DNS_TYPE_SRV && rdata + 6 <= length) {
+                        printer = true;
+                        port = readShort(data, rdata + 4);
+                    }
+                }
+                offset = rdata + dataLength;
+            }
+            return printer ? port : -1;
+        } catch (IndexOutOfBoundsException e) {
+            // truncated or malformed packet
+            return -1;
+        }
+    }
+
+    private static int skipName(byte[] data, int offset, int length) {
+        while (offset < length) {
+            int label = data[offset] & 0xff;
+            if (label == 0) {
+                return offset + 1;
+            }
+            if ((label & 0xc0) == 0xc0) {
+                return offset + 2;
+            }
+            offset += label + 1;
+        }
+        throw new ArrayIndexOutOfBoundsException(offset);
+    }
+
+    private static String readName(byte[] data, int offset, int length) {
+        StringBuilder name = new StringBuilder();
+        // bounded so a compression loop cannot spin forever
+        for (int jumps = 0; jumps < 16 && offset < length; ) {
+            int label = data[offset] & 0xff;
+            if (label == 0) {
+                break;
+            }
+            if ((label & 0xc0) == 0xc0) {
+                if (offset + 1 >= length) {
+                    break;
+                }
+                offset = ((label & 0x3f) << 8) | (data[offset + 1] & 0xff);
+                jumps++;
+                continue;
+            }
+            if (offset + 1 + label > length) {
+                // label runs past the end of the packet
+                break;
+            }
+            if (name.length() > 0) {
+                name.append('.');
+            }
+            name.append(new String(data, offset + 1, label, ASCII));
+            offset += label + 1;
+        }
+        return name.toString();
+    }
+
+    /*
+     * SNMP
+     */
+
+    public static Query snmpQuery(InetSocketAddress target) {
+        ByteArrayOutputStream oid = new ByteArrayOutputStream();
+        oid.write(PRINTER_MIB_OID[0] * 40 + PRINTER_MIB_OID[1]);
+        for (int i = 2; i < PRINTER_MIB_OID.length; i++) {
+            // every arc of this OID fits in one byte
+            oid.write(PRINTER_MIB_OID[i]);
+        }
+        byte[] varBind = tlv(0x30, concat(tlv(0x06, oid.toByteArray()), tlv(0x05, new byte[0])));
+        byte[] pdu = tlv(0xa0, concat(tlv(0x02, new byte[] { 1 }), tlv(0x02, new byte[] { 0 }),
+                tlv(0x02, new byte[] { 0 }), tlv(0x30, varBind)));
+        byte[] message = tlv(0x30, concat(tlv(0x02, new byte[] { 0 }), tlv(0x04, "public".getBytes(ASCII)), pdu));
+        return new Query(target, message, new ResponseParser() {
+            @Override
+            public int parse(byte[] data, int length) {
+                return parseSnmpResponse(data, length);
+            }
+        });
+    }
+
+    static int parseSnmpResponse(byte[] data, int length) {
+        try {
+            // message: SEQUENCE { version, community, GetResponse-PDU }
+            int[] tl = readTagLength(data, 0);
+            if (tl[0] != 0x30) {
+                return -1;
+            }
+            int offset = tl[2];
+            offset = skipTlv(data, offset);
+            offset = skipTlv(data, offset);
+            tl = readTagLength(data, offset);
+            if (tl[0] != 0xa2) {
+                return -1;
+            }
+            // PDU: request-id, error-status, ...
+            offset = skipTlv(data, tl[2]);
+            tl = readTagLength(data, offset);
+            if (tl[0] != 0x02 || tl[1] != 1 || tl[2] >= length) {
+                return -1;
+            }
+            // noSuchName and friends: an SNMP agent, but not a printer
+            return data[tl[2]] == 0 ? RAW_PRINT_PORT : -1;
+        } catch (IndexOutOfBoundsException e) {
+            // truncated or malformed packet
+            return -1;
+        }
+    }
+
+    /**
+     * Returns { tag, length, offset of the value }.
+     */
+    private static int[] readTagLength(byte[] data, int offset) {
+        int tag = data[offset] & 0xff;
+        int length = data[offset + 1] & 0xff;
+        int value = offset + 2;
+        if ((length & 0x80) != 0) {
+            int count = length & 0x7f;
+            length = 0;
+            for (int i = 0; i < count; i++) {
+                length = (length << 8) | (data[value++] & 0xff);
+            }
+        }
+        return new int[] { tag, length, value };
+    }
+
+    private static int skipTlv(byte[] data, int offset) {
+        int[] tl = readTagLength(data, offset);
+        return tl[2] + tl[1];
+    }
+
+    private static byte[] tlv(int tag, byte[] value) {
+        // all our values are shorter than 128 bytes
+        byte[] out = new byte[value.length + 2];
+        out[0] = (byte) tag;
+        out[1] = (byte) value.length;
+        System.arraycopy(value, 0, out, 2, value.length);
+        return out;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    /*
+     * Epson ENPC
+     */
+
+    public static Query enpcQuery(InetSocketAddress target) {
+        byte[] payload = { 'E', 'P', 'S', 'O', 'N', 'Q', 0x03, 0x00, 0x00, 0x00, 0x00 };
+        return new Query(target, payload, new ResponseParser() {
+            @Override
+            public int parse(byte[] data, int length) {
+                // replies start with "EPSON" followed by anything but our own 'Q'
+                if (length > 5 && new String(data, 0, 5, ASCII).equals("EPSON") && data[5] != 'Q') {
+                    return RAW_PRINT_PORT;
+                }
+                return -1;
+            }
+        });
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write((value >> 8) & 0xff);
+        out.write(value & 0xff);
+    }
+
+    private static int readShort(byte[] data, int offset) {
+        return ((data[offset] & 0xff) << 8) | (data[offset + 1] & 0xff);
+    }
+}
@@ -0,0 +1,81 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveChunkSizerTest {
+
+    @Test
+    public void startsWithinTheBounds() {
+        assertEquals(512, new AdaptiveChunkSizer(512, 64, 4096).getChunkSize());
+        assertEquals(4096, new AdaptiveChunkSizer(512, 65536, 4096).getChunkSize());
+        assertEquals(512, AdaptiveChunkSizer.forBluetooth().getChunkSize());
+        assertEquals(4096, AdaptiveChunkSizer.forUsb().getChunkSize());
+    }
+
+    @Test
+    public void growsWhileThroughputImprovesAndTurnsWhenItDrops() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(128, 512, 4096);
+        // 1 byte per ns
+        sample(sizer, 512);
+        assertEquals(1024, sizer.getChunkSize());
+        // 2 bytes per ns
+        sample(sizer, 512);
+        assertEquals(2048, sizer.getChunkSize());
+        // back to 1 byte per ns
+        sample(sizer, 2048);
+        assertEquals(1024, sizer.getChunkSize());
+    }
+
+    @Test
+    public void turnsAroundAtTheCeiling() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(128, 2048, 4096);
+        sample(sizer, 2048);
+        assertEquals(4096, sizer.getChunkSize());
+        // faster still, but there is no larger size to try
+        sample(sizer, 1024);
+        assertEquals(2048, sizer.getChunkSize());
+    }
+
+    @Test
+    public void ignoresShortTailWrites() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(128, 512, 4096);
+        for (int i = 0; i < 8; i++) {
+            sizer.record(100, 100);
+        }
+        assertEquals(512, sizer.getChunkSize());
+    }
+
+    @Test
+    public void chunkedOutputSplitsWritesAtTheChunkSize() throws IOException {
+        RecordingOutput recording = new RecordingOutput();
+        PrinterOutput output = new ChunkedPrinterOutput(recording, new AdaptiveChunkSizer(128, 128, 128));
+        byte[] data = new byte[1000];
+        new Random(5).nextBytes(data);
+        output.write(data, 0, data.length);
+        output.flush();
+
+        assertArrayEquals(data, recording.bytes());
+        assertEquals(8, recording.writes.size());
+        for (int i = 0; i < 7; i++) {
+            assertEquals(128, (int) recording.writes.get(i));
+        }
+        assertEquals(1000 - 7 * 128, (int) recording.writes.get(7));
+        assertTrue(recording.flushed);
+    }
+
+    /**
+     * Records one full sample of chunks at the current size, each taking
+     * nanos to send.
+     */
+    private static void sample(AdaptiveChunkSizer sizer, long nanos) {
+        int size = sizer.getChunkSize();
+        for (int i = 0; i < 4; i++) {
+            sizer.record(size, nanos);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ArpTableTest {
+
+    @Test
+    public void keepsOnlyResolvedEntries() throws IOException {
+        File table = File.createTempFile("arp", "");
+        try {
+            Writer writer = new FileWriter(table);
+            writer.write("IP address       HW type     Flags       HW address            Mask     Device\n"
+                    + "192.168.1.1      0x1         0x2         a4:91:b1:00:00:01     *        wlan0\n"
+                    + "192.168.1.20     0x1         0x6         00:11:62:aa:bb:cc     *        wlan0\n"
+                    // incomplete: the host did not answer
+                    + "192.168.1.30     0x1         0x0         00:00:00:00:00:00     *        wlan0\n"
+                    + "192.168.1.40     0x1         0x0         00:11:62:aa:bb:dd     *        wlan0\n"
+                    + "192.168.1.50     0x1         bad         00:11:62:aa:bb:ee     *        wlan0\n"
+                    + "truncated row\n");
+            writer.close();
+
+            Set<InetAddress> expected = new HashSet<>(Arrays.asList(
+                    InetAddress.getByName("192.168.1.1"), InetAddress.getByName("192.168.1.20")));
+            assertEquals(expected, ArpTable.read(table));
+        } finally {
+            table.delete();
+        }
+    }
+
+    @Test
+    public void unreadableTableIsEmpty() {
+        assertTrue(ArpTable.read(new File("/no/such/arp")).isEmpty());
+    }
+
+    @Test
+    public void aliveKeepsTheSweepOrder() throws IOException {
+        InetAddress a = InetAddress.getByName("10.0.0.1");
+        InetAddress b = InetAddress.getByName("10.0.0.2");
+        InetAddress c = InetAddress.getByName("10.0.0.3");
+        List<InetAddress> alive = ArpTable.alive(Arrays.asList(a, b, c), new HashSet<>(Arrays.asList(c, a)));
+        assertEquals(Arrays.asList(a, c), alive);
+        assertEquals(Collections.<InetAddress>emptyList(),
+                ArpTable.alive(Arrays.asList(a, b), Collections.<InetAddress>emptySet()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class BarcodePrinterTest {
+
+    @Test
+    public void buildsSettingsThenFunctionB() throws IOException {
+        BarcodeOptions options = BarcodeOptions.defaults()
+                .setSymbology(BarcodeOptions.Symbology.EAN13)
+                .setHeight(100)
+                .setWidth(2)
+                .setHriPosition(BarcodeOptions.HriPosition.BOTH)
+                .setHriSmallFont(true);
+        byte[] command = BarcodePrinter.nativeBarcode("4006381333931", options);
+
+        byte[] expected = {
+                0x1B, 0x61, 0x31,
+                0x1D, 0x68, 100,
+                0x1D, 0x77, 2,
+                0x1D, 0x48, 3,
+                0x1D, 0x66, 1,
+                0x1D, 0x6B, 67, 13,
+                '4', '0', '0', '6', '3', '8', '1', '3', '3', '3', '9', '3', '1',
+                0x0A
+        };
+        assertArrayEquals(expected, command);
+    }
+
+    @Test
+    public void selectsCode128SetBAndEscapesBraces() throws IOException {
+        byte[] command = BarcodePrinter.nativeBarcode("a{b", BarcodeOptions.defaults());
+        int payload = 3 + 3 * 4 + 4;
+        assertEquals(73, command[payload - 2]);
+        assertEquals(6, command[payload - 1]);
+        assertArrayEquals(new byte[] { '{', 'B', 'a', '{', '{', 'b' },
+                Arrays.copyOfRange(command, payload, payload + 6));
+    }
+
+    @Test
+    public void keepsExplicitCode128CodeSet() throws IOException {
+        byte[] command = BarcodePrinter.nativeBarcode("{C1234", BarcodeOptions.defaults());
+        int payload = 3 + 3 * 4 + 4;
+        assertEquals(6, command[payload - 1]);
+        assertArrayEquals(new byte[] { '{', 'C', '1', '2', '3', '4' },
+                Arrays.copyOfRange(command, payload, payload + 6));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsDataLongerThanFunctionBAllows() throws IOException {
+        char[] data = new char[256];
+        Arrays.fill(data, '1');
+        BarcodePrinter.nativeBarcode(new String(data),
+                BarcodeOptions.defaults().setSymbology(BarcodeOptions.Symbology.CODE39));
+    }
+
+    @Test
+    public void printsNativeBarcodeInOneWrite() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BarcodePrinter.print("123", BarcodeOptions.defaults(), new StreamPrinterOutput(bytes));
+        assertArrayEquals(BarcodePrinter.nativeBarcode("123", BarcodeOptions.defaults()), bytes.toByteArray());
+    }
+
+    @Test
+    public void countsCode128ModulesByCodeSet() throws IOException {
+        // start, two digit pairs, check symbol, stop
+        assertEquals(4 * 11 + 13, BarcodePrinter.nativeModules("{C1234", BarcodeOptions.Symbology.CODE128));
+        // start, a, escaped brace, b, check symbol, stop
+        assertEquals(5 * 11 + 13, BarcodePrinter.nativeModules("a{b", BarcodeOptions.Symbology.CODE128));
+    }
+
+    @Test
+    public void narrowsBarsToFitThePaper() throws IOException {
+        String data = letters(14);
+        BarcodeOptions options = BarcodeOptions.defaults().setPaperWidth(384);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BarcodePrinter.print(data, options, new StreamPrinterOutput(bytes));
+        assertArrayEquals(BarcodePrinter.nativeBarcode(data, BarcodeOptions.defaults().setWidth(2)),
+                bytes.toByteArray());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsEmptyData() throws IOException {
+        BarcodePrinter.print("", BarcodeOptions.defaults(), new StreamPrinterOutput(new ByteArrayOutputStream()));
+    }
+
+    private static String letters(int count) {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            data.append((char) ('a' + i % 26));
+        }
+        return data.toString();
+    }
+}
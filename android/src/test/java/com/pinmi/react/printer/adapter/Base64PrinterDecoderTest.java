@@ -0,0 +1,105 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class Base64PrinterDecoderTest {
+
+    @Test
+    public void decodesEveryTailLength() throws IOException {
+        assertDecodes("", new byte[0]);
+        assertDecodes("QQ==", new byte[] { 'A' });
+        assertDecodes("QUI=", new byte[] { 'A', 'B' });
+        assertDecodes("QUJD", new byte[] { 'A', 'B', 'C' });
+        assertDecodes("G0A=", new byte[] { 27, 64 });
+    }
+
+    @Test
+    public void acceptsMissingPaddingAndLineBreaks() throws IOException {
+        assertDecodes("QUI", new byte[] { 'A', 'B' });
+        assertDecodes("QU\nJD\r\nQQ", new byte[] { 'A', 'B', 'C', 'A' });
+        assertDecodes(" Q U J D ", new byte[] { 'A', 'B', 'C' });
+    }
+
+    @Test
+    public void decodesAcrossBufferBoundaries() throws IOException {
+        Random random = new Random(7);
+        for (int size : new int[] { Base64PrinterDecoder.BUFFER_SIZE - 2, Base64PrinterDecoder.BUFFER_SIZE,
+                Base64PrinterDecoder.BUFFER_SIZE + 1, 3 * Base64PrinterDecoder.BUFFER_SIZE + 2 }) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            RecordingOutput output = new RecordingOutput();
+            assertEquals(size, Base64PrinterDecoder.decode(encode(data), output));
+            assertArrayEquals(data, output.bytes());
+            for (int length : output.writes) {
+                assertTrue(length <= Base64PrinterDecoder.BUFFER_SIZE);
+            }
+        }
+    }
+
+    @Test
+    public void nullDecodesToNothing() throws IOException {
+        RecordingOutput output = new RecordingOutput();
+        assertEquals(0, Base64PrinterDecoder.decode(null, output));
+        assertEquals(0, output.writes.size());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsDataAfterPadding() throws IOException {
+        Base64PrinterDecoder.decode("QQ==QUJD", new RecordingOutput());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedQuantum() throws IOException {
+        Base64PrinterDecoder.decode("QUJDQ", new RecordingOutput());
+    }
+
+    @Test
+    public void writesNothingWhenTheTailIsMalformed() {
+        byte[] data = new byte[3 * Base64PrinterDecoder.BUFFER_SIZE];
+        new Random(3).nextBytes(data);
+        for (String tail : new String[] { "QQ==QUJD", "Q" }) {
+            RecordingOutput output = new RecordingOutput();
+            try {
+                Base64PrinterDecoder.decode(encode(data) + tail, output);
+                fail();
+            } catch (IOException e) {
+                assertEquals(0, output.writes.size());
+            }
+        }
+    }
+
+    private static void assertDecodes(String base64, byte[] expected) throws IOException {
+        RecordingOutput output = new RecordingOutput();
+        assertEquals(expected.length, Base64PrinterDecoder.decode(base64, output));
+        assertArrayEquals(expected, output.bytes());
+        assertFalse(output.flushed);
+    }
+
+    private static String encode(byte[] data) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        StringBuilder text = new StringBuilder((data.length + 2) / 3 * 4);
+        for (int i = 0; i < data.length; i += 3) {
+            int n = (data[i] & 0xff) << 16;
+            if (i + 1 < data.length) {
+                n |= (data[i + 1] & 0xff) << 8;
+            }
+            if (i + 2 < data.length) {
+                n |= data[i + 2] & 0xff;
+            }
+            text.append(alphabet.charAt((n >> 18) & 63));
+            text.append(alphabet.charAt((n >> 12) & 63));
+            text.append(i + 1 < data.length ? alphabet.charAt((n >> 6) & 63) : '=');
+            text.append(i + 2 < data.length ? alphabet.charAt(n & 63) : '=');
+            // line breaks like android.util.Base64.DEFAULT
+            if ((i / 3 + 1) % 19 == 0) {
+                text.append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class EscPosImageEncoderTest {
+
+    @Test
+    public void encodesRasterInWholeBands() throws IOException {
+        RecordingOutput output = new RecordingOutput();
+        new EscPosImageEncoder().encode(rows(10, 30), ImagePrintOptions.ImageMode.RASTER, output);
+
+        byte[] bytes = output.bytes();
+        assertEquals(3 + (8 + 24 * 2) + (8 + 6 * 2), bytes.length);
+        assertArrayEquals(new byte[] { 0x1B, 0x61, 0x31 }, slice(bytes, 0, 3));
+        // GS v 0, 2 bytes per row, 24 rows
+        assertArrayEquals(new byte[] { 0x1D, 0x76, 0x30, 0, 2, 0, 24, 0 }, slice(bytes, 3, 8));
+        assertEquals(0, bytes[11]);
+        assertEquals(23, bytes[11 + 23 * 2]);
+        // the last band only has the 6 rows left
+        int second = 3 + 8 + 48;
+        assertArrayEquals(new byte[] { 0x1D, 0x76, 0x30, 0, 2, 0, 6, 0 }, slice(bytes, second, 8));
+        assertEquals(24, bytes[second + 8]);
+        assertEquals(29, bytes[bytes.length - 2]);
+        // alignment, then one write per band
+        assertEquals(3, output.writes.size());
+        assertTrue(output.flushed);
+    }
+
+    @Test
+    public void encodesBitImageStripes() throws IOException {
+        RecordingOutput output = new RecordingOutput();
+        new EscPosImageEncoder().encode(diagonal(), ImagePrintOptions.ImageMode.BIT_IMAGE, output);
+
+        byte[] expected = {
+                0x1B, 0x33, 24, 0x1B, 0x61, 0x31,
+                0x1B, 0x2A, 33, 2, 0,
+                (byte) 0x80, 0, 0,
+                0x40, 0, 0,
+                0x0A,
+                0x1B, 0x33, 32, 0x0A
+        };
+        assertArrayEquals(expected, output.bytes());
+        assertTrue(output.flushed);
+    }
+
+    @Test
+    public void reusesBuffersAcrossImages() throws IOException {
+        EscPosImageEncoder encoder = new EscPosImageEncoder();
+        RecordingOutput large = new RecordingOutput();
+        encoder.encode(rows(64, 48), ImagePrintOptions.ImageMode.RASTER, large);
+        RecordingOutput small = new RecordingOutput();
+        encoder.encode(rows(10, 30), ImagePrintOptions.ImageMode.RASTER, small);
+
+        RecordingOutput fresh = new RecordingOutput();
+        new EscPosImageEncoder().encode(rows(10, 30), ImagePrintOptions.ImageMode.RASTER, fresh);
+        assertArrayEquals(fresh.bytes(), small.bytes());
+    }
+
+    /**
+     * An image whose row y has y in its first byte.
+     */
+    private static RasterSource rows(final int width, final int height) {
+        return new RasterSource() {
+            private int mRow = 0;
+
+            @Override
+            public int getWidth() {
+                return width;
+            }
+
+            @Override
+            public int getHeight() {
+                return height;
+            }
+
+            @Override
+            public void readRow(byte[] buffer, int offset) {
+                for (int i = 0; i < (width + 7) / 8; i++) {
+                    buffer[offset + i] = 0;
+                }
+                buffer[offset] = (byte) mRow++;
+            }
+        };
+    }
+
+    /**
+     * A 2x2 image with its top-left and bottom-right pixels set.
+     */
+    private static RasterSource diagonal() {
+        return new RasterSource() {
+            private int mRow = 0;
+
+            @Override
+            public int getWidth() {
+                return 2;
+            }
+
+            @Override
+            public int getHeight() {
+                return 2;
+            }
+
+            @Override
+            public void readRow(byte[] buffer, int offset) {
+                buffer[offset] = (byte) (0x80 >> mRow++);
+            }
+        };
+    }
+
+    private static byte[] slice(byte[] bytes, int offset, int length) {
+        byte[] slice = new byte[length];
+        System.arraycopy(bytes, offset, slice, 0, length);
+        return slice;
+    }
+}
@@ -0,0 +1,54 @@
+package com.pinmi.react.printer.adapter;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Answers DLE EOT and GS r 1 the way an ESC/POS printer does, and keeps
+ * everything written to it.
+ */
+
+class FakePrinter extends RecordingOutput implements PrinterInput {
+    final Queue<Integer> replies = new ArrayDeque<>();
+    boolean answersStatus = true;
+    boolean answersTransmit = true;
+    boolean paperEnd = false;
+    int statusQueries = 0;
+    int transmitRequests = 0;
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        super.write(bytes, offset, length);
+        for (int i = offset; i + 2 < offset + length; i++) {
+            if (bytes[i] == 0x10 && bytes[i + 1] == 0x04) {
+                int n = bytes[i + 2];
+                if (n == 1) {
+                    statusQueries++;
+                }
+                if (answersStatus) {
+                    replies.add(n == 2 && paperEnd ? 0x32 : 0x12);
+                }
+            } else if (bytes[i] == 0x1D && bytes[i + 1] == 0x72 && bytes[i + 2] == 1) {
+                transmitRequests++;
+                if (answersTransmit) {
+                    replies.add(0x00);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length, int timeoutMs) {
+        Integer reply = replies.poll();
+        if (reply == null) {
+            try {
+                Thread.sleep(timeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0;
+        }
+        buffer[offset] = reply.byteValue();
+        return 1;
+    }
+}
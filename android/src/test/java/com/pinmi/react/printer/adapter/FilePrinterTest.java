@@ -0,0 +1,70 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FilePrinterTest {
+
+    @Test
+    public void sendsAFileLargerThanOneMapWindow() throws IOException {
+        byte[] data = new byte[1024 * 1024 + 3 * FilePrinter.CHUNK_SIZE + 5];
+        new Random(11).nextBytes(data);
+        File file = write(data);
+        try {
+            RecordingOutput output = new RecordingOutput();
+            FilePrinter.print(null, file.getAbsolutePath(), output);
+            assertArrayEquals(data, output.bytes());
+            for (int length : output.writes) {
+                assertTrue(length <= FilePrinter.CHUNK_SIZE);
+            }
+            assertTrue(output.flushed);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void emptyFileSendsNothing() throws IOException {
+        File file = write(new byte[0]);
+        try {
+            RecordingOutput output = new RecordingOutput();
+            FilePrinter.print(null, file.getAbsolutePath(), output);
+            assertEquals(0, output.writes.size());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void rejectsMissingFile() throws IOException {
+        FilePrinter.print(null, "/no/such/job.bin", new RecordingOutput());
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void rejectsEmptySource() throws IOException {
+        FilePrinter.print(null, "", new RecordingOutput());
+    }
+
+    @Test(expected = IOException.class)
+    public void contentUriNeedsAContext() throws IOException {
+        FilePrinter.print(null, "content://media/external/file/1", new RecordingOutput());
+    }
+
+    private static File write(byte[] data) throws IOException {
+        File file = File.createTempFile("job", ".bin");
+        FileOutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(data);
+        } finally {
+            stream.close();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,65 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FlowControlledPrinterOutputTest {
+
+    private final static byte[] COMMAND = { 0x1D, 0x76, 0x30, 0, 1, 0 };
+
+    @Test
+    public void checksThePrinterBeforeTheFirstByte() throws IOException {
+        FakePrinter printer = new FakePrinter();
+        PrinterOutput output = new FlowControlledPrinterOutput(printer, channel(printer), 100);
+        output.write(COMMAND, 0, COMMAND.length);
+        output.write(COMMAND, 0, COMMAND.length);
+        assertEquals(1, printer.statusQueries);
+        // the query, then the commands as they were written
+        assertEquals(Arrays.asList(12, 6, 6), printer.writes);
+    }
+
+    @Test
+    public void checksAgainOnceAWindowHasBeenSent() throws IOException {
+        FakePrinter printer = new FakePrinter();
+        PrinterOutput output = new FlowControlledPrinterOutput(printer, channel(printer), 10);
+        for (int i = 0; i < 4; i++) {
+            output.write(COMMAND, 0, COMMAND.length);
+        }
+        assertEquals(2, printer.statusQueries);
+        assertTrue(printer.flushed);
+        // no query lands inside a command
+        assertEquals(Arrays.asList(12, 6, 6, 12, 6, 6), printer.writes);
+    }
+
+    @Test
+    public void rawDataIsOnlyCheckedOnce() throws IOException {
+        FakePrinter printer = new FakePrinter();
+        PrinterOutput output = FlowControlledPrinterOutput.forRawData(printer, channel(printer));
+        byte[] data = new byte[FlowControlledPrinterOutput.DEFAULT_WINDOW];
+        for (int i = 0; i < 4; i++) {
+            output.write(data, 0, data.length);
+        }
+        assertEquals(1, printer.statusQueries);
+    }
+
+    @Test
+    public void silentPrinterIsWrittenToWithoutPausing() throws IOException {
+        FakePrinter printer = new FakePrinter();
+        printer.answersStatus = false;
+        PrinterOutput output = new FlowControlledPrinterOutput(printer, channel(printer), 6);
+        for (int i = 0; i < 3; i++) {
+            output.write(COMMAND, 0, COMMAND.length);
+        }
+        // asked once, then treated as write-only
+        assertEquals(1, printer.statusQueries);
+        assertEquals(12 + 3 * COMMAND.length, printer.bytes().length);
+    }
+
+    private static PrinterStatusChannel channel(FakePrinter printer) {
+        return new PrinterStatusChannel(printer, printer, 50);
+    }
+}
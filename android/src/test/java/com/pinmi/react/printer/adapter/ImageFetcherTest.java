@@ -0,0 +1,169 @@
+package com.pinmi.react.printer.adapter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ImageFetcherTest {
+
+    private HttpServer mServer;
+    private volatile byte[] mBody = new byte[64 * 1024];
+    private volatile String mCacheControl = "max-age=0";
+    private final List<String> mConditions = Collections.synchronizedList(new ArrayList<String>());
+    private final AtomicInteger mFullResponses = new AtomicInteger();
+    private volatile boolean mChangeEveryResponse = false;
+
+    @Before
+    public void startServer() throws IOException {
+        mServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        mServer.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = mBody;
+                if (mChangeEveryResponse) {
+                    // every request sees a new version of the image
+                    body = new byte[body.length + mFullResponses.get() % 7];
+                    Arrays.fill(body, (byte) mFullResponses.get());
+                }
+                String etag = "\"" + RasterCache.sha1(new String(body, "ISO-8859-1")) + "\"";
+                String condition = exchange.getRequestHeaders().getFirst("If-None-Match");
+                mConditions.add(String.valueOf(condition));
+                exchange.getResponseHeaders().add("ETag", etag);
+                exchange.getResponseHeaders().add("Cache-Control", mCacheControl);
+                if (etag.equals(condition)) {
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    mFullResponses.incrementAndGet();
+                    exchange.sendResponseHeaders(200, body.length);
+                    OutputStream out = exchange.getResponseBody();
+                    out.write(body);
+                    out.close();
+                }
+                exchange.close();
+            }
+        });
+        mServer.start();
+    }
+
+    @After
+    public void stopServer() {
+        mServer.stop(0);
+    }
+
+    @Test
+    public void revalidatesAnExpiredCopy() throws IOException {
+        String url = url("logo.png");
+        File first = fetch(url);
+        String version = ImageFetcher.getInstance().versionOf(first);
+        assertEquals(sha1(mBody), version);
+
+        File second = fetch(url);
+        assertEquals(first, second);
+        assertEquals(1, mFullResponses.get());
+        assertEquals("null", mConditions.get(0));
+        assertNotEquals("null", mConditions.get(1));
+        assertEquals(version, ImageFetcher.getInstance().versionOf(second));
+    }
+
+    @Test
+    public void reusesAFreshCopyWithoutARequest() throws IOException {
+        mCacheControl = "max-age=60";
+        String url = url("fresh.png");
+        fetch(url);
+        fetch(url);
+        assertEquals(1, mConditions.size());
+    }
+
+    @Test
+    public void newBytesGetANewVersion() throws IOException {
+        String url = url("changing.png");
+        String before = ImageFetcher.getInstance().versionOf(fetch(url));
+        byte[] changed = new byte[1000];
+        Arrays.fill(changed, (byte) 7);
+        mBody = changed;
+        File file = fetch(url);
+        assertNotEquals(before, ImageFetcher.getInstance().versionOf(file));
+        assertArrayEquals(changed, readFully(file));
+    }
+
+    @Test
+    public void concurrentFetchesOfOneUrlLeaveBodyAndVersionInStep() throws Exception {
+        mChangeEveryResponse = true;
+        final String url = url("shared.png");
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        final File[] stored = new File[1];
+        Thread[] threads = new Thread[6];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int n = 0; n < 10; n++) {
+                            File file = fetch(url);
+                            synchronized (stored) {
+                                stored[0] = file;
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(Collections.emptyList(), failures);
+        assertEquals(sha1(readFully(stored[0])), ImageFetcher.getInstance().versionOf(stored[0]));
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + mServer.getAddress().getPort() + "/" + System.nanoTime() + "/" + path;
+    }
+
+    private static File fetch(String url) throws IOException {
+        return ImageFetcher.getInstance().fetch(url, 2000, 2000);
+    }
+
+    private static byte[] readFully(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] data = new byte[(int) file.length()];
+            int read = 0;
+            while (read < data.length) {
+                read += in.read(data, read, data.length - read);
+            }
+            return data;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String sha1(byte[] bytes) throws IOException {
+        try {
+            return RasterCache.toHex(MessageDigest.getInstance("SHA-1").digest(bytes));
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+}
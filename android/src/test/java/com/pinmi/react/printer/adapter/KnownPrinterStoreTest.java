@@ -0,0 +1,180 @@
+package com.pinmi.react.printer.adapter;
+
+import android.content.SharedPreferences;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class KnownPrinterStoreTest {
+
+    private final static long DAY_MS = 24 * 60 * 60 * 1000;
+
+    @Test
+    public void listsMostRecentlySeenFirst() {
+        MemoryPreferences preferences = new MemoryPreferences();
+        long now = System.currentTimeMillis();
+        preferences.values.put("192.168.1.20:9100", now - 1000);
+        preferences.values.put("192.168.1.21:9100", now - 10);
+        preferences.values.put("192.168.1.22:9101", now - 500);
+        assertEquals(Arrays.asList(
+                NetPrinterDeviceId.valueOf("192.168.1.21", 9100),
+                NetPrinterDeviceId.valueOf("192.168.1.22", 9101),
+                NetPrinterDeviceId.valueOf("192.168.1.20", 9100)),
+                new KnownPrinterStore(preferences).getRecent());
+    }
+
+    @Test
+    public void dropsExpiredAndForeignEntries() {
+        MemoryPreferences preferences = new MemoryPreferences();
+        long now = System.currentTimeMillis();
+        preferences.values.put("192.168.1.20:9100", now - 31 * DAY_MS);
+        preferences.values.put("192.168.1.21:9100", "not a time");
+        preferences.values.put("no-port", now);
+        preferences.values.put("192.168.1.22:9100", now - 29 * DAY_MS);
+
+        assertEquals(Arrays.asList(NetPrinterDeviceId.valueOf("192.168.1.22", 9100)),
+                new KnownPrinterStore(preferences).getRecent());
+        // expired entries are removed for good, the unparsable key is only skipped
+        assertEquals(2, preferences.values.size());
+        assertTrue(preferences.values.containsKey("no-port"));
+    }
+
+    @Test
+    public void marksSeenAndClears() {
+        MemoryPreferences preferences = new MemoryPreferences();
+        KnownPrinterStore store = new KnownPrinterStore(preferences);
+        store.markSeen("10.0.0.5", 9100);
+        assertEquals(Arrays.asList(NetPrinterDeviceId.valueOf("10.0.0.5", 9100)), store.getRecent());
+        store.clear();
+        assertTrue(store.getRecent().isEmpty());
+    }
+
+    @Test
+    public void uninitializedStoreIsEmpty() {
+        KnownPrinterStore store = new KnownPrinterStore(null);
+        store.markSeen("10.0.0.5", 9100);
+        assertTrue(store.getRecent().isEmpty());
+    }
+
+    /**
+     * SharedPreferences kept in a map, applying edits at once.
+     */
+    private static class MemoryPreferences implements SharedPreferences {
+        final Map<String, Object> values = new HashMap<>();
+
+        @Override
+        public Map<String, ?> getAll() {
+            return new HashMap<>(values);
+        }
+
+        @Override
+        public String getString(String key, String defValue) {
+            return values.containsKey(key) ? (String) values.get(key) : defValue;
+        }
+
+        @Override
+        public Set<String> getStringSet(String key, Set<String> defValues) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getInt(String key, int defValue) {
+            return values.containsKey(key) ? (Integer) values.get(key) : defValue;
+        }
+
+        @Override
+        public long getLong(String key, long defValue) {
+            return values.containsKey(key) ? (Long) values.get(key) : defValue;
+        }
+
+        @Override
+        public float getFloat(String key, float defValue) {
+            return values.containsKey(key) ? (Float) values.get(key) : defValue;
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defValue) {
+            return values.containsKey(key) ? (Boolean) values.get(key) : defValue;
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return values.containsKey(key);
+        }
+
+        @Override
+        public Editor edit() {
+            return new Editor() {
+                @Override
+                public Editor putString(String key, String value) {
+                    values.put(key, value);
+                    return this;
+                }
+
+                @Override
+                public Editor putStringSet(String key, Set<String> value) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public Editor putInt(String key, int value) {
+                    values.put(key, value);
+                    return this;
+                }
+
+                @Override
+                public Editor putLong(String key, long value) {
+                    values.put(key, value);
+                    return this;
+                }
+
+                @Override
+                public Editor putFloat(String key, float value) {
+                    values.put(key, value);
+                    return this;
+                }
+
+                @Override
+                public Editor putBoolean(String key, boolean value) {
+                    values.put(key, value);
+                    return this;
+                }
+
+                @Override
+                public Editor remove(String key) {
+                    values.remove(key);
+                    return this;
+                }
+
+                @Override
+                public Editor clear() {
+                    values.clear();
+                    return this;
+                }
+
+                @Override
+                public boolean commit() {
+                    return true;
+                }
+
+                @Override
+                public void apply() {
+                }
+            };
+        }
+
+        @Override
+        public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+
+        @Override
+        public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import static org.junit.Assert.*;
+
+public class NetConnectionPoolTest {
+
+    private ServerSocket mFirst;
+    private ServerSocket mSecond;
+    private NetConnectionPool mPool;
+
+    @Before
+    public void listen() throws IOException {
+        // the backlog accepts the connects without anyone calling accept()
+        mFirst = new ServerSocket(0, 8, InetAddress.getLoopbackAddress());
+        mSecond = new ServerSocket(0, 8, InetAddress.getLoopbackAddress());
+        mPool = new NetConnectionPool();
+    }
+
+    @After
+    public void close() throws IOException {
+        mPool.closeAll();
+        mFirst.close();
+        mSecond.close();
+    }
+
+    @Test
+    public void reusesTheSocketOfAPrinter() throws IOException {
+        NetPrinterDeviceId id = idOf(mFirst);
+        Socket socket = mPool.acquire(id);
+        mPool.release(id, socket);
+        assertSame(socket, mPool.acquire(id));
+        assertSame(socket, mPool.peek(id));
+        assertNull(mPool.peek(idOf(mSecond)));
+    }
+
+    @Test
+    public void closingASocketInUseWaitsForItsRelease() throws IOException {
+        NetPrinterDeviceId id = idOf(mFirst);
+        Socket socket = mPool.acquire(id);
+        mPool.close(id);
+        assertFalse(socket.isClosed());
+        assertNull(mPool.peek(id));
+
+        mPool.release(id, socket);
+        assertTrue(socket.isClosed());
+        Socket fresh = mPool.acquire(id);
+        assertNotSame(socket, fresh);
+        mPool.release(id, fresh);
+    }
+
+    @Test
+    public void neverEvictsASocketInUse() throws IOException {
+        mPool.setMaxConnections(1);
+        NetPrinterDeviceId first = idOf(mFirst);
+        NetPrinterDeviceId second = idOf(mSecond);
+        Socket a = mPool.acquire(first);
+        Socket b = mPool.acquire(second);
+        // over the limit while both print
+        assertFalse(a.isClosed());
+        assertFalse(b.isClosed());
+
+        mPool.release(first, a);
+        assertTrue(a.isClosed());
+        assertNull(mPool.peek(first));
+        assertSame(b, mPool.peek(second));
+        mPool.release(second, b);
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedIdleSocket() throws IOException {
+        mPool.setMaxConnections(1);
+        NetPrinterDeviceId first = idOf(mFirst);
+        NetPrinterDeviceId second = idOf(mSecond);
+        Socket a = mPool.acquire(first);
+        mPool.release(first, a);
+        Socket b = mPool.acquire(second);
+        assertTrue(a.isClosed());
+        assertFalse(b.isClosed());
+        mPool.release(second, b);
+    }
+
+    @Test
+    public void closeAllLeavesSocketsInUseToTheirJobs() throws IOException {
+        NetPrinterDeviceId first = idOf(mFirst);
+        NetPrinterDeviceId second = idOf(mSecond);
+        Socket idle = mPool.acquire(first);
+        mPool.release(first, idle);
+        Socket busy = mPool.acquire(second);
+        mPool.closeAll();
+        assertTrue(idle.isClosed());
+        assertFalse(busy.isClosed());
+        // no longer pooled, so its release closes it
+        mPool.release(second, busy);
+        assertTrue(busy.isClosed());
+    }
+
+    private static NetPrinterDeviceId idOf(ServerSocket server) {
+        return NetPrinterDeviceId.valueOf(server.getInetAddress().getHostAddress(), server.getLocalPort());
+    }
+}
@@ -0,0 +1,121 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class NetPrinterScannerTest {
+
+    private ServerSocket mFirst;
+    private ServerSocket mSecond;
+    private int mClosedPort;
+
+    @Before
+    public void openPorts() throws IOException {
+        InetAddress loopback = InetAddress.getByName("127.0.0.1");
+        mFirst = new ServerSocket(0, 50, loopback);
+        mSecond = new ServerSocket(0, 50, loopback);
+        ServerSocket closed = new ServerSocket(0, 50, loopback);
+        mClosedPort = closed.getLocalPort();
+        closed.close();
+    }
+
+    @After
+    public void closePorts() throws IOException {
+        mFirst.close();
+        mSecond.close();
+    }
+
+    @Test
+    public void defaultsStayWellBelowDescriptorLimits() {
+        NetScanOptions options = NetScanOptions.defaults();
+        assertTrue(options.getConcurrency() <= 128);
+        assertArrayEquals(new int[] { 9100, 515, 3396, 9303 }, options.getPorts());
+    }
+
+    @Test
+    public void narrowsWideSubnetsToTheirSlash24() throws IOException {
+        Set<InetAddress> hosts = new LinkedHashSet<>();
+        NetPrinterScanner.addSubnetHosts(hosts, InetAddress.getByName("10.1.2.3"), 16);
+        assertEquals(254, hosts.size());
+        assertTrue(hosts.contains(InetAddress.getByName("10.1.2.1")));
+        assertTrue(hosts.contains(InetAddress.getByName("10.1.2.254")));
+        assertFalse(hosts.contains(InetAddress.getByName("10.1.2.255")));
+
+        hosts.clear();
+        NetPrinterScanner.addSubnetHosts(hosts, InetAddress.getByName("10.1.2.3"), 31);
+        assertTrue(hosts.isEmpty());
+    }
+
+    @Test
+    public void reportsOnlyOpenPorts() throws IOException {
+        NetPrinterScanner scanner = new NetPrinterScanner(NetScanOptions.defaults().setConnectTimeout(2000));
+        List<String> found = probe(scanner, mFirst.getLocalPort(), mClosedPort, mSecond.getLocalPort());
+        Collections.sort(found);
+        List<String> expected = Arrays.asList("127.0.0.1:" + mFirst.getLocalPort(), "127.0.0.1:" + mSecond.getLocalPort());
+        Collections.sort(expected);
+        assertEquals(expected, found);
+        assertEquals(0, scanner.getFailedProbes());
+    }
+
+    @Test
+    public void retriesProbesThatFoundNoDescriptor() throws IOException {
+        NetPrinterScanner scanner = new NetPrinterScanner(NetScanOptions.defaults().setConnectTimeout(2000)) {
+            private int opened = 0;
+
+            @Override
+            SocketChannel openChannel() throws IOException {
+                // the second socket finds the descriptor table full
+                if (++opened == 2) {
+                    throw new IOException("Too many open files");
+                }
+                return super.openChannel();
+            }
+        };
+        List<String> found = probe(scanner, mFirst.getLocalPort(), mSecond.getLocalPort());
+        assertEquals(2, found.size());
+        assertEquals(0, scanner.getFailedProbes());
+    }
+
+    @Test
+    public void countsProbesThatCannotStartAtAll() throws IOException {
+        NetPrinterScanner scanner = new NetPrinterScanner(NetScanOptions.defaults()) {
+            @Override
+            SocketChannel openChannel() throws IOException {
+                throw new IOException("Too many open files");
+            }
+        };
+        assertTrue(probe(scanner, mFirst.getLocalPort(), mSecond.getLocalPort()).isEmpty());
+        assertEquals(2, scanner.getFailedProbes());
+        assertEquals("Too many open files", scanner.getLastFailure().getMessage());
+    }
+
+    private static List<String> probe(NetPrinterScanner scanner, int... ports) throws IOException {
+        List<InetSocketAddress> targets = new ArrayList<>();
+        for (int port : ports) {
+            targets.add(new InetSocketAddress("127.0.0.1", port));
+        }
+        final List<String> found = Collections.synchronizedList(new ArrayList<String>());
+        scanner.probeTargets(targets, new NetPrinterScanner.Listener() {
+            @Override
+            public void onPrinterFound(String host, int port) {
+                found.add(host + ":" + port);
+            }
+        });
+        return found;
+    }
+}
@@ -0,0 +1,93 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class PipelinedPrinterOutputTest {
+
+    @Test
+    public void keepsOrderWhenTheCallerReusesItsBuffer() throws IOException {
+        RecordingOutput target = new RecordingOutput();
+        PipelinedPrinterOutput output = new PipelinedPrinterOutput(target, 2);
+        byte[] stripe = new byte[3];
+        byte[] expected = new byte[300];
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 3; j++) {
+                stripe[j] = (byte) (i + j);
+                expected[i * 3 + j] = stripe[j];
+            }
+            output.write(stripe, 0, stripe.length);
+        }
+        output.flush();
+        assertArrayEquals(expected, target.bytes());
+        assertTrue(target.flushed);
+        output.close();
+    }
+
+    @Test
+    public void rethrowsTransmitFailures() throws IOException {
+        PipelinedPrinterOutput output = new PipelinedPrinterOutput(new PrinterOutput() {
+            @Override
+            public void write(byte[] data, int offset, int length) throws IOException {
+                throw new IOException("broken pipe");
+            }
+
+            @Override
+            public void flush() {
+            }
+        });
+        output.write(new byte[] { 1 }, 0, 1);
+        try {
+            output.flush();
+            fail();
+        } catch (IOException e) {
+            assertEquals("broken pipe", e.getMessage());
+        }
+        output.close();
+    }
+
+    @Test
+    public void jobsOnOneQueueShareItsPipeline() throws InterruptedException, IOException {
+        PrinterJobQueue queue = new PrinterJobQueue("test");
+        final AtomicReference<PipelinedPrinterOutput> first = new AtomicReference<>();
+        final AtomicReference<PipelinedPrinterOutput> second = new AtomicReference<>();
+        final RecordingOutput target = new RecordingOutput();
+        final CountDownLatch done = new CountDownLatch(2);
+        queue.submit(job(first, target, done));
+        queue.submit(job(second, target, done));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        queue.shutdown();
+
+        assertSame(first.get(), second.get());
+        assertArrayEquals(new byte[] { 7, 7 }, target.bytes());
+        // outside a writer thread every job gets its own
+        PipelinedPrinterOutput own = PipelinedPrinterOutput.obtain(target);
+        assertNotSame(first.get(), own);
+        own.close();
+    }
+
+    private static Runnable job(final AtomicReference<PipelinedPrinterOutput> pipeline, final PrinterOutput target,
+                                final CountDownLatch done) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    PipelinedPrinterOutput output = PipelinedPrinterOutput.obtain(target);
+                    pipeline.set(output);
+                    output.write(new byte[] { 7 }, 0, 1);
+                    output.close();
+                } catch (IOException e) {
+                    fail(e.getMessage());
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.pinmi.react.printer.adapter;
+
+import com.facebook.react.bridge.Callback;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class PrinterJobQueueTest {
+
+    @Test
+    public void runsJobsInSubmissionOrder() throws InterruptedException {
+        PrinterJobQueue queue = new PrinterJobQueue("test");
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        for (int i = 0; i < 10; i++) {
+            final int n = i;
+            assertTrue(queue.submit(new Runnable() {
+                @Override
+                public void run() {
+                    order.add(n);
+                }
+            }));
+        }
+        await(queue);
+        assertEquals(10, order.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void reportsRuntimeExceptionsOnceAndKeepsGoing() throws InterruptedException {
+        PrinterJobQueue queue = new PrinterJobQueue("test");
+        RecordingCallback errors = new RecordingCallback();
+        final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+        queue.submit(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalArgumentException("unknown barcode type");
+            }
+        }, errors);
+        queue.submit(new Runnable() {
+            @Override
+            public void run() {
+                ran.add("next");
+            }
+        }, errors);
+        await(queue);
+        assertEquals(Collections.singletonList("unknown barcode type"), errors.messages);
+        assertEquals(Collections.singletonList("next"), ran);
+    }
+
+    @Test
+    public void rejectsJobsWhenFullOrShutDown() throws InterruptedException {
+        PrinterJobQueue queue = new PrinterJobQueue("test", 1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        queue.submit(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        RecordingCallback errors = new RecordingCallback();
+        assertTrue(queue.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, errors));
+        assertFalse(queue.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, errors));
+        assertEquals(Collections.singletonList("print queue for test is full or closed, try again later"), errors.messages);
+
+        release.countDown();
+        queue.shutdown();
+        assertFalse(queue.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }));
+    }
+
+    /**
+     * Waits for every job submitted so far to finish.
+     */
+    private static void await(PrinterJobQueue queue) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        queue.submit(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private static class RecordingCallback implements Callback {
+        final List<Object> messages = Collections.synchronizedList(new ArrayList<Object>());
+
+        @Override
+        public void invoke(Object... args) {
+            messages.add(args[0]);
+        }
+    }
+}
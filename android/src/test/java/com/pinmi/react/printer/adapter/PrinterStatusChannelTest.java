@@ -0,0 +1,91 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class PrinterStatusChannelTest {
+
+    @Test
+    public void decodesRealTimeReplies() throws IOException {
+        FakePrinter printer = new FakePrinter();
+        printer.paperEnd = true;
+        PrinterStatus status = channel(printer).query();
+        assertTrue(status.isOnline());
+        assertTrue(status.isPaperEnd());
+        assertFalse(status.isReady());
+        assertEquals("out of paper", status.describeProblem());
+    }
+
+    @Test
+    public void silentPrinterMakesTheChannelWriteOnly() throws IOException {
+        FakePrinter printer = new FakePrinter();
+        printer.answersStatus = false;
+        PrinterStatusChannel channel = channel(printer);
+        channel.awaitReady();
+        assertFalse(channel.isSupported());
+
+        int writes = printer.writes.size();
+        channel.awaitPrinted();
+        assertEquals(writes, printer.writes.size());
+    }
+
+    @Test
+    public void confirmsJobsWithTransmitStatus() throws IOException {
+        FakePrinter printer = new FakePrinter();
+        PrinterStatusChannel channel = channel(printer);
+        channel.awaitPrinted();
+        assertEquals(1, printer.transmitRequests);
+    }
+
+    @Test
+    public void skipsAutomaticStatusBackBlocks() throws IOException {
+        FakePrinter printer = new FakePrinter();
+        // ASB block reporting the cover open, ahead of the GS r reply
+        printer.replies.add(0x10 | 0x20);
+        printer.replies.add(0);
+        printer.replies.add(0);
+        printer.replies.add(0);
+        PrinterStatusChannel channel = channel(printer);
+        channel.awaitPrinted();
+        assertTrue(channel.getLastStatus().isCoverOpen());
+    }
+
+    @Test
+    public void readyPrinterIgnoringTransmitStatusIsNotAFailure() throws IOException {
+        FakePrinter printer = new FakePrinter();
+        printer.answersTransmit = false;
+        PrinterStatusChannel channel = channel(printer);
+        channel.awaitPrinted();
+        assertTrue(channel.isSupported());
+
+        // later jobs no longer wait for a reply that never comes
+        channel.awaitPrinted();
+        assertEquals(1, printer.transmitRequests);
+    }
+
+    @Test
+    public void stalledPrinterReportsWhy() throws IOException {
+        FakePrinter printer = new FakePrinter();
+        printer.answersTransmit = false;
+        printer.paperEnd = true;
+        PrinterStatusChannel channel = channel(printer);
+        try {
+            channel.awaitPrinted();
+            fail();
+        } catch (IOException e) {
+            assertEquals("printer did not confirm the job: out of paper", e.getMessage());
+        }
+        // a stall is not taken as missing GS r support
+        printer.paperEnd = false;
+        printer.answersTransmit = true;
+        channel.awaitPrinted();
+        assertEquals(2, printer.transmitRequests);
+    }
+
+    private static PrinterStatusChannel channel(FakePrinter printer) {
+        return new PrinterStatusChannel(printer, printer, 50);
+    }
+}
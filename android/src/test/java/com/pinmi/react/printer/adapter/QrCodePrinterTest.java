@@ -0,0 +1,79 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class QrCodePrinterTest {
+
+    @Test
+    public void buildsModel2Sequence() throws IOException {
+        QrCodeOptions options = QrCodeOptions.defaults()
+                .setModuleSize(6)
+                .setErrorCorrection(QrCodeOptions.ErrorCorrection.Q);
+        byte[] command = QrCodePrinter.nativeQrCode("abc", options);
+
+        byte[] expected = {
+                0x1B, 0x61, 0x31,
+                // select model 2
+                0x1D, 0x28, 0x6B, 0x04, 0x00, 0x31, 0x41, 0x32, 0x00,
+                // module size
+                0x1D, 0x28, 0x6B, 0x03, 0x00, 0x31, 0x43, 6,
+                // error correction Q
+                0x1D, 0x28, 0x6B, 0x03, 0x00, 0x31, 0x45, 50,
+                // store 3 bytes of data
+                0x1D, 0x28, 0x6B, 6, 0, 0x31, 0x50, 0x30, 'a', 'b', 'c',
+                // print the symbol
+                0x1D, 0x28, 0x6B, 0x03, 0x00, 0x31, 0x51, 0x30,
+                0x0A
+        };
+        assertArrayEquals(expected, command);
+    }
+
+    @Test
+    public void storesLongDataWithTwoByteLength() throws IOException {
+        char[] content = new char[300];
+        Arrays.fill(content, 'x');
+        byte[] command = QrCodePrinter.nativeQrCode(new String(content), QrCodeOptions.defaults());
+
+        // pL pH of function 180 count the data plus cn, fn and m
+        int store = 3 + 9 + 8 + 8;
+        assertEquals(0x50, command[store + 6]);
+        assertEquals((303 & 0xff), command[store + 3] & 0xff);
+        assertEquals(303 >> 8, command[store + 4]);
+        assertEquals(store + 8 + 300 + 8 + 1, command.length);
+    }
+
+    @Test
+    public void encodesContentAsUtf8() throws IOException {
+        byte[] command = QrCodePrinter.nativeQrCode("é", QrCodeOptions.defaults());
+        int data = 3 + 9 + 8 + 8 + 8;
+        assertEquals(5, command[data - 5]);
+        assertEquals((byte) 0xC3, command[data]);
+        assertEquals((byte) 0xA9, command[data + 1]);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsEmptyContent() throws IOException {
+        QrCodePrinter.nativeQrCode("", QrCodeOptions.defaults());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsContentTooLongForTheSymbol() throws IOException {
+        char[] content = new char[7090];
+        Arrays.fill(content, '1');
+        QrCodePrinter.nativeQrCode(new String(content), QrCodeOptions.defaults());
+    }
+
+    @Test
+    public void legacyOptionsMatchThePreviousBitmap() {
+        QrCodeOptions options = QrCodeOptions.legacy();
+        assertEquals(QrCodeOptions.QrMode.RASTER, options.getMode());
+        assertEquals(QrCodeOptions.ErrorCorrection.L, options.getErrorCorrection());
+        assertEquals(200, options.getSymbolSize());
+        assertEquals(0, QrCodeOptions.defaults().getSymbolSize());
+    }
+}
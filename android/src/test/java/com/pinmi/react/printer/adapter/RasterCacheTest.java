@@ -0,0 +1,106 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class RasterCacheTest {
+
+    private File mDir;
+
+    @Before
+    public void createDir() throws IOException {
+        mDir = File.createTempFile("raster", "");
+        assertTrue(mDir.delete());
+        assertTrue(mDir.mkdir());
+    }
+
+    @After
+    public void deleteDir() {
+        File[] files = mDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        mDir.delete();
+    }
+
+    @Test
+    public void keysChangeWithVersionAndOptions() {
+        ImagePrintOptions options = ImagePrintOptions.defaults();
+        String key = RasterCache.keyFor("http://host/logo.png", "v1", options);
+        assertEquals(key, RasterCache.keyFor("http://host/logo.png", "v1", ImagePrintOptions.defaults()));
+        assertNotEquals(key, RasterCache.keyFor("http://host/logo.png", "v2", options));
+        assertNotEquals(key, RasterCache.keyFor("http://host/logo.png", "v1",
+                ImagePrintOptions.defaults().setThreshold(options.getThreshold() + 1)));
+        assertNotEquals(key, RasterCache.keyFor("http://host/logo.png", "v1",
+                ImagePrintOptions.defaults().setImageMode(ImagePrintOptions.ImageMode.RASTER)));
+    }
+
+    @Test
+    public void hashesKeysToHexFileNames() {
+        assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", RasterCache.sha1("abc"));
+    }
+
+    @Test
+    public void roundTripsThroughDisk() {
+        byte[] data = { 0x1D, 0x76, 0x30, 0, 1, 0, 1, 0, (byte) 0xFF };
+        new RasterDiskCache(mDir, 1024).put("key", data);
+        // a fresh instance, as after an app restart
+        RasterDiskCache cache = new RasterDiskCache(mDir, 1024);
+        assertArrayEquals(data, cache.get("key"));
+        assertNull(cache.get("other"));
+
+        cache.clear();
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedOverBudget() {
+        RasterDiskCache cache = new RasterDiskCache(mDir, 250);
+        cache.put("old", new byte[100]);
+        cache.put("new", new byte[100]);
+        new File(mDir, RasterCache.sha1("old")).setLastModified(System.currentTimeMillis() - 60000);
+        cache.put("newest", new byte[100]);
+        assertNull(cache.get("old"));
+        assertNotNull(cache.get("new"));
+        assertNotNull(cache.get("newest"));
+    }
+
+    @Test
+    public void concurrentWritesOfOneKeyLeaveACompleteEntry() throws InterruptedException {
+        final RasterDiskCache cache = new RasterDiskCache(mDir, 64L * 1024 * 1024);
+        Thread[] writers = new Thread[8];
+        for (int i = 0; i < writers.length; i++) {
+            final byte fill = (byte) i;
+            writers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    byte[] data = new byte[256 * 1024];
+                    Arrays.fill(data, fill);
+                    for (int n = 0; n < 5; n++) {
+                        cache.put("logo", data);
+                    }
+                }
+            });
+            writers[i].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        byte[] data = cache.get("logo");
+        assertEquals(256 * 1024, data.length);
+        for (byte b : data) {
+            assertEquals(data[0], b);
+        }
+        // every temp file was renamed into place or removed
+        assertEquals(1, mDir.listFiles().length);
+    }
+}
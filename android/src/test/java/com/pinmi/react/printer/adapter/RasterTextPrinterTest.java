@@ -0,0 +1,42 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RasterTextPrinterTest {
+
+    @Test
+    public void appliesSizeAndAlignmentTags() {
+        assertLine("<C>Total</C>", "Total", RasterTextPrinter.Size.NORMAL, RasterTextPrinter.Align.CENTER);
+        assertLine("<CB>Big</CB>", "Big", RasterTextPrinter.Size.DOUBLE, RasterTextPrinter.Align.CENTER);
+        assertLine("<CM>Tall</CM>", "Tall", RasterTextPrinter.Size.DOUBLE_HEIGHT, RasterTextPrinter.Align.CENTER);
+        assertLine("<CD>Wide</CD>", "Wide", RasterTextPrinter.Size.DOUBLE_WIDTH, RasterTextPrinter.Align.CENTER);
+        assertLine("<R><D>12.50</D></R>", "12.50", RasterTextPrinter.Size.DOUBLE_WIDTH, RasterTextPrinter.Align.RIGHT);
+    }
+
+    @Test
+    public void lastTagOfALineWins() {
+        assertLine("<M>a</M><L>b<B>c", "abc", RasterTextPrinter.Size.DOUBLE, RasterTextPrinter.Align.LEFT);
+        assertLine("<R>a<C>b", "ab", RasterTextPrinter.Size.NORMAL, RasterTextPrinter.Align.CENTER);
+    }
+
+    @Test
+    public void untaggedLinesFollowTheirDirection() {
+        assertLine("שלום", "שלום", RasterTextPrinter.Size.NORMAL, RasterTextPrinter.Align.START);
+        assertLine("", "", RasterTextPrinter.Size.NORMAL, RasterTextPrinter.Align.START);
+    }
+
+    @Test
+    public void dropsALessThanThatStartsNoTag() {
+        assertLine("a < b <X>", "a  b X>", RasterTextPrinter.Size.NORMAL, RasterTextPrinter.Align.START);
+    }
+
+    private static void assertLine(String markup, String text, RasterTextPrinter.Size size,
+                                   RasterTextPrinter.Align align) {
+        RasterTextPrinter.MarkedLine line = RasterTextPrinter.parseLine(markup);
+        assertEquals(text, line.text);
+        assertEquals(size, line.size);
+        assertEquals(align, line.align);
+    }
+}
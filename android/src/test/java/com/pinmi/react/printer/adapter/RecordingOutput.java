@@ -0,0 +1,31 @@
+package com.pinmi.react.printer.adapter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PrinterOutput that keeps every byte and the length of each write.
+ */
+
+class RecordingOutput implements PrinterOutput {
+
+    final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    final List<Integer> writes = new ArrayList<>();
+    boolean flushed = false;
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        data.write(bytes, offset, length);
+        writes.add(length);
+    }
+
+    @Override
+    public void flush() {
+        flushed = true;
+    }
+
+    byte[] bytes() {
+        return data.toByteArray();
+    }
+}
@@ -0,0 +1,109 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TablePrinterTest {
+
+    @Test
+    public void flexibleColumnsShareWhatFixedOnesLeave() {
+        assertArrayEquals(new int[] { 4, 8, 8 },
+                TablePrinter.columnWidths(columns(4, 0, 0), 20));
+        // the remainder goes to the first flexible columns
+        assertArrayEquals(new int[] { 4, 3, 3 },
+                TablePrinter.columnWidths(columns(0, 0, 0), 10));
+    }
+
+    @Test
+    public void fixedColumnsShrinkInProportion() {
+        assertArrayEquals(new int[] { 10, 10 },
+                TablePrinter.columnWidths(columns(30, 30), 20));
+        // every flexible column keeps at least one cell
+        assertArrayEquals(new int[] { 9, 1 },
+                TablePrinter.columnWidths(columns(30, 0), 10));
+    }
+
+    @Test
+    public void wrapsByWordCharOrClip() {
+        TextMetrics metrics = TextMetrics.getInstance();
+        assertEquals(Arrays.asList("hello", "world", "foo"),
+                TablePrinter.wrap("hello world foo", 7, TableOptions.Wrap.WORD, metrics));
+        assertEquals(Arrays.asList("hello w", "orld fo", "o"),
+                TablePrinter.wrap("hello world foo", 7, TableOptions.Wrap.CHAR, metrics));
+        assertEquals(Collections.singletonList("hello w"),
+                TablePrinter.wrap("hello world foo", 7, TableOptions.Wrap.CLIP, metrics));
+        // a word wider than the column is broken inside
+        assertEquals(Arrays.asList("abcd", "ef"),
+                TablePrinter.wrap("abcdef", 4, TableOptions.Wrap.WORD, metrics));
+        assertEquals(Arrays.asList("a", "", "b"),
+                TablePrinter.wrap("a\n\nb", 5, TableOptions.Wrap.WORD, metrics));
+    }
+
+    @Test
+    public void wrapsFullWidthCharactersByCells() {
+        TextMetrics metrics = TextMetrics.getInstance();
+        assertEquals(Arrays.asList("中文", "字"),
+                TablePrinter.wrap("中文字", 4, TableOptions.Wrap.CHAR, metrics));
+        // a full-width character in a one-cell column still prints
+        assertEquals(Arrays.asList("中", "文"),
+                TablePrinter.wrap("中文", 1, TableOptions.Wrap.CHAR, metrics));
+    }
+
+    @Test
+    public void laysOutAlignedColumns() {
+        List<TableOptions.Column> columns = new ArrayList<>();
+        columns.add(new TableOptions.Column());
+        columns.add(new TableOptions.Column().setWidth(4).setAlign(TableOptions.Align.RIGHT));
+        columns.add(new TableOptions.Column().setWidth(7).setAlign(TableOptions.Align.CENTER));
+        TableOptions options = TableOptions.defaults().setColumns(columns).setLineWidth(24);
+
+        List<List<String>> rows = new ArrayList<>();
+        rows.add(Arrays.asList("Item", "Qty", "Price"));
+        rows.add(Arrays.asList("Green tea latte", "2", "4.50"));
+        rows.add(Arrays.asList("中文", null));
+
+        // 24 - 2 spacing - 11 fixed leaves 11 cells for the first column
+        String expected =
+                "Item         Qty  Price\n"
+              + "Green tea      2  4.50\n"
+              + "latte\n"
+              + "中文\n";
+        assertEquals(expected, TablePrinter.layout(rows, options));
+    }
+
+    @Test
+    public void dropsSpacingWhenColumnsWouldNotFit() {
+        TableOptions options = TableOptions.defaults().setLineWidth(4).setColumnSpacing(3);
+        List<List<String>> rows = Collections.singletonList(Arrays.asList("ab", "cd"));
+        assertEquals("abcd\n", TablePrinter.layout(rows, options));
+    }
+
+    @Test
+    public void lineWidthFollowsPaperAndFont() {
+        assertEquals(48, TableOptions.defaults().getLineWidth());
+        TableOptions fontB = TableOptions.defaults().setTextOptions(TextPrintOptions.defaults().setFontB(true));
+        assertEquals(64, fontB.getLineWidth());
+        assertEquals(30, TableOptions.defaults().setLineWidth(30).getLineWidth());
+    }
+
+    @Test
+    public void detectsRightToLeftCells() {
+        assertFalse(TablePrinter.hasRightToLeft(Collections.singletonList(Arrays.asList("abc", "中文", null))));
+        assertTrue(TablePrinter.hasRightToLeft(Collections.singletonList(Arrays.asList("abc", "שלום"))));
+        assertTrue(TablePrinter.hasRightToLeft(Collections.singletonList(Collections.singletonList("سلام 12"))));
+    }
+
+    private static List<TableOptions.Column> columns(int... widths) {
+        List<TableOptions.Column> columns = new ArrayList<>();
+        for (int width : widths) {
+            columns.add(new TableOptions.Column().setWidth(width));
+        }
+        return columns;
+    }
+}
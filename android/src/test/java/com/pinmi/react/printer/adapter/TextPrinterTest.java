@@ -0,0 +1,106 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+public class TextPrinterTest {
+
+    @Test
+    public void resolvesIconvLiteNames() throws IOException {
+        assertEquals(Charset.forName("UTF-8"), TextPrinter.charsetFor("UTF8"));
+        assertEquals(Charset.forName("UTF-8"), TextPrinter.charsetFor(""));
+        assertEquals(Charset.forName("UTF-8"), TextPrinter.charsetFor(null));
+        assertEquals(Charset.forName("windows-1252"), TextPrinter.charsetFor("windows1252"));
+        assertEquals(Charset.forName("windows-1251"), TextPrinter.charsetFor("win1251"));
+        assertEquals(Charset.forName("IBM866"), TextPrinter.charsetFor("cp866"));
+        assertEquals(Charset.forName("ISO-8859-1"), TextPrinter.charsetFor("latin1"));
+        assertEquals(Charset.forName("ISO-8859-15"), TextPrinter.charsetFor("iso-8859-15"));
+        assertEquals(Charset.forName("Shift_JIS"), TextPrinter.charsetFor("shiftjis"));
+        assertEquals(Charset.forName("EUC-KR"), TextPrinter.charsetFor("EUC-KR"));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsUnknownEncoding() throws IOException {
+        TextPrinter.charsetFor("no-such-encoding");
+    }
+
+    @Test
+    public void mapsSingleByteCharsetsToCodePages() throws IOException {
+        assertEquals(0, TextPrinter.codePageFor(TextPrinter.charsetFor("cp437")));
+        assertEquals(16, TextPrinter.codePageFor(TextPrinter.charsetFor("windows1252")));
+        assertEquals(16, TextPrinter.codePageFor(TextPrinter.charsetFor("latin1")));
+        assertEquals(17, TextPrinter.codePageFor(TextPrinter.charsetFor("cp866")));
+        assertEquals(46, TextPrinter.codePageFor(TextPrinter.charsetFor("windows1251")));
+        assertEquals(-1, TextPrinter.codePageFor(TextPrinter.charsetFor("UTF8")));
+        assertEquals(-1, TextPrinter.codePageFor(TextPrinter.charsetFor("shiftjis")));
+    }
+
+    @Test
+    public void encodesMarkupLikeExchangeText() throws IOException {
+        byte[] bytes = print("<C>Hi</C>\n<B>é</B>", TextPrintOptions.defaults().setEncoding("cp437"));
+
+        byte[] expected = {
+                27, 64, 27, 116, 0, 27, 50,
+                27, 97, 1, 'H', 'i', '\n',
+                27, 97, 0, 29, 33, 0, 27, 50,
+                27, 33, 48, 28, 33, 12, (byte) 0x82, 27, 33, 0, 28, 33, 0
+        };
+        assertArrayEquals(expected, bytes);
+    }
+
+    @Test
+    public void explicitCodePageWinsAndTrailerFollows() throws IOException {
+        TextPrintOptions options = TextPrintOptions.defaults()
+                .setEncoding("UTF8")
+                .setCodePage(3)
+                .setFontB(true)
+                .setTailingLine(true)
+                .setCut(true)
+                .setBeep(true);
+        byte[] bytes = print("a<x", options);
+
+        byte[] expected = {
+                27, 64, 27, 116, 3, 27, 77, 1, 27, 50,
+                // a '<' that starts no tag is dropped
+                'a', 'x',
+                10, 10, 10, 10, 10, 27, 105, 27, 66, 3, 2
+        };
+        assertArrayEquals(expected, bytes);
+    }
+
+    @Test
+    public void plainTextKeepsAngleBrackets() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TextPrinter.printPlain("<B>\n", TextPrintOptions.defaults(), new StreamPrinterOutput(out));
+        assertArrayEquals(new byte[] { 27, 64, 27, 50, '<', 'B', '>', '\n' }, out.toByteArray());
+    }
+
+    @Test
+    public void encodesTextLongerThanTheBuffer() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append("ü");
+        }
+        byte[] bytes = print(text.toString(), TextPrintOptions.defaults());
+        // init and line spacing, then two UTF-8 bytes per character
+        assertEquals(4 + 6000, bytes.length);
+        assertEquals((byte) 0xC3, bytes[4]);
+        assertEquals((byte) 0xBC, bytes[bytes.length - 1]);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsNullText() throws IOException {
+        print(null, TextPrintOptions.defaults());
+    }
+
+    private static byte[] print(String text, TextPrintOptions options) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TextPrinter.print(text, options, new StreamPrinterOutput(out));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,33 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class USBAsyncPrinterOutputTest {
+
+    @Test
+    public void timesTransfersFromWhenTheyReachTheBus() {
+        // queued on an idle bus: the whole wait counts
+        assertEquals(300, USBAsyncPrinterOutput.busTime(1000, 500, 1300));
+        // queued behind another transfer: only the time after it completed
+        assertEquals(200, USBAsyncPrinterOutput.busTime(1000, 1100, 1300));
+    }
+
+    @Test
+    public void backToBackTransfersAddUpToTheElapsedTime() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(128, 512, 4096);
+        // four transfers queued at once, completing 100 ns apart
+        long last = 0;
+        long total = 0;
+        for (int i = 1; i <= 4; i++) {
+            long now = 1000 + i * 100;
+            long time = USBAsyncPrinterOutput.busTime(1000, last, now);
+            sizer.record(512, time);
+            total += time;
+            last = now;
+        }
+        assertEquals(400, total);
+        assertEquals(1024, sizer.getChunkSize());
+    }
+}
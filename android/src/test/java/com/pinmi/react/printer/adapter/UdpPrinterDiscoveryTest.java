@@ -0,0 +1,197 @@
+package com.pinmi.react.printer.adapter;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class UdpPrinterDiscoveryTest {
+
+    private final static Charset ASCII = Charset.forName("US-ASCII");
+
+    private final List<DatagramSocket> mResponders = new ArrayList<>();
+
+    @After
+    public void closeResponders() {
+        for (DatagramSocket socket : mResponders) {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void parsesMdnsSrvPort() {
+        byte[] reply = mdnsSrvReply("kitchen._pdl-datastream._tcp.local", 9101);
+        assertEquals(9101, UdpPrinterDiscovery.parseMdnsResponse(reply, reply.length));
+    }
+
+    @Test
+    public void ignoresMdnsQueriesAndOtherServices() {
+        byte[] query = UdpPrinterDiscovery.mdnsQuery(new InetSocketAddress(0)).payload;
+        assertEquals(-1, UdpPrinterDiscovery.parseMdnsResponse(query, query.length));
+        byte[] other = mdnsSrvReply("office._ipp._tcp.local", 631);
+        assertEquals(-1, UdpPrinterDiscovery.parseMdnsResponse(other, other.length));
+    }
+
+    @Test
+    public void rejectsMalformedMdnsReplies() {
+        byte[] reply = mdnsSrvReply("kitchen._pdl-datastream._tcp.local", 9101);
+        // a label that claims more bytes than the packet has
+        byte[] overlong = Arrays.copyOf(reply, reply.length);
+        overlong[12] = 60;
+        assertEquals(-1, UdpPrinterDiscovery.parseMdnsResponse(overlong, 20));
+        // a compression pointer cut in half
+        byte[] pointer = Arrays.copyOf(reply, 13);
+        pointer[12] = (byte) 0xc0;
+        assertEquals(-1, UdpPrinterDiscovery.parseMdnsResponse(pointer, pointer.length));
+        for (int length = 0; length < reply.length; length++) {
+            UdpPrinterDiscovery.parseMdnsResponse(reply, length);
+        }
+    }
+
+    @Test
+    public void parsesSnmpErrorStatus() {
+        byte[] ok = snmpReply(0);
+        assertEquals(UdpPrinterDiscovery.RAW_PRINT_PORT, UdpPrinterDiscovery.parseSnmpResponse(ok, ok.length));
+        byte[] noSuchName = snmpReply(2);
+        assertEquals(-1, UdpPrinterDiscovery.parseSnmpResponse(noSuchName, noSuchName.length));
+        // cut anywhere before the error status
+        for (int length = 0; length <= ok.length - 6; length++) {
+            assertEquals(-1, UdpPrinterDiscovery.parseSnmpResponse(Arrays.copyOf(ok, length), length));
+        }
+    }
+
+    @Test
+    public void discoversLocalResponder() throws Exception {
+        DatagramSocket responder = respondWith(mdnsSrvReply("kitchen._pdl-datastream._tcp.local", 9101));
+        UdpPrinterDiscovery.Query query = UdpPrinterDiscovery.mdnsQuery(localTarget(responder));
+
+        List<String> found = discover(Collections.singletonList(query));
+        assertEquals(Collections.singletonList("127.0.0.1:9101"), found);
+    }
+
+    @Test
+    public void keepsListeningAfterMalformedReply() throws Exception {
+        byte[] truncated = { 0, 0, (byte) 0x84, 0, 0, 0, 0, 1, 0, 0, 0, 0, 60, 'x' };
+        DatagramSocket responder = respondWith(truncated, snmpReply(0));
+        UdpPrinterDiscovery.Query query = UdpPrinterDiscovery.snmpQuery(localTarget(responder));
+        // a parser that fails on the first reply and accepts the second
+        final UdpPrinterDiscovery.ResponseParser snmp = query.parser;
+        UdpPrinterDiscovery.Query throwing = new UdpPrinterDiscovery.Query(query.target, query.payload,
+                new UdpPrinterDiscovery.ResponseParser() {
+                    @Override
+                    public int parse(byte[] data, int length) {
+                        if (data[0] != 0x30) {
+                            throw new IllegalStateException("not a BER sequence");
+                        }
+                        return snmp.parse(data, length);
+                    }
+                });
+
+        List<String> found = discover(Collections.singletonList(throwing));
+        assertEquals(Collections.singletonList("127.0.0.1:" + UdpPrinterDiscovery.RAW_PRINT_PORT), found);
+    }
+
+    private List<String> discover(List<UdpPrinterDiscovery.Query> queries) throws Exception {
+        final List<String> found = new ArrayList<>();
+        new UdpPrinterDiscovery(queries, 500).discover(new NetPrinterScanner.Listener() {
+            @Override
+            public void onPrinterFound(String host, int port) {
+                found.add(host + ":" + port);
+            }
+        });
+        return found;
+    }
+
+    private static InetSocketAddress localTarget(DatagramSocket responder) throws Exception {
+        return new InetSocketAddress(InetAddress.getByName("127.0.0.1"), responder.getLocalPort());
+    }
+
+    /**
+     * Answers the first datagram it receives with each of the replies, in order.
+     */
+    private DatagramSocket respondWith(final byte[]... replies) throws Exception {
+        final DatagramSocket socket = new DatagramSocket(0, InetAddress.getByName("127.0.0.1"));
+        mResponders.add(socket);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    DatagramPacket query = new DatagramPacket(new byte[512], 512);
+                    socket.receive(query);
+                    for (byte[] reply : replies) {
+                        socket.send(new DatagramPacket(reply, reply.length, query.getSocketAddress()));
+                    }
+                } catch (Exception e) {
+                    // closed by the test
+                }
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return socket;
+    }
+
+    private static byte[] mdnsSrvReply(String name, int port) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // id 0, authoritative response, no questions, one answer
+        writeShort(out, 0);
+        writeShort(out, 0x8400);
+        writeShort(out, 0);
+        writeShort(out, 1);
+        writeShort(out, 0);
+        writeShort(out, 0);
+        writeName(out, name);
+        writeShort(out, 33);
+        writeShort(out, 1);
+        writeShort(out, 0);
+        writeShort(out, 120);
+        ByteArrayOutputStream rdata = new ByteArrayOutputStream();
+        writeShort(rdata, 0);
+        writeShort(rdata, 0);
+        writeShort(rdata, port);
+        writeName(rdata, "kitchen.local");
+        writeShort(out, rdata.size());
+        out.write(rdata.toByteArray(), 0, rdata.size());
+        return out.toByteArray();
+    }
+
+    private static byte[] snmpReply(int errorStatus) {
+        byte[] pdu = concat(new byte[] { 0x02, 1, 1, 0x02, 1, (byte) errorStatus, 0x02, 1, 0, 0x30, 0 });
+        byte[] message = concat(new byte[] { 0x02, 1, 0, 0x04, 6 }, "public".getBytes(ASCII),
+                new byte[] { (byte) 0xa2, (byte) pdu.length }, pdu);
+        return concat(new byte[] { 0x30, (byte) message.length }, message);
+    }
+
+    private static void writeName(ByteArrayOutputStream out, String name) {
+        for (String label : name.split("\\.")) {
+            byte[] bytes = label.getBytes(ASCII);
+            out.write(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        out.write(0);
+    }
+
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write((value >> 8) & 0xff);
+        out.write(value & 0xff);
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+}
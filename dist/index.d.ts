@@ -33,37 +33,140 @@ export interface PrinterImageOptions {
     imageHeight?: number;
     printerWidthType?: PrinterWidth;
     paddingX?: number;
+    imageMode?: "bitImage" | "raster";
+    dither?: "threshold" | "floyd-steinberg" | "atkinson" | "bayer";
+    threshold?: number;
+    cache?: boolean;
+    connectTimeout?: number;
+    readTimeout?: number;
+    lowMemoryDecode?: boolean;
+}
+export interface PrinterTextOptions extends PrinterOptions {
+    codePage?: number;
+    font?: "A" | "B";
+}
+export interface PrinterRasterTextOptions {
+    beep?: boolean;
+    cut?: boolean;
+    tailingLine?: boolean;
+    fontFamily?: string;
+    bold?: boolean;
+    fontSize?: number;
+    printerWidthType?: PrinterWidth;
+    paperWidth?: number;
+    paddingX?: number;
+    lineSpacing?: number;
+    threshold?: number;
+    imageMode?: "bitImage" | "raster";
+}
+export interface PrinterTableColumn {
+    width?: number;
+    align?: "left" | "center" | "right";
+    wrap?: "word" | "char" | "clip";
+}
+export interface PrinterTableOptions extends PrinterTextOptions {
+    columns?: PrinterTableColumn[];
+    lineWidth?: number;
+    printerWidthType?: PrinterWidth;
+    columnSpacing?: number;
+}
+export declare type PrinterTableRow = (string | number | boolean | null)[];
+export interface PrinterQrCodeOptions {
+    mode?: "native" | "raster";
+    moduleSize?: number;
+    errorCorrection?: "L" | "M" | "Q" | "H";
+}
+export interface PrinterBarcodeOptions {
+    type?: "UPC_A" | "UPC_E" | "EAN13" | "EAN8" | "CODE39" | "ITF" | "CODABAR" | "CODE93" | "CODE128";
+    mode?: "native" | "raster";
+    height?: number;
+    width?: number;
+    hri?: "none" | "above" | "below" | "both";
+    hriSmallFont?: boolean;
+    printerWidthType?: PrinterWidth;
+    paperWidth?: number;
+}
+export interface IPrinterStatus {
+    ready: boolean;
+    online: boolean;
+    waitingForRecovery: boolean;
+    drawerOpen: boolean;
+    coverOpen: boolean;
+    feedButtonPressed: boolean;
+    paperEnd: boolean;
+    paperNearEnd: boolean;
+    cutterError: boolean;
+    unrecoverableError: boolean;
+    autoRecoverableError: boolean;
+    updatedAt: number;
+    problem?: string;
 }
 export declare const USBPrinter: {
     init: () => Promise<void>;
     getDeviceList: () => Promise<IUSBPrinter[]>;
     connectPrinter: (vendorId: number, productId: number) => Promise<IUSBPrinter>;
     closeConn: () => Promise<void>;
-    printText: (text: string, opts?: PrinterOptions) => Promise<unknown>;
-    printBill: (text: string, opts?: PrinterOptions) => Promise<unknown>;
+    printText: (text: string, opts?: PrinterTextOptions) => Promise<unknown>;
+    printBill: (text: string, opts?: PrinterTextOptions) => Promise<unknown>;
     print: (buffer: Buffer) => Promise<void>;
+    printImage: (imgUrl: string, opts?: PrinterImageOptions) => Promise<unknown>;
+    printFile: (source: string) => Promise<unknown>;
+    printRasterText: (text: string, opts?: PrinterRasterTextOptions) => Promise<unknown>;
+    printTable: (rows: PrinterTableRow[], opts?: PrinterTableOptions) => Promise<unknown>;
+    printQrCode: (qrCode: string, opts?: PrinterQrCodeOptions) => Promise<unknown>;
+    printBarcode: (data: string, opts?: PrinterBarcodeOptions) => Promise<unknown>;
+    prefetchImage: (imgUrl: string, opts?: PrinterImageOptions) => Promise<void>;
+    clearImageCache: () => Promise<void>;
+    getPrinterStatus: () => Promise<IPrinterStatus>;
 };
 export declare const BLEPrinter: {
     init: () => Promise<void>;
     getDeviceList: () => Promise<IBLEPrinter[]>;
     connectPrinter: (inner_mac_address: string) => Promise<IBLEPrinter>;
     closeConn: () => Promise<void>;
-    printText: (text: string, opts?: PrinterOptions) => Promise<unknown>;
-    printBill: (text: string, opts?: PrinterOptions) => Promise<unknown>;
+    printText: (text: string, opts?: PrinterTextOptions) => Promise<unknown>;
+    printBill: (text: string, opts?: PrinterTextOptions) => Promise<unknown>;
     print: (buffer: Buffer) => Promise<void>;
     printImage: (imgUrl: string, opts?: PrinterImageOptions) => Promise<unknown>;
     printImageBase64: (Base64: string, opts?: PrinterImageOptions) => Promise<unknown>;
+    printFile: (source: string) => Promise<unknown>;
+    printRasterText: (text: string, opts?: PrinterRasterTextOptions) => Promise<unknown>;
+    printTable: (rows: PrinterTableRow[], opts?: PrinterTableOptions) => Promise<unknown>;
+    printQrCode: (qrCode: string, opts?: PrinterQrCodeOptions) => Promise<unknown>;
+    printBarcode: (data: string, opts?: PrinterBarcodeOptions) => Promise<unknown>;
+    prefetchImage: (imgUrl: string, opts?: PrinterImageOptions) => Promise<void>;
+    clearImageCache: () => Promise<void>;
+    getPrinterStatus: () => Promise<IPrinterStatus>;
 };
 export declare const NetPrinter: {
     init: () => Promise<void>;
     getDeviceList: () => Promise<INetPrinter[]>;
     connectPrinter: (host: string, port: number) => Promise<INetPrinter>;
     closeConn: () => Promise<void>;
-    printText: (text: string, opts?: {}) => Promise<unknown>;
-    printBill: (text: string, opts?: {}) => Promise<unknown>;
+    printText: (text: string, opts?: PrinterTextOptions) => Promise<unknown>;
+    printBill: (text: string, opts?: PrinterTextOptions) => Promise<unknown>;
     print: (buffer: Buffer) => Promise<void>;
     printImage: (imgUrl: string, opts?: PrinterImageOptions) => Promise<unknown>;
     printImageBase64: (Base64: string, opts?: PrinterImageOptions) => Promise<unknown>;
+    printFile: (source: string) => Promise<unknown>;
+    printRasterText: (text: string, opts?: PrinterRasterTextOptions) => Promise<unknown>;
+    printTable: (rows: PrinterTableRow[], opts?: PrinterTableOptions) => Promise<unknown>;
+    printQrCode: (qrCode: string, opts?: PrinterQrCodeOptions) => Promise<unknown>;
+    printBarcode: (data: string, opts?: PrinterBarcodeOptions) => Promise<unknown>;
+    prefetchImage: (imgUrl: string, opts?: PrinterImageOptions) => Promise<void>;
+    clearImageCache: () => Promise<void>;
+    getPrinterStatus: () => Promise<IPrinterStatus>;
+    printToPrinter: (host: string, port: number, buffer: Buffer) => Promise<unknown>;
+    printFileToPrinter: (host: string, port: number, source: string) => Promise<unknown>;
+    printTextToPrinter: (host: string, port: number, text: string, opts?: PrinterTextOptions) => Promise<unknown>;
+    printBillToPrinter: (host: string, port: number, text: string, opts?: PrinterTextOptions) => Promise<unknown>;
+    printRasterTextToPrinter: (host: string, port: number, text: string, opts?: PrinterRasterTextOptions) => Promise<unknown>;
+    printTableToPrinter: (host: string, port: number, rows: PrinterTableRow[], opts?: PrinterTableOptions) => Promise<unknown>;
+    printImageToPrinter: (host: string, port: number, imgUrl: string, opts?: PrinterImageOptions) => Promise<unknown>;
+    printQrCodeToPrinter: (host: string, port: number, qrCode: string, opts?: PrinterQrCodeOptions) => Promise<unknown>;
+    printBarcodeToPrinter: (host: string, port: number, data: string, opts?: PrinterBarcodeOptions) => Promise<unknown>;
+    getPrinterStatusOf: (host: string, port: number) => Promise<IPrinterStatus>;
+    closePrinter: (host: string, port: number) => Promise<void>;
 };
 export declare const NetPrinterEventEmitter: NativeEventEmitter;
 export declare enum RN_THERMAL_RECEIPT_PRINTER_EVENTS {
@@ -10,7 +10,6 @@ var __assign = (this && this.__assign) || function () {
     return __assign.apply(this, arguments);
 };
 import { NativeModules, NativeEventEmitter, Platform } from "react-native";
-import * as EPToolkit from "./utils/EPToolkit";
 var RNUSBPrinter = NativeModules.RNUSBPrinter;
 var RNBLEPrinter = NativeModules.RNBLEPrinter;
 var RNNetPrinter = NativeModules.RNNetPrinter;
@@ -25,27 +24,14 @@ var defaultOptions = {
     tailingLine: false,
     encoding: "UTF8",
 };
-var textTo64Buffer = function (text, opts) {
-    var defaultOptions = {
-        beep: false,
-        cut: false,
-        tailingLine: false,
-        encoding: "UTF8",
-    };
-    var options = __assign(__assign({}, defaultOptions), opts);
-    var buffer = EPToolkit.exchange_text(text, options);
-    return buffer.toString("base64");
-};
-var billTo64Buffer = function (text, opts) {
-    var defaultOptions = {
-        beep: true,
-        cut: true,
-        encoding: "UTF8",
-        tailingLine: true,
-    };
-    var options = __assign(__assign({}, defaultOptions), opts);
-    var buffer = EPToolkit.exchange_text(text, options);
-    return buffer.toString("base64");
+var androidOnly = function (method, run) {
+    return new Promise(function (resolve, reject) {
+        if (Platform.OS !== "android") {
+            reject(new Error(method + " is only supported on Android"));
+            return;
+        }
+        run(resolve, reject);
+    });
 };
 var textPreprocessingIOS = function (text) {
     var options = {
@@ -93,13 +79,13 @@ export var USBPrinter = {
     printText: function (text, opts) {
         if (opts === void 0) { opts = {}; }
         return new Promise(function (resolve, reject) {
-            RNUSBPrinter.printRawData(textTo64Buffer(text, opts), reject, resolve);
+            RNUSBPrinter.printText(text, opts, reject, resolve);
         });
     },
     printBill: function (text, opts) {
         if (opts === void 0) { opts = {}; }
         return new Promise(function (resolve, reject) {
-            RNUSBPrinter.printRawData(billTo64Buffer(text, opts), reject, resolve);
+            RNUSBPrinter.printBill(text, opts, reject, resolve);
         });
     },
     print: function (buffer) {
@@ -107,6 +93,58 @@ export var USBPrinter = {
             RNUSBPrinter.printRawData(buffer.toString("base64"), reject, resolve);
         });
     },
+    printImage: function (imgUrl, opts) {
+        if (opts === void 0) { opts = {}; }
+        return new Promise(function (resolve, reject) {
+            RNUSBPrinter.printImageDataWithOptions(imgUrl, opts, reject, resolve);
+        });
+    },
+    printFile: function (source) {
+        return androidOnly("printFile", function (resolve, reject) {
+            return RNUSBPrinter.printFile(source, reject, resolve);
+        });
+    },
+    printRasterText: function (text, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printRasterText", function (resolve, reject) {
+            return RNUSBPrinter.printRasterText(text, opts, reject, resolve);
+        });
+    },
+    printTable: function (rows, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printTable", function (resolve, reject) {
+            return RNUSBPrinter.printTable(rows, opts, reject, resolve);
+        });
+    },
+    printQrCode: function (qrCode, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printQrCode", function (resolve, reject) {
+            return RNUSBPrinter.printQrCodeWithOptions(qrCode, opts, reject, resolve);
+        });
+    },
+    printBarcode: function (data, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printBarcode", function (resolve, reject) {
+            return RNUSBPrinter.printBarcode(data, opts, reject, resolve);
+        });
+    },
+    prefetchImage: function (imgUrl, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("prefetchImage", function (resolve, reject) {
+            return RNUSBPrinter.prefetchImage(imgUrl, opts, function () { return resolve(); }, reject);
+        });
+    },
+    clearImageCache: function () {
+        return androidOnly("clearImageCache", function (resolve) {
+            RNUSBPrinter.clearImageCache();
+            resolve();
+        });
+    },
+    getPrinterStatus: function () {
+        return androidOnly("getPrinterStatus", function (resolve, reject) {
+            return RNUSBPrinter.getPrinterStatus(function (status) { return resolve(status); }, reject);
+        });
+    },
 };
 export var BLEPrinter = {
     init: function () {
@@ -138,7 +176,7 @@ export var BLEPrinter = {
                 RNBLEPrinter.printRawData(processedText.text, opts, reject, resolve);
             }
             else {
-                RNBLEPrinter.printRawData(textTo64Buffer(text, opts), reject, resolve);
+                RNBLEPrinter.printText(text, opts, reject, resolve);
             }
         });
     },
@@ -150,7 +188,7 @@ export var BLEPrinter = {
                 RNBLEPrinter.printRawData(processedText.text, opts, reject, resolve);
             }
             else {
-                RNBLEPrinter.printRawData(billTo64Buffer(text, opts), reject, resolve);
+                RNBLEPrinter.printBill(text, opts, reject, resolve);
             }
         });
     },
@@ -167,12 +205,11 @@ export var BLEPrinter = {
     printImage: function (imgUrl, opts) {
         if (opts === void 0) { opts = {}; }
         return new Promise(function (resolve, reject) {
-            var _a, _b;
             if (Platform.OS === "ios") {
                 RNBLEPrinter.printImageData(imgUrl, opts, reject, resolve);
             }
             else {
-                RNBLEPrinter.printImageData(imgUrl, (_a = opts === null || opts === void 0 ? void 0 : opts.imageWidth) !== null && _a !== void 0 ? _a : 0, (_b = opts === null || opts === void 0 ? void 0 : opts.imageHeight) !== null && _b !== void 0 ? _b : 0, reject, resolve);
+                RNBLEPrinter.printImageDataWithOptions(imgUrl, opts, reject, resolve);
             }
         });
     },
@@ -188,6 +225,52 @@ export var BLEPrinter = {
             }
         });
     },
+    printFile: function (source) {
+        return androidOnly("printFile", function (resolve, reject) {
+            return RNBLEPrinter.printFile(source, reject, resolve);
+        });
+    },
+    printRasterText: function (text, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printRasterText", function (resolve, reject) {
+            return RNBLEPrinter.printRasterText(text, opts, reject, resolve);
+        });
+    },
+    printTable: function (rows, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printTable", function (resolve, reject) {
+            return RNBLEPrinter.printTable(rows, opts, reject, resolve);
+        });
+    },
+    printQrCode: function (qrCode, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printQrCode", function (resolve, reject) {
+            return RNBLEPrinter.printQrCodeWithOptions(qrCode, opts, reject, resolve);
+        });
+    },
+    printBarcode: function (data, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printBarcode", function (resolve, reject) {
+            return RNBLEPrinter.printBarcode(data, opts, reject, resolve);
+        });
+    },
+    prefetchImage: function (imgUrl, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("prefetchImage", function (resolve, reject) {
+            return RNBLEPrinter.prefetchImage(imgUrl, opts, function () { return resolve(); }, reject);
+        });
+    },
+    clearImageCache: function () {
+        return androidOnly("clearImageCache", function (resolve) {
+            RNBLEPrinter.clearImageCache();
+            resolve();
+        });
+    },
+    getPrinterStatus: function () {
+        return androidOnly("getPrinterStatus", function (resolve, reject) {
+            return RNBLEPrinter.getPrinterStatus(function (status) { return resolve(status); }, reject);
+        });
+    },
 };
 export var NetPrinter = {
     init: function () {
@@ -219,7 +302,7 @@ export var NetPrinter = {
                 RNNetPrinter.printRawData(processedText.text, opts, reject, resolve);
             }
             else {
-                RNNetPrinter.printRawData(textTo64Buffer(text, opts), reject, resolve);
+                RNNetPrinter.printText(text, opts, reject, resolve);
             }
         });
     },
@@ -231,7 +314,7 @@ export var NetPrinter = {
                 RNNetPrinter.printRawData(processedText.text, opts, reject, resolve);
             }
             else {
-                RNNetPrinter.printRawData(billTo64Buffer(text, opts), reject, resolve);
+                RNNetPrinter.printBill(text, opts, reject, resolve);
             }
         });
     },
@@ -248,12 +331,11 @@ export var NetPrinter = {
     printImage: function (imgUrl, opts) {
         if (opts === void 0) { opts = {}; }
         return new Promise(function (resolve, reject) {
-            var _a, _b;
             if (Platform.OS === "ios") {
                 RNNetPrinter.printImageData(imgUrl, opts, reject, resolve);
             }
             else {
-                RNNetPrinter.printImageData(imgUrl, (_a = opts === null || opts === void 0 ? void 0 : opts.imageWidth) !== null && _a !== void 0 ? _a : 0, (_b = opts === null || opts === void 0 ? void 0 : opts.imageHeight) !== null && _b !== void 0 ? _b : 0, reject, resolve);
+                RNNetPrinter.printImageDataWithOptions(imgUrl, opts, reject, resolve);
             }
         });
     },
@@ -269,6 +351,115 @@ export var NetPrinter = {
             }
         });
     },
+    printFile: function (source) {
+        return androidOnly("printFile", function (resolve, reject) {
+            return RNNetPrinter.printFile(source, reject, resolve);
+        });
+    },
+    printRasterText: function (text, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printRasterText", function (resolve, reject) {
+            return RNNetPrinter.printRasterText(text, opts, reject, resolve);
+        });
+    },
+    printTable: function (rows, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printTable", function (resolve, reject) {
+            return RNNetPrinter.printTable(rows, opts, reject, resolve);
+        });
+    },
+    printQrCode: function (qrCode, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printQrCode", function (resolve, reject) {
+            return RNNetPrinter.printQrCodeWithOptions(qrCode, opts, reject, resolve);
+        });
+    },
+    printBarcode: function (data, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printBarcode", function (resolve, reject) {
+            return RNNetPrinter.printBarcode(data, opts, reject, resolve);
+        });
+    },
+    prefetchImage: function (imgUrl, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("prefetchImage", function (resolve, reject) {
+            return RNNetPrinter.prefetchImage(imgUrl, opts, function () { return resolve(); }, reject);
+        });
+    },
+    clearImageCache: function () {
+        return androidOnly("clearImageCache", function (resolve) {
+            RNNetPrinter.clearImageCache();
+            resolve();
+        });
+    },
+    getPrinterStatus: function () {
+        return androidOnly("getPrinterStatus", function (resolve, reject) {
+            return RNNetPrinter.getPrinterStatus(function (status) { return resolve(status); }, reject);
+        });
+    },
+    printToPrinter: function (host, port, buffer) {
+        return androidOnly("printToPrinter", function (resolve, reject) {
+            return RNNetPrinter.printRawDataToPrinter(host, port, buffer.toString("base64"), reject, resolve);
+        });
+    },
+    printFileToPrinter: function (host, port, source) {
+        return androidOnly("printFileToPrinter", function (resolve, reject) {
+            return RNNetPrinter.printFileToPrinter(host, port, source, reject, resolve);
+        });
+    },
+    printTextToPrinter: function (host, port, text, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printTextToPrinter", function (resolve, reject) {
+            return RNNetPrinter.printTextToPrinter(host, port, text, opts, reject, resolve);
+        });
+    },
+    printBillToPrinter: function (host, port, text, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printBillToPrinter", function (resolve, reject) {
+            return RNNetPrinter.printBillToPrinter(host, port, text, opts, reject, resolve);
+        });
+    },
+    printRasterTextToPrinter: function (host, port, text, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printRasterTextToPrinter", function (resolve, reject) {
+            return RNNetPrinter.printRasterTextToPrinter(host, port, text, opts, reject, resolve);
+        });
+    },
+    printTableToPrinter: function (host, port, rows, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printTableToPrinter", function (resolve, reject) {
+            return RNNetPrinter.printTableToPrinter(host, port, rows, opts, reject, resolve);
+        });
+    },
+    printImageToPrinter: function (host, port, imgUrl, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printImageToPrinter", function (resolve, reject) {
+            return RNNetPrinter.printImageDataToPrinter(host, port, imgUrl, opts, reject, resolve);
+        });
+    },
+    printQrCodeToPrinter: function (host, port, qrCode, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printQrCodeToPrinter", function (resolve, reject) {
+            return RNNetPrinter.printQrCodeToPrinter(host, port, qrCode, opts, reject, resolve);
+        });
+    },
+    printBarcodeToPrinter: function (host, port, data, opts) {
+        if (opts === void 0) { opts = {}; }
+        return androidOnly("printBarcodeToPrinter", function (resolve, reject) {
+            return RNNetPrinter.printBarcodeToPrinter(host, port, data, opts, reject, resolve);
+        });
+    },
+    getPrinterStatusOf: function (host, port) {
+        return androidOnly("getPrinterStatusOf", function (resolve, reject) {
+            return RNNetPrinter.getPrinterStatusOf(host, port, function (status) { return resolve(status); }, reject);
+        });
+    },
+    closePrinter: function (host, port) {
+        return androidOnly("closePrinter", function (resolve) {
+            RNNetPrinter.closePrinter(host, port);
+            resolve();
+        });
+    },
 };
 export var NetPrinterEventEmitter = new NativeEventEmitter(RNNetPrinter);
 export var RN_THERMAL_RECEIPT_PRINTER_EVENTS;